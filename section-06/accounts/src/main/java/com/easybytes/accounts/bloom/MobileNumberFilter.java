@@ -0,0 +1,263 @@
+package com.easybytes.accounts.bloom;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bloom filter of the mobile numbers of live customers, so that lookups of numbers nobody is registered with are
+ * answered without a query. {@link #mightExist} false is definite; true means the database has to be asked.
+ * <p>
+ * Filled from the customer table before the service takes requests, and rebuilt every {@code rebuild-interval} to
+ * drop the numbers of deleted customers, which a Bloom filter cannot remove. Until the first build is done every
+ * number might exist.
+ * <p>
+ * A number is added with {@link #add} inside the transaction that writes it, before the write. The add holds a
+ * read lock until that transaction completes, and a rebuild takes the write lock before it starts reading the
+ * table: every write is then either committed before the rebuild reads, or also added to the filter being built.
+ * A rolled back write leaves a number behind, which only costs a query.
+ * <p>
+ * Writes of other instances are only seen through the table: every {@code refresh-interval} the rows created or
+ * updated since the previous read, less {@code refresh-overlap} for transactions that committed late and for clock
+ * skew, are added. A number written elsewhere can therefore be ruled out until the next refresh. Should refreshes
+ * stop succeeding, the filter stops ruling numbers out after three intervals. Deployments that cannot accept even
+ * that delay turn the filter off with {@code accounts.mobile-filter.enabled=false}.
+ */
+@Slf4j
+@Component
+public class MobileNumberFilter implements SmartInitializingSingleton {
+
+    static final String CHECKS_COUNTER = "mobile.filter.checks";
+    static final String FALSE_POSITIVES_COUNTER = "mobile.filter.false.positives";
+
+    private static final String TABLE = "customer";
+    private static final String COUNT_LIVE = "select count(*) from customer where deleted = false";
+    private static final String SELECT_LIVE = "select mobile_number from customer where deleted = false";
+    private static final String SELECT_CHANGED = "select mobile_number from customer where deleted = false and created_at >= ? "
+            + "union all select mobile_number from customer where deleted = false and updated_at >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final long minimumCapacity;
+    private final Duration refreshOverlap;
+    private final long staleAfterNanos;
+    private final ReentrantReadWriteLock writersLock = new ReentrantReadWriteLock();
+    private final Counter absent;
+    private final Counter maybe;
+    private final Counter falsePositives;
+    private final Timer rebuildTimer;
+    // absent and false positive checks of the current filter, the observed false positive rate is made of them
+    private final AtomicLong checksAbsent = new AtomicLong();
+    private final AtomicLong checksFalsePositive = new AtomicLong();
+
+    private volatile BloomFilter current;
+    private volatile BloomFilter building;
+    private volatile boolean ready;
+    // rows written from this time on are read by the next refresh
+    private volatile LocalDateTime changedSince;
+    // System.nanoTime() when the table was last read
+    private volatile long readAt;
+
+    public MobileNumberFilter(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                              @Value("${accounts.mobile-filter.enabled:true}") boolean enabled,
+                              @Value("${accounts.mobile-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                              @Value("${accounts.mobile-filter.minimum-capacity:100000}") long minimumCapacity,
+                              @Value("${accounts.mobile-filter.refresh-interval:10s}") Duration refreshInterval,
+                              @Value("${accounts.mobile-filter.refresh-overlap:1m}") Duration refreshOverlap) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.minimumCapacity = minimumCapacity;
+        this.refreshOverlap = refreshOverlap;
+        this.staleAfterNanos = 3 * refreshInterval.toNanos();
+        this.current = BloomFilter.create(minimumCapacity, falsePositiveRate);
+        this.absent = Counter.builder(CHECKS_COUNTER)
+                .description("Mobile number lookups checked against the filter, by outcome")
+                .tag("table", TABLE).tag("result", "absent")
+                .register(meterRegistry);
+        this.maybe = Counter.builder(CHECKS_COUNTER)
+                .description("Mobile number lookups checked against the filter, by outcome")
+                .tag("table", TABLE).tag("result", "maybe")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder(FALSE_POSITIVES_COUNTER)
+                .description("Lookups the filter let through for a mobile number the database did not have")
+                .tag("table", TABLE)
+                .register(meterRegistry);
+        this.rebuildTimer = Timer.builder("mobile.filter.rebuild")
+                .description("Time taken to rebuild the filter from the table")
+                .tag("table", TABLE)
+                .register(meterRegistry);
+        Gauge.builder("mobile.filter.false.positive.rate", this, MobileNumberFilter::observedFalsePositiveRate)
+                .description("Share of lookups for unknown mobile numbers that the current filter let through")
+                .tag("table", TABLE)
+                .register(meterRegistry);
+        Gauge.builder("mobile.filter.expected.false.positive.rate", this,
+                        filter -> filter.current.expectedFalsePositiveRate())
+                .description("False positive rate expected from the bits set in the current filter")
+                .tag("table", TABLE)
+                .register(meterRegistry);
+        Gauge.builder("mobile.filter.memory", this, filter -> filter.current.sizeInBytes())
+                .description("Size of the bit array of the current filter")
+                .baseUnit(BaseUnits.BYTES)
+                .tag("table", TABLE)
+                .register(meterRegistry);
+        Gauge.builder("mobile.filter.entries", this, filter -> filter.current.entries())
+                .description("Mobile numbers in the current filter, deleted ones included until the next rebuild")
+                .tag("table", TABLE)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    /**
+     * @return false when no live customer has the mobile number
+     */
+    public boolean mightExist(String mobileNumber) {
+        if (!ready) {
+            return true;
+        }
+        // also when the numbers other instances wrote may be missing for longer than a few refreshes
+        if (current.mightContain(mobileNumber) || System.nanoTime() - readAt > staleAfterNanos) {
+            maybe.increment();
+            return true;
+        }
+        absent.increment();
+        checksAbsent.incrementAndGet();
+        return false;
+    }
+
+    /**
+     * To be called when a lookup that {@link #mightExist} let through found nothing.
+     */
+    public void recordFalsePositive() {
+        if (ready) {
+            falsePositives.increment();
+            checksFalsePositive.incrementAndGet();
+        }
+    }
+
+    /**
+     * Registers a mobile number a customer is about to be created with or changed to. Must be called inside the
+     * transaction that writes it, before the write.
+     */
+    public void add(String mobileNumber) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Mobile numbers must be added in the transaction that writes them");
+        }
+        holdReadLockUntilCompletion();
+        // building first: a rebuild publishes its filter as current before it clears building
+        BloomFilter next = building;
+        if (next != null) {
+            next.add(mobileNumber);
+        }
+        current.add(mobileNumber);
+    }
+
+    /**
+     * Replaces the filter with one built from the live rows, sized for twice their number.
+     */
+    @Scheduled(fixedDelayString = "${accounts.mobile-filter.rebuild-interval:1h}",
+            initialDelayString = "${accounts.mobile-filter.rebuild-interval:1h}")
+    public synchronized void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        LocalDateTime nextChangedSince = LocalDateTime.now().minus(refreshOverlap);
+        Long rows = jdbcTemplate.queryForObject(COUNT_LIVE, Long.class);
+        BloomFilter next = BloomFilter.create(Math.max(minimumCapacity, 2 * rows), falsePositiveRate);
+
+        writersLock.writeLock().lock();
+        try {
+            building = next;
+        } finally {
+            writersLock.writeLock().unlock();
+        }
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SELECT_LIVE);
+                statement.setFetchSize(1000);
+                return statement;
+            }, (RowCallbackHandler) resultSet -> next.add(resultSet.getString(1)));
+            current = next;
+            changedSince = nextChangedSince;
+            readAt = start;
+            checksAbsent.set(0);
+            checksFalsePositive.set(0);
+            ready = true;
+        } finally {
+            building = null;
+        }
+        long elapsed = System.nanoTime() - start;
+        rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        log.info("Rebuilt the {} mobile number filter with {} numbers, {} KB, in {} ms", TABLE, next.entries(),
+                next.sizeInBytes() / 1024, TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    /**
+     * Adds the mobile numbers of the rows created or updated since the previous read of the table, which are those
+     * other instances wrote.
+     */
+    @Scheduled(fixedDelayString = "${accounts.mobile-filter.refresh-interval:10s}",
+            initialDelayString = "${accounts.mobile-filter.refresh-interval:10s}")
+    public synchronized void refresh() {
+        if (!enabled || !ready) {
+            return;
+        }
+        long start = System.nanoTime();
+        LocalDateTime nextChangedSince = LocalDateTime.now().minus(refreshOverlap);
+        BloomFilter filter = current;
+        jdbcTemplate.query(SELECT_CHANGED, (RowCallbackHandler) resultSet -> filter.add(resultSet.getString(1)),
+                changedSince, changedSince);
+        changedSince = nextChangedSince;
+        readAt = start;
+    }
+
+    private double observedFalsePositiveRate() {
+        long passedUnknown = checksFalsePositive.get();
+        long total = passedUnknown + checksAbsent.get();
+        return total == 0 ? 0 : (double) passedUnknown / total;
+    }
+
+    private void holdReadLockUntilCompletion() {
+        if (TransactionSynchronizationManager.hasResource(writersLock)) {
+            return;
+        }
+        writersLock.readLock().lock();
+        TransactionSynchronizationManager.bindResource(writersLock, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(writersLock);
+                writersLock.readLock().unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.easybytes.accounts.client;
+
+import com.easybytes.accounts.dtos.CardsDto;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.Optional;
+
+/**
+ * Calls the cards service. A 404 means the customer has no card; any other failure is thrown.
+ */
+public class CardsClient {
+
+    private final RestClient restClient;
+
+    public CardsClient(RestClient restClient) {
+        this.restClient = restClient;
+    }
+
+    public Optional<CardsDto> fetchCard(String mobileNumber) {
+        try {
+            return Optional.ofNullable(restClient.get()
+                    .uri("/api/fetch?mobileNumber={mobileNumber}", mobileNumber)
+                    .retrieve()
+                    .body(CardsDto.class));
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.easybytes.accounts.client;
+
+import com.easybytes.accounts.dtos.LoansDto;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.Optional;
+
+/**
+ * Calls the loans service. A 404 means the customer has no loan; any other failure is thrown.
+ */
+public class LoansClient {
+
+    private final RestClient restClient;
+
+    public LoansClient(RestClient restClient) {
+        this.restClient = restClient;
+    }
+
+    public Optional<LoansDto> fetchLoan(String mobileNumber) {
+        try {
+            return Optional.ofNullable(restClient.get()
+                    .uri("/api/fetch?mobileNumber={mobileNumber}", mobileNumber)
+                    .retrieve()
+                    .body(LoansDto.class));
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.easybytes.accounts.config;
+
+import com.easybytes.accounts.outbox.EventTransport;
+import com.easybytes.accounts.outbox.HttpEventTransport;
+import com.easybytes.accounts.outbox.InMemoryEventTransport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Picks the transport the OutboxRelay publishes account events with: {@code accounts.outbox.transport=http} (the
+ * default) POSTs them to the cards and loans services so they can provision and remove cards and loans on their
+ * own, {@code in-memory} delivers them to listeners in this JVM.
+ * <p>
+ * Decided when the bean is created rather than with bean conditions, which Spring AOT would evaluate once at
+ * build time (see the aot-cds profile).
+ */
+@Configuration
+public class OutboxConfig {
+
+    @Bean
+    public EventTransport eventTransport(@Value("${accounts.outbox.transport:http}") String transport,
+                                         ApplicationEventPublisher applicationEventPublisher,
+                                         RestClient.Builder restClientBuilder,
+                                         @Value("${accounts.services.cards-url}") String cardsUrl,
+                                         @Value("${accounts.services.loans-url}") String loansUrl,
+                                         @Value("${accounts.services.connect-timeout:500ms}") Duration connectTimeout,
+                                         @Value("${accounts.services.read-timeout:2s}") Duration readTimeout) {
+        return switch (transport) {
+            case "in-memory" -> new InMemoryEventTransport(applicationEventPublisher);
+            case "http" -> new HttpEventTransport(List.of(
+                    ServiceClientsConfig.restClient(restClientBuilder, cardsUrl, connectTimeout, readTimeout),
+                    ServiceClientsConfig.restClient(restClientBuilder, loansUrl, connectTimeout, readTimeout)));
+            default -> throw new IllegalArgumentException(
+                    "Unknown accounts.outbox.transport '" + transport + "', expected in-memory or http");
+        };
+    }
+}
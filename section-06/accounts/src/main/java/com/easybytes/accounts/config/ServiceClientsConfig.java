@@ -0,0 +1,56 @@
+package com.easybytes.accounts.config;
+
+import com.easybytes.accounts.client.CardsClient;
+import com.easybytes.accounts.client.LoansClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class ServiceClientsConfig {
+
+    @Bean
+    public CardsClient cardsClient(RestClient.Builder restClientBuilder,
+                                   @Value("${accounts.services.cards-url}") String cardsUrl,
+                                   @Value("${accounts.services.connect-timeout:500ms}") Duration connectTimeout,
+                                   @Value("${accounts.services.read-timeout:2s}") Duration readTimeout) {
+        return new CardsClient(restClient(restClientBuilder, cardsUrl, connectTimeout, readTimeout));
+    }
+
+    @Bean
+    public LoansClient loansClient(RestClient.Builder restClientBuilder,
+                                   @Value("${accounts.services.loans-url}") String loansUrl,
+                                   @Value("${accounts.services.connect-timeout:500ms}") Duration connectTimeout,
+                                   @Value("${accounts.services.read-timeout:2s}") Duration readTimeout) {
+        return new LoansClient(restClient(restClientBuilder, loansUrl, connectTimeout, readTimeout));
+    }
+
+    /**
+     * Runs the calls to cards and loans side by side. They spend their time blocked on the network, so a
+     * virtual thread per call costs next to nothing and needs no pool sizing.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService customerDetailsExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("customer-details-", 0).factory());
+    }
+
+    public static RestClient restClient(RestClient.Builder restClientBuilder, String baseUrl,
+                                        Duration connectTimeout, Duration readTimeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(connectTimeout)
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        return restClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .requestFactory(requestFactory)
+                .build();
+    }
+}
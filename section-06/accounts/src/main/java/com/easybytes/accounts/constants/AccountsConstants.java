@@ -16,4 +16,14 @@ public class AccountsConstants {
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
      public static final String  STATUS_500 = "500";
      public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
+    public static final String  STATUS_400 = "400";
+    public static final String  MESSAGE_409_CONCURRENT_UPDATE = "The record was changed by another request. Please fetch it again and retry";
+    public static final String  MESSAGE_400_CUSTOMER_EXISTS = "Customer already registered with given mobileNumber";
+    public static final String  MESSAGE_400_MISSING_CUSTOMER = "Batch item must be a customer, not null";
+    public static final String  CUSTOMER_ACCOUNTS_CACHE = "customerAccounts";
+    public static final int  MAX_BATCH_SIZE = 1000;
+    public static final int  FETCH_CHUNK_SIZE = 500;
+    public static final int  EXPORT_PAGE_SIZE = 500;
+    public static final String  APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String  UK_CUSTOMER_MOBILE_NUMBER = "uk_customer_mobile_number";
 }
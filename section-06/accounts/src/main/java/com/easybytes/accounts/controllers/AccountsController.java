@@ -3,15 +3,25 @@ package com.easybytes.accounts.controllers;
 import com.easybytes.accounts.constants.AccountsConstants;
 import com.easybytes.accounts.dtos.*;
 import com.easybytes.accounts.services.IAccountService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
@@ -20,6 +30,18 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Tag(
         name = "CRUD REST APIs for Accounts in EazyBank",
@@ -30,6 +52,9 @@ import org.springframework.web.bind.annotation.*;
 @Validated
 public class AccountsController {
 
+    // fields a PATCH may change; accountNumber only identifies the account
+    private static final List<String> PATCHABLE_CUSTOMER_FIELDS = List.of("name", "email", "mobileNumber");
+    private static final List<String> PATCHABLE_ACCOUNT_FIELDS = List.of("accountType", "branchAddress");
 
     private final IAccountService iAccountService;
 
@@ -46,6 +71,12 @@ public class AccountsController {
     @Autowired
     private AccountsContactInfoDto accountsContactInfoDto;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
 
     @Operation(
             summary = "Create Account REST API",
@@ -73,6 +104,52 @@ public class AccountsController {
                 .body(new ResponseDto(AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201));
     }
 
+    @Operation(
+            summary = "Batch Create Accounts REST API",
+            description = "REST API to create many Customers & Accounts inside EazyBank in one call"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK, with one result per customer"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping("/create/batch")
+    public ResponseEntity<List<CustomerBatchResultDto>> createAccounts(@RequestBody
+                                                                       @Size(min = 1, max = AccountsConstants.MAX_BATCH_SIZE,
+                                                                               message = "Batch must contain between 1 and " + AccountsConstants.MAX_BATCH_SIZE + " customers")
+                                                                       List<CustomerDto> customerDtos) {
+        List<CustomerBatchResultDto> results = new ArrayList<>(customerDtos.size());
+        List<CustomerDto> validCustomerDtos = new ArrayList<>(customerDtos.size());
+        for (CustomerDto customerDto : customerDtos) {
+            CustomerBatchResultDto invalid = validateBatchItem(customerDto);
+            results.add(invalid);
+            if (invalid == null) {
+                validCustomerDtos.add(customerDto);
+            }
+        }
+        if (!validCustomerDtos.isEmpty()) {
+            Iterator<CustomerBatchResultDto> created = iAccountService.createAccounts(validCustomerDtos).iterator();
+            results.replaceAll(result -> result == null ? created.next() : result);
+        }
+        return ResponseEntity.status(HttpStatus.OK).body(results);
+    }
+
     @Operation(
             summary = "Fetch Account Details REST API",
             description = "REST API to fetch Customer &  Account details based on a mobile number"
@@ -82,6 +159,10 @@ public class AccountsController {
                     responseCode = "200",
                     description = "HTTP Status OK"
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified, when If-None-Match or If-Modified-Since still matches"
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error",
@@ -94,9 +175,53 @@ public class AccountsController {
     @GetMapping("/fetch")
     public ResponseEntity<CustomerAccountResponseDto> fetchAccountDetails(@RequestParam
                                                                               @Pattern(regexp = "^[0-9]{10}$", message = "Mobile number must be exactly 10 digits")
-                                                                              String mobileNum) {
-        CustomerAccountResponseDto customerAccountResponseDto = iAccountService.fetchAccount(mobileNum);
-        return ResponseEntity.status(HttpStatus.OK).body(customerAccountResponseDto);
+                                                                              String mobileNum,
+                                                                          WebRequest webRequest) {
+        // the version is read before the body: if an update lands in between, the client gets the new body
+        // under the old ETag and simply refetches next time. Bodies are cached by version, so a body read
+        // before an update can never be served under a later ETag
+        CustomerAccountVersion version = iAccountService.fetchAccountVersion(mobileNum);
+        if (webRequest.checkNotModified(version.eTag(), version.lastModified().toEpochMilli())) {
+            return null;
+        }
+        CustomerAccountResponseDto customerAccountResponseDto = iAccountService.fetchAccount(mobileNum, version);
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(version.eTag())
+                .lastModified(version.lastModified())
+                .body(customerAccountResponseDto);
+    }
+
+    @Operation(
+            summary = "Batch Fetch Account Details REST API",
+            description = "REST API to fetch Customer &  Account details for many mobile numbers in one call"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping("/fetch/batch")
+    public ResponseEntity<BatchFetchResponseDto<CustomerAccountResponseDto>> fetchAccountDetailsBatch(
+            @Valid @RequestBody BatchFetchRequestDto batchFetchRequestDto) {
+        BatchFetchResponseDto<CustomerAccountResponseDto> responseDto =
+                iAccountService.fetchAccounts(batchFetchRequestDto.getMobileNumbers());
+        return ResponseEntity.status(HttpStatus.OK).body(responseDto);
     }
 
     @Operation(
@@ -108,6 +233,13 @@ public class AccountsController {
                     responseCode = "200",
                     description = "HTTP Status OK"
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "HTTP Status Conflict",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "417",
                     description = "Expectation Failed"
@@ -135,6 +267,50 @@ public class AccountsController {
         }
     }
 
+    @Operation(
+            summary = "Patch Account Details REST API",
+            description = "REST API to update only the given Customer &  Account fields based on a account number"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "HTTP Status Conflict",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "417",
+                    description = "Expectation Failed"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PatchMapping("/update")
+    public ResponseEntity<ResponseDto> patchAccountDetails(@RequestBody CustomerAccountResponseDto responseDto) {
+        validatePresentFields(responseDto);
+        boolean isUpdated = iAccountService.patchAccount(responseDto);
+        if(isUpdated) {
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(new ResponseDto(AccountsConstants.STATUS_200, AccountsConstants.MESSAGE_200));
+        }else{
+            return ResponseEntity
+                    .status(HttpStatus.EXPECTATION_FAILED)
+                    .body(new ResponseDto(AccountsConstants.STATUS_417, AccountsConstants.MESSAGE_417_UPDATE));
+        }
+    }
+
     @Operation(
             summary = "Delete Account & Customer Details REST API",
             description = "REST API to delete Customer &  Account details based on a mobile number"
@@ -174,6 +350,48 @@ public class AccountsController {
         }
     }
 
+    @Operation(
+            summary = "Export Account Details REST API",
+            description = "REST API to stream every Customer &  Account as newline-delimited JSON"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping(value = "/export", produces = AccountsConstants.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportAccountDetails() {
+        // rows are left in the generator buffer instead of being flushed one by one
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody responseBody = outputStream -> {
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                iAccountService.exportAccounts(customerAccount -> writeLine(writer, generator, customerAccount));
+            }
+        };
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(AccountsConstants.APPLICATION_NDJSON_VALUE))
+                .body(responseBody);
+    }
+
+    private void writeLine(ObjectWriter writer, JsonGenerator generator, Object value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Operation(
             summary = "Get Build information",
             description = "Get Build information that is deployed into accounts microservice"
@@ -249,5 +467,49 @@ public class AccountsController {
                 .body(accountsContactInfoDto);
     }
 
+    /**
+     * Items of a batch are validated one by one rather than with @Valid, so that an invalid item gets a 400 result
+     * of its own instead of failing the whole batch.
+     *
+     * @return the 400 result of the item, or null when it is valid
+     */
+    private CustomerBatchResultDto validateBatchItem(CustomerDto customerDto) {
+        if (customerDto == null) {
+            return new CustomerBatchResultDto(null, AccountsConstants.STATUS_400, AccountsConstants.MESSAGE_400_MISSING_CUSTOMER);
+        }
+        Set<ConstraintViolation<CustomerDto>> violations = validator.validate(customerDto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        Map<String, String> validationErrors = new TreeMap<>();
+        violations.forEach(violation -> validationErrors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        return new CustomerBatchResultDto(customerDto.getMobileNumber(), AccountsConstants.STATUS_400,
+                validationErrors.toString());
+    }
+
+    /**
+     * A PATCH only carries the fields to change, so @Valid would reject it for every absent @NotEmpty field. The
+     * constraints of the fields that are present are checked one by one instead, and fail the request with a 400
+     * like a PUT does.
+     */
+    private void validatePresentFields(CustomerAccountResponseDto responseDto) {
+        Set<ConstraintViolation<?>> violations = new LinkedHashSet<>();
+        validatePresentFields(responseDto.getCustomerDto(), PATCHABLE_CUSTOMER_FIELDS, violations);
+        validatePresentFields(responseDto.getAccountsDto(), PATCHABLE_ACCOUNT_FIELDS, violations);
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
 
+    private void validatePresentFields(Object dto, List<String> fields, Set<ConstraintViolation<?>> violations) {
+        if (dto == null) {
+            return;
+        }
+        BeanWrapper properties = new BeanWrapperImpl(dto);
+        for (String field : fields) {
+            if (properties.getPropertyValue(field) != null) {
+                violations.addAll(validator.validateProperty(dto, field));
+            }
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package com.easybytes.accounts.dtos;
+
+import java.time.LocalDateTime;
+
+/**
+ * Account lifecycle event as published to other services. Delivery is at least once, so consumers should
+ * treat {@code eventId} as a deduplication key or apply events idempotently.
+ *
+ * @param previousMobileNumber the mobile number before an update changed it, otherwise null
+ * @param accountNumber        null for deletes
+ */
+public record AccountEvent(Long eventId, AccountEventType eventType, Long customerId, String mobileNumber,
+                           String previousMobileNumber, Long accountNumber, LocalDateTime occurredAt) {
+}
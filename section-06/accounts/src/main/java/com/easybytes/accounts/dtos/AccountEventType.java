@@ -0,0 +1,7 @@
+package com.easybytes.accounts.dtos;
+
+public enum AccountEventType {
+    ACCOUNT_CREATED,
+    ACCOUNT_UPDATED,
+    ACCOUNT_DELETED
+}
@@ -0,0 +1,25 @@
+package com.easybytes.accounts.dtos;
+
+import com.easybytes.accounts.constants.AccountsConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(
+        name = "BatchFetchRequest",
+        description = "Schema to hold the mobile numbers to fetch in one call"
+)
+public class BatchFetchRequestDto {
+
+    @NotEmpty(message = "Mobile numbers can not be a null or empty")
+    @Size(max = AccountsConstants.MAX_BATCH_SIZE, message = "At most " + AccountsConstants.MAX_BATCH_SIZE + " mobile numbers can be fetched at once")
+    @Schema(
+            description = "Mobile Numbers of the customers", example = "[\"9345432123\", \"9345432124\"]"
+    )
+    private List<@Pattern(regexp = "^[0-9]{10}$", message = "Mobile number must be exactly 10 digits") String> mobileNumbers;
+}
@@ -0,0 +1,35 @@
+package com.easybytes.accounts.dtos;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Identity and last modification time of a customer and its account, read without loading either
+ * row. Any change to what GET /api/fetch returns for the customer moves one of the timestamps, so
+ * they make a validator for conditional requests. Account columns are null when there is no account.
+ */
+public record CustomerAccountVersion(Long customerId, LocalDateTime customerModifiedAt,
+                                     Long accountNumber, LocalDateTime accountModifiedAt) {
+
+    public String eTag() {
+        return "\"" + Long.toHexString(customerId) + "-" + Long.toHexString(epochMicros(customerModifiedAt))
+                + "-" + (accountNumber == null ? "0" : Long.toHexString(accountNumber))
+                + "-" + Long.toHexString(epochMicros(accountModifiedAt)) + "\"";
+    }
+
+    public Instant lastModified() {
+        Instant customer = toInstant(customerModifiedAt);
+        Instant account = toInstant(accountModifiedAt);
+        return customer.isAfter(account) ? customer : account;
+    }
+
+    private static long epochMicros(LocalDateTime dateTime) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, toInstant(dateTime));
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime == null ? Instant.EPOCH : dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,10 @@
+package com.easybytes.accounts.dtos;
+
+/**
+ * Flat, read-only projection of a customer joined with its account, populated directly by the
+ * repository query without loading managed entities. Account columns are null when the customer
+ * has no account.
+ */
+public record CustomerAccountView(Long customerId, String name, String email, String mobileNumber,
+                                  Long accountNumber, String accountType, String branchAddress) {
+}
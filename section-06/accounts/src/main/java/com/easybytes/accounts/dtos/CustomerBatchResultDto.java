@@ -0,0 +1,31 @@
+package com.easybytes.accounts.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(
+        name = "CustomerBatchResult",
+        description = "Schema to hold the outcome of one item of a batch create request"
+)
+public class CustomerBatchResultDto {
+
+    @Schema(
+            description = "Mobile Number of the customer", example = "9345432123"
+    )
+    private String mobileNumber;
+
+    @Schema(
+            description = "Status code for this item"
+    )
+    private String statusCode;
+
+    @Schema(
+            description = "Status message for this item"
+    )
+    private String statusMsg;
+}
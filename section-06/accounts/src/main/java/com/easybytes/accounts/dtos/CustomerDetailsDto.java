@@ -0,0 +1,50 @@
+package com.easybytes.accounts.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Schema(
+        name = "CustomerDetails",
+        description = "Schema to hold Customer, Account, Cards and Loans information"
+)
+public class CustomerDetailsDto {
+
+    @Schema(
+            description = "Name of the customer", example = "Eazy Bytes"
+    )
+    private String name;
+
+    @Schema(
+            description = "Email address of the customer", example = "tutor@eazybytes.com"
+    )
+    private String email;
+
+    @Schema(
+            description = "Mobile Number of the customer", example = "9345432123"
+    )
+    private String mobileNumber;
+
+    @Schema(
+            description = "Account details of the Customer"
+    )
+    private AccountsDto accountsDto;
+
+    @Schema(
+            description = "Card details of the Customer; null when the customer has no card or the cards service is unavailable"
+    )
+    private CardsDto cardsDto;
+
+    @Schema(
+            description = "Loan details of the Customer; null when the customer has no loan or the loans service is unavailable"
+    )
+    private LoansDto loansDto;
+
+    @Schema(
+            description = "Services that failed or did not answer in time, so their part of the details is missing",
+            example = "[\"loans\"]"
+    )
+    private List<String> unavailableServices;
+}
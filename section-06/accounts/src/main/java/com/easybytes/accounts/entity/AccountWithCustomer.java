@@ -0,0 +1,8 @@
+package com.easybytes.accounts.entity;
+
+/**
+ * An account and the customer owning it, both managed, as loaded by one repository query for an update.
+ * The customer is null when the account references a customer that no longer exists.
+ */
+public record AccountWithCustomer(Accounts accounts, Customer customer) {
+}
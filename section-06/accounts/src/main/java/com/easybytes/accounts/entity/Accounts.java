@@ -2,15 +2,26 @@ package com.easybytes.accounts.entity;
 
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Transient;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SoftDelete;
+import org.springframework.data.domain.Persistable;
 
 @Entity
+@DynamicUpdate
+@SoftDelete
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "accounts")
 @Getter
 @Setter
 @ToString
 @NoArgsConstructor
 @AllArgsConstructor
-public class Accounts extends BaseEntity {
+public class Accounts extends BaseEntity implements Persistable<Long> {
 
     private Long customerId;
 
@@ -18,4 +29,29 @@ public class Accounts extends BaseEntity {
     private Long accountNumber;
     private String accountType;
     private String branchAddress;
+
+    // accountNumber is assigned by the application, so Spring Data cannot tell new rows from
+    // existing ones by the id; without this flag every save() would merge (SELECT then INSERT)
+    // and inserts could not be JDBC batched.
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    private boolean newEntity = true;
+
+    @Override
+    public Long getId() {
+        return accountNumber;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newEntity;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newEntity = false;
+    }
 }
@@ -3,6 +3,7 @@ package com.easybytes.accounts.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.EntityListeners;
 import jakarta.persistence.MappedSuperclass;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -36,4 +37,8 @@ public class BaseEntity {
     @LastModifiedBy
     @Column(insertable = false)
     private String updatedBy;
-}
\ No newline at end of file
+
+    // checked by every UPDATE/DELETE: a writer that lost a race matches no row and fails instead of overwriting
+    @Version
+    private Long version;
+}
@@ -2,13 +2,25 @@ package com.easybytes.accounts.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.SoftDelete;
 
 @Entity
+@DynamicUpdate
+// a delete only sets the deleted flag and every HQL query skips flagged rows; TombstonePurger removes them later
+@SoftDelete
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customer")
+@NaturalIdCache(region = "customer-by-mobile-number")
 @Getter @Setter @ToString @AllArgsConstructor @NoArgsConstructor
 public class Customer extends  BaseEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_seq", allocationSize = 50)
     @Column(name="customer_id")
     private Long customerId;
 
@@ -16,6 +28,8 @@ public class Customer extends  BaseEntity {
 
     private String email;
 
+    // mutable: updateAccount lets the customer change their mobile number
+    @NaturalId(mutable = true)
     @Column(name="mobile_number")
     private String mobileNumber;
 
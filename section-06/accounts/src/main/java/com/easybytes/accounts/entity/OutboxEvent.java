@@ -0,0 +1,53 @@
+package com.easybytes.accounts.entity;
+
+import com.easybytes.accounts.dtos.AccountEventType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An account event waiting to be published, written in the same transaction as the change it describes and
+ * deleted by the OutboxRelay once the transport has accepted it. Events the transport keeps refusing are parked
+ * instead, and left in the table.
+ */
+@Entity
+@Table(name = "outbox_event")
+@Getter @Setter @ToString @NoArgsConstructor
+public class OutboxEvent {
+
+    // one at a time: pooled blocks would let an instance hand out ids lower than events already committed by another
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private AccountEventType eventType;
+
+    private Long customerId;
+
+    private String mobileNumber;
+
+    private String previousMobileNumber;
+
+    private Long accountNumber;
+
+    private LocalDateTime createdAt;
+
+    // times a batch holding the event was refused by the transport
+    private int attempts;
+
+    // set once the event was refused max-attempts times on its own; the OutboxRelay no longer sends it
+    private LocalDateTime parkedAt;
+
+    public OutboxEvent(AccountEventType eventType, Long customerId, String mobileNumber,
+                       String previousMobileNumber, Long accountNumber) {
+        this.eventType = eventType;
+        this.customerId = customerId;
+        this.mobileNumber = mobileNumber;
+        this.previousMobileNumber = previousMobileNumber;
+        this.accountNumber = accountNumber;
+        this.createdAt = LocalDateTime.now();
+    }
+}
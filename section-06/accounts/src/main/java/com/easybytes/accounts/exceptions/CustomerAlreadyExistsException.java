@@ -6,6 +6,6 @@ import org.springframework.web.bind.annotation.ResponseStatus;
 @ResponseStatus(value = HttpStatus.BAD_REQUEST)
 public class CustomerAlreadyExistsException extends RuntimeException {
     public CustomerAlreadyExistsException(String message) {
-        super(message);
+        super(message, null, false, false);
     }
 }
@@ -1,7 +1,10 @@
 package com.easybytes.accounts.exceptions;
 
+import com.easybytes.accounts.constants.AccountsConstants;
 import com.easybytes.accounts.dtos.ErrorResponseDto;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
@@ -18,6 +21,7 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @ControllerAdvice
 public class GlobalExceptionHandler   extends ResponseEntityExceptionHandler {
@@ -25,19 +29,27 @@ public class GlobalExceptionHandler   extends ResponseEntityExceptionHandler {
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException ex, HttpHeaders headers, HttpStatusCode status, WebRequest request) {
-        Map<String, String> validationErrors = new HashMap<>();
         List<ObjectError> validationErrorList = ex.getBindingResult().getAllErrors();
-
-        validationErrorList.forEach((error) -> {
-            String fieldName = ((FieldError) error).getField();
-            String validationMsg = error.getDefaultMessage();
-            validationErrors.put(fieldName, validationMsg);
-        });
+        String validationMessage;
+
+        // A single bad field is the common case; render it in the map's {field=message} form without the map
+        if (validationErrorList.size() == 1) {
+            ObjectError error = validationErrorList.get(0);
+            validationMessage = "{" + ((FieldError) error).getField() + "=" + error.getDefaultMessage() + "}";
+        } else {
+            Map<String, String> validationErrors = new HashMap<>();
+            validationErrorList.forEach((error) -> {
+                String fieldName = ((FieldError) error).getField();
+                String validationMsg = error.getDefaultMessage();
+                validationErrors.put(fieldName, validationMsg);
+            });
+            validationMessage = validationErrors.toString();
+        }
 
         ErrorResponseDto error = new ErrorResponseDto(
                 request.getDescription(false),
                 HttpStatus.BAD_REQUEST,
-                validationErrors.toString(),
+                validationMessage,
                 LocalDateTime.now()
         );
 
@@ -48,27 +60,33 @@ public class GlobalExceptionHandler   extends ResponseEntityExceptionHandler {
     public ResponseEntity<ErrorResponseDto> handleConstraintViolationException(
             ConstraintViolationException ex, WebRequest request) {
 
-        Map<String, String> validationErrors = new HashMap<>();
+        Set<ConstraintViolation<?>> violations = ex.getConstraintViolations();
+        String validationMessage;
 
-        ex.getConstraintViolations().forEach(violation -> {
-            String fullPath = violation.getPropertyPath().toString();
-            String fieldName = fullPath.contains(".")
-                    ? fullPath.substring(fullPath.lastIndexOf('.') + 1)
-                    : fullPath;
-            String message = violation.getMessage();
-            validationErrors.put(fieldName, message);
-        });
+        if (violations.size() == 1) {
+            ConstraintViolation<?> violation = violations.iterator().next();
+            validationMessage = "{" + fieldName(violation) + "=" + violation.getMessage() + "}";
+        } else {
+            Map<String, String> validationErrors = new HashMap<>();
+            violations.forEach(violation -> validationErrors.put(fieldName(violation), violation.getMessage()));
+            validationMessage = validationErrors.toString();
+        }
 
         ErrorResponseDto error = new ErrorResponseDto(
                 request.getDescription(false),
                 HttpStatus.BAD_REQUEST,
-                validationErrors.toString(),
+                validationMessage,
                 LocalDateTime.now()
         );
 
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    private static String fieldName(ConstraintViolation<?> violation) {
+        String fullPath = violation.getPropertyPath().toString();
+        return fullPath.substring(fullPath.lastIndexOf('.') + 1);
+    }
+
     @ExceptionHandler(CustomerAlreadyExistsException.class)
     public ResponseEntity<ErrorResponseDto> handleCustomerExists(CustomerAlreadyExistsException ex, WebRequest request) {
         ErrorResponseDto error = new ErrorResponseDto(
@@ -91,6 +109,17 @@ public class GlobalExceptionHandler   extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponseDto> handleOptimisticLockingFailure(OptimisticLockingFailureException ex, WebRequest request) {
+        ErrorResponseDto error = new ErrorResponseDto(
+                request.getDescription(false),
+                HttpStatus.CONFLICT,
+                AccountsConstants.MESSAGE_409_CONCURRENT_UPDATE,
+                LocalDateTime.now()
+        );
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDto> handleResourceNotFoundException(Exception ex, WebRequest request) {
         ErrorResponseDto error = new ErrorResponseDto(
@@ -0,0 +1,12 @@
+package com.easybytes.accounts.mapper;
+
+import com.easybytes.accounts.dtos.AccountEvent;
+import com.easybytes.accounts.entity.OutboxEvent;
+
+public class AccountEventMapper {
+    public static AccountEvent mapToAccountEvent(final OutboxEvent outboxEvent) {
+        return new AccountEvent(outboxEvent.getId(), outboxEvent.getEventType(), outboxEvent.getCustomerId(),
+                outboxEvent.getMobileNumber(), outboxEvent.getPreviousMobileNumber(),
+                outboxEvent.getAccountNumber(), outboxEvent.getCreatedAt());
+    }
+}
@@ -27,4 +27,16 @@ public class AccountsMapper {
         accounts.setAccountType(accountsDto.getAccountType());
         accounts.setBranchAddress(accountsDto.getBranchAddress());
     }
+
+    /**
+     * Copies only the fields present in the request; the account number identifies the row and is never changed.
+     */
+    public static void patchAccounts(final AccountsDto accountsDto, final Accounts accounts) {
+        if (accountsDto.getAccountType() != null) {
+            accounts.setAccountType(accountsDto.getAccountType());
+        }
+        if (accountsDto.getBranchAddress() != null) {
+            accounts.setBranchAddress(accountsDto.getBranchAddress());
+        }
+    }
 }
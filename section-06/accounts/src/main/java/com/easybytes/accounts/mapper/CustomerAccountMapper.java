@@ -0,0 +1,22 @@
+package com.easybytes.accounts.mapper;
+
+import com.easybytes.accounts.dtos.AccountsDto;
+import com.easybytes.accounts.dtos.CustomerAccountResponseDto;
+import com.easybytes.accounts.dtos.CustomerAccountView;
+import com.easybytes.accounts.dtos.CustomerDto;
+
+public class CustomerAccountMapper {
+    public static CustomerAccountResponseDto mapToCustomerAccountResponseDto(final CustomerAccountView view) {
+        final CustomerDto customerDto = new CustomerDto();
+        customerDto.setName(view.name());
+        customerDto.setEmail(view.email());
+        customerDto.setMobileNumber(view.mobileNumber());
+
+        final AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(view.accountNumber());
+        accountsDto.setAccountType(view.accountType());
+        accountsDto.setBranchAddress(view.branchAddress());
+
+        return new CustomerAccountResponseDto(customerDto, accountsDto);
+    }
+}
@@ -32,4 +32,19 @@ public class CustomerMapper {
         customer.setCreatedAt(LocalDateTime.now());
         customer.setCreatedBy("system"); // or the actual user name
     }
+
+    /**
+     * Copies only the fields present in the request.
+     */
+    public static void patchCustomer(final CustomerDto customerDto, final Customer customer) {
+        if (customerDto.getName() != null) {
+            customer.setName(customerDto.getName());
+        }
+        if (customerDto.getEmail() != null) {
+            customer.setEmail(customerDto.getEmail());
+        }
+        if (customerDto.getMobileNumber() != null) {
+            customer.setMobileNumber(customerDto.getMobileNumber());
+        }
+    }
 }
@@ -0,0 +1,20 @@
+package com.easybytes.accounts.outbox;
+
+import com.easybytes.accounts.dtos.AccountEvent;
+
+import java.util.List;
+
+/**
+ * Where the OutboxRelay hands events over. Selected with {@code accounts.outbox.transport}, see OutboxConfig.
+ */
+public interface EventTransport {
+
+    /**
+     * Delivers a batch, in order. Returning normally means every event was accepted and the batch may be
+     * dropped from the outbox; throwing leaves the whole batch there to be sent again.
+     *
+     * @param events - pending events, oldest first
+     * @throws EventsRejectedException when the batch was refused in a way that sending it again cannot fix
+     */
+    void publish(List<AccountEvent> events);
+}
@@ -0,0 +1,12 @@
+package com.easybytes.accounts.outbox;
+
+/**
+ * Thrown by an {@link EventTransport} when a subscriber refused a batch for good, as opposed to being unreachable:
+ * sending the same batch again would be refused again.
+ */
+public class EventsRejectedException extends RuntimeException {
+
+    public EventsRejectedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,42 @@
+package com.easybytes.accounts.outbox;
+
+import com.easybytes.accounts.dtos.AccountEvent;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+/**
+ * POSTs each batch as a JSON array to {@code /api/events} of every subscribed service (cards and loans). A batch
+ * counts as delivered only when all subscribers accepted it, so a subscriber that was up may see it again after
+ * another one failed. A 4xx other than 408 and 429 means the subscriber refused the events themselves.
+ */
+public class HttpEventTransport implements EventTransport {
+
+    private final List<RestClient> subscribers;
+
+    public HttpEventTransport(List<RestClient> subscribers) {
+        this.subscribers = subscribers;
+    }
+
+    @Override
+    public void publish(List<AccountEvent> events) {
+        for (RestClient subscriber : subscribers) {
+            try {
+                subscriber.post()
+                        .uri("/api/events")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(events)
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode() == HttpStatus.REQUEST_TIMEOUT || e.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS) {
+                    throw e;
+                }
+                throw new EventsRejectedException(e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.easybytes.accounts.outbox;
+
+import com.easybytes.accounts.dtos.AccountEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+/**
+ * Publishes each event as a Spring application event, so {@code @EventListener(AccountEvent.class)} methods in
+ * this JVM act as subscribers. Listeners run on the relay thread; one that throws fails the batch, which is then
+ * redelivered to every listener.
+ * <p>
+ * Nothing in this service listens, so without a listener the events are dropped once published: only for setups
+ * that register one, such as tests.
+ */
+public class InMemoryEventTransport implements EventTransport {
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public InMemoryEventTransport(ApplicationEventPublisher applicationEventPublisher) {
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @Override
+    public void publish(List<AccountEvent> events) {
+        events.forEach(applicationEventPublisher::publishEvent);
+    }
+}
@@ -0,0 +1,118 @@
+package com.easybytes.accounts.outbox;
+
+import com.easybytes.accounts.entity.OutboxEvent;
+import com.easybytes.accounts.mapper.AccountEventMapper;
+import com.easybytes.accounts.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves events from the outbox table to the {@link EventTransport}: reads the oldest {@code batch-size} events,
+ * publishes them as one batch and deletes them once the transport returned. Polls every {@code poll-interval}
+ * and drains the backlog batch after batch.
+ * <p>
+ * Delivery is at least once: a crash between publish and delete, a failed batch, or relays on several instances
+ * reading the same rows all lead to redelivery, never to loss.
+ * <p>
+ * Events are delivered in id order. Across customers that is not commit order, but it is for the events of one
+ * customer, whichever instance wrote them: ids are taken one at a time, and a transaction writing an event for a
+ * customer conflicts with any concurrent one for the same customer (see AccountServiceImpl), so the later event
+ * is always written after the earlier one committed.
+ * <p>
+ * A batch the transport refuses for good ({@link EventsRejectedException}) is sent again one event at a time, so
+ * that the other events get through and the one it was refused for is found. That event is parked after being
+ * refused {@code max-attempts} times on its own, and the events behind it, of the same customer included, are
+ * delivered without it. Any other failure, such as a subscriber being down, is retried without limit.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    static final String PUBLISHED_COUNTER = "outbox.published";
+    static final String FAILED_COUNTER = "outbox.publish.failures";
+    static final String PARKED_COUNTER = "outbox.parked";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final EventTransport eventTransport;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Counter published;
+    private final Counter failed;
+    private final Counter parked;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, EventTransport eventTransport,
+                       MeterRegistry meterRegistry,
+                       @Value("${accounts.outbox.batch-size:100}") int batchSize,
+                       @Value("${accounts.outbox.max-attempts:5}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.eventTransport = eventTransport;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.published = Counter.builder(PUBLISHED_COUNTER)
+                .description("Account events handed over to the transport")
+                .register(meterRegistry);
+        this.failed = Counter.builder(FAILED_COUNTER)
+                .description("Outbox batches the transport rejected; they are sent again")
+                .register(meterRegistry);
+        this.parked = Counter.builder(PARKED_COUNTER)
+                .description("Account events the transport kept refusing; they are left in the outbox unsent")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${accounts.outbox.poll-interval:500ms}")
+    public void relay() {
+        try {
+            while (relayBatch()) {
+                // backlog: keep draining
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Publishing account events failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return true when events were published and more may be pending
+     */
+    boolean relayBatch() {
+        List<OutboxEvent> pending = outboxEventRepository.findAllByParkedAtIsNullOrderByIdAsc(Limit.of(batchSize));
+        if (pending.isEmpty()) {
+            return false;
+        }
+        // the head was in a refused batch: send it alone
+        List<OutboxEvent> batch = pending.get(0).getAttempts() > 0 ? pending.subList(0, 1) : pending;
+        List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+        try {
+            eventTransport.publish(batch.stream().map(AccountEventMapper::mapToAccountEvent).toList());
+        } catch (EventsRejectedException e) {
+            reject(batch, e);
+            return false;
+        }
+        outboxEventRepository.deleteAllByIdInBatch(ids);
+        published.increment(batch.size());
+        return pending.size() == batchSize || batch.size() < pending.size();
+    }
+
+    private void reject(List<OutboxEvent> batch, EventsRejectedException e) {
+        failed.increment();
+        outboxEventRepository.incrementAttempts(batch.stream().map(OutboxEvent::getId).toList());
+        OutboxEvent head = batch.get(0);
+        if (batch.size() == 1 && head.getAttempts() + 1 >= maxAttempts) {
+            outboxEventRepository.park(head.getId(), LocalDateTime.now());
+            parked.increment();
+            log.error("Parked account event {} ({} of customer {}) after {} refusals: {}", head.getId(),
+                    head.getEventType(), head.getCustomerId(), maxAttempts, e.getMessage());
+        } else {
+            log.warn("Account events {} to {} were refused, sending them one at a time: {}", head.getId(),
+                    batch.get(batch.size() - 1).getId(), e.getMessage());
+        }
+    }
+}
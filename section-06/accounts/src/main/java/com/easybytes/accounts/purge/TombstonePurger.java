@@ -0,0 +1,106 @@
+package com.easybytes.accounts.purge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Hard-deletes the customer and account rows that deletes have only flagged ({@code @SoftDelete}).
+ * <p>
+ * Runs on the {@code accounts.purge.cron} schedule, meant to fire only in off-peak hours. Each table is purged in
+ * batches of {@code batch-size} rows with a {@code pause} between batches, which bounds the delete rate, and
+ * at most {@code max-batches-per-run} batches per table per run, which bounds how long a run holds on to the
+ * database. Each batch is its own statement and commits on its own.
+ * <p>
+ * Plain JDBC on purpose: Hibernate no longer sees these rows, and a native mutation query through it would
+ * invalidate the second-level cache regions of the live rows.
+ */
+@Slf4j
+@Component
+public class TombstonePurger {
+
+    static final String PURGED_COUNTER = "softdelete.purged";
+    static final String BATCH_TIMER = "softdelete.purge.batch";
+
+    private static final List<String> TABLES = List.of("accounts", "customer");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration pause;
+    private final int maxBatchesPerRun;
+
+    public TombstonePurger(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                           @Value("${accounts.purge.batch-size:500}") int batchSize,
+                           @Value("${accounts.purge.pause:200ms}") Duration pause,
+                           @Value("${accounts.purge.max-batches-per-run:100}") int maxBatchesPerRun) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    @Scheduled(cron = "${accounts.purge.cron:0 */10 1-4 * * *}")
+    public void purgeOffPeak() {
+        long purged = purge();
+        if (purged > 0) {
+            log.info("Purged {} soft-deleted rows", purged);
+        }
+    }
+
+    /**
+     * @return number of rows removed, over all tables
+     */
+    public long purge() {
+        long purged = 0;
+        for (String table : TABLES) {
+            purged += purge(table);
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    private long purge(String table) {
+        String sql = "delete from " + table + " where deleted = true limit ?";
+        Counter purgedRows = Counter.builder(PURGED_COUNTER)
+                .description("Soft-deleted rows removed by the purger")
+                .tag("table", table)
+                .register(meterRegistry);
+        Timer batchTimer = Timer.builder(BATCH_TIMER)
+                .description("Time taken by one purge batch")
+                .tag("table", table)
+                .register(meterRegistry);
+
+        long purged = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int deleted = batchTimer.record(() -> jdbcTemplate.update(sql, batchSize));
+            purgedRows.increment(deleted);
+            purged += deleted;
+            if (deleted < batchSize || !pause()) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
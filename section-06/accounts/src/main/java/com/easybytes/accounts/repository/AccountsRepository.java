@@ -1,9 +1,12 @@
 package com.easybytes.accounts.repository;
 
+import com.easybytes.accounts.entity.AccountWithCustomer;
 import com.easybytes.accounts.entity.Accounts;
 import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,6 +16,15 @@ public interface AccountsRepository extends JpaRepository<Accounts, Long> {
 
     Optional<Accounts> findByCustomerId(Long customerId);
 
+    /**
+     * Loads an account and its customer as managed entities in a single statement, so an update reads both
+     * rows, and their versions, in one round trip.
+     */
+    @Query("select new com.easybytes.accounts.entity.AccountWithCustomer(a, c) " +
+            "from Accounts a left join Customer c on c.customerId = a.customerId " +
+            "where a.accountNumber = :accountNumber")
+    Optional<AccountWithCustomer> findWithCustomerByAccountNumber(@Param("accountNumber") Long accountNumber);
+
     @Transactional
     @Modifying
     void deleteByCustomerId(Long customerId);
@@ -1,15 +1,65 @@
 package com.easybytes.accounts.repository;
 
+import com.easybytes.accounts.dtos.CustomerAccountVersion;
+import com.easybytes.accounts.dtos.CustomerAccountView;
 import com.easybytes.accounts.entity.Customer;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CustomerRepository extends JpaRepository<Customer, Long> {
+public interface CustomerRepository extends NaturalIdRepository<Customer, Long> {
 
-    Optional<Customer> findByMobileNumber(String mobileNumber);
+    /**
+     * mobileNumber is the customer's natural id, so this is answered from the second-level cache once the
+     * customer has been loaded, instead of running a query every time.
+     */
+    default Optional<Customer> findByMobileNumber(String mobileNumber) {
+        return findBySimpleNaturalId(mobileNumber);
+    }
 
+    /**
+     * Loads a customer and its account in a single statement, projected straight into a DTO so
+     * nothing enters the persistence context. Account columns are null when no account exists.
+     */
+    @Query("select new com.easybytes.accounts.dtos.CustomerAccountView(c.customerId, c.name, c.email, c.mobileNumber, " +
+            "a.accountNumber, a.accountType, a.branchAddress) " +
+            "from Customer c left join Accounts a on a.customerId = c.customerId " +
+            "where c.mobileNumber = :mobileNumber")
+    Optional<CustomerAccountView> findCustomerAccountByMobileNumber(@Param("mobileNumber") String mobileNumber);
 
-}
\ No newline at end of file
+    /**
+     * Reads only the ids and modification timestamps behind GET /api/fetch, so a conditional request
+     * can be answered without loading or serializing the customer.
+     */
+    @Query("select new com.easybytes.accounts.dtos.CustomerAccountVersion(c.customerId, coalesce(c.updatedAt, c.createdAt), " +
+            "a.accountNumber, coalesce(a.updatedAt, a.createdAt)) " +
+            "from Customer c left join Accounts a on a.customerId = c.customerId " +
+            "where c.mobileNumber = :mobileNumber")
+    Optional<CustomerAccountVersion> findCustomerAccountVersionByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    @Query("select new com.easybytes.accounts.dtos.CustomerAccountView(c.customerId, c.name, c.email, c.mobileNumber, " +
+            "a.accountNumber, a.accountType, a.branchAddress) " +
+            "from Customer c join Accounts a on a.customerId = c.customerId " +
+            "where c.mobileNumber in :mobileNumbers")
+    List<CustomerAccountView> findCustomerAccountsByMobileNumbers(@Param("mobileNumbers") Collection<String> mobileNumbers);
+
+    /**
+     * Keyset page of customers (with their account, if any) whose id is greater than the given one.
+     * Seeking on the primary key keeps every page an index range scan, however deep the export goes.
+     */
+    @Query("select new com.easybytes.accounts.dtos.CustomerAccountView(c.customerId, c.name, c.email, c.mobileNumber, " +
+            "a.accountNumber, a.accountType, a.branchAddress) " +
+            "from Customer c left join Accounts a on a.customerId = c.customerId " +
+            "where c.customerId > :afterCustomerId order by c.customerId")
+    List<CustomerAccountView> findCustomerAccountsAfter(@Param("afterCustomerId") Long afterCustomerId, Limit limit);
+
+    @Query("select c.mobileNumber from Customer c where c.mobileNumber in :mobileNumbers")
+    List<String> findExistingMobileNumbers(@Param("mobileNumbers") Collection<String> mobileNumbers);
+
+}
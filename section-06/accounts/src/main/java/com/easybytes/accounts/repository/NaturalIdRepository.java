@@ -0,0 +1,17 @@
+package com.easybytes.accounts.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.repository.NoRepositoryBean;
+
+import java.util.Optional;
+
+/**
+ * Adds lookups by the entity's {@code @NaturalId}. Unlike a derived {@code findBy...} query, these go through
+ * Hibernate's natural-id resolution, so they are served from the second-level cache when the entity declares
+ * {@code @NaturalIdCache}.
+ */
+@NoRepositoryBean
+public interface NaturalIdRepository<T, ID> extends JpaRepository<T, ID> {
+
+    Optional<T> findBySimpleNaturalId(Object naturalId);
+}
@@ -0,0 +1,35 @@
+package com.easybytes.accounts.repository;
+
+import com.easybytes.accounts.entity.OutboxEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * The oldest pending events, in the order they were written, parked ones left out. Read-write so that it is
+     * answered by the primary: a lagging read replica would hand out events that were already published and deleted.
+     */
+    @Transactional
+    List<OutboxEvent> findAllByParkedAtIsNullOrderByIdAsc(Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.attempts = e.attempts + 1 where e.id in :ids")
+    int incrementAttempts(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("update OutboxEvent e set e.parkedAt = :parkedAt where e.id = :id")
+    int park(@Param("id") Long id, @Param("parkedAt") LocalDateTime parkedAt);
+}
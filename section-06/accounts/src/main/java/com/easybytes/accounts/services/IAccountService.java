@@ -1,16 +1,64 @@
 package com.easybytes.accounts.services;
 
+import com.easybytes.accounts.dtos.BatchFetchResponseDto;
 import com.easybytes.accounts.dtos.CustomerAccountResponseDto;
+import com.easybytes.accounts.dtos.CustomerAccountVersion;
+import com.easybytes.accounts.dtos.CustomerBatchResultDto;
 import com.easybytes.accounts.dtos.CustomerDto;
 
+import java.util.List;
+import java.util.function.Consumer;
+
 public interface IAccountService {
 
     void createAccount(CustomerDto customerDto);
 
+    /**
+     *
+     * @param customerDtos - Customers to onboard, each getting a new account
+     * @return one result per input item, in input order; duplicates are reported without failing the batch
+     */
+    List<CustomerBatchResultDto> createAccounts(List<CustomerDto> customerDtos);
+
     CustomerAccountResponseDto fetchAccount(final String mobileNum);
 
+    /**
+     *
+     * @param mobileNum - Input Mobile Number
+     * @param version - Version of the Customer & Account, as read by fetchAccountVersion
+     * @return Accounts Details at that version or a later one
+     */
+    CustomerAccountResponseDto fetchAccount(final String mobileNum, final CustomerAccountVersion version);
+
+    /**
+     *
+     * @param mobileNum - Input Mobile Number
+     * @return ids and modification timestamps of the Customer & Account, without their details
+     */
+    CustomerAccountVersion fetchAccountVersion(final String mobileNum);
+
+    /**
+     *
+     * @param mobileNumbers - Input Mobile Numbers
+     * @return Customer & Account details keyed by mobile number, plus the mobile numbers that were not found
+     */
+    BatchFetchResponseDto<CustomerAccountResponseDto> fetchAccounts(List<String> mobileNumbers);
+
+    /**
+     *
+     * @param sink - Receives every Customer & Account, in customerId order
+     */
+    void exportAccounts(Consumer<CustomerAccountResponseDto> sink);
+
     boolean updateAccount(CustomerAccountResponseDto customerAccountResponseDto);
 
+    /**
+     *
+     * @param customerAccountResponseDto - the account number plus the fields to change; null fields are left as they are
+     * @return boolean indicating if the update of Account details is successful or not
+     */
+    boolean patchAccount(CustomerAccountResponseDto customerAccountResponseDto);
+
     /**
      *
      * @param mobileNumber - Input Mobile Number
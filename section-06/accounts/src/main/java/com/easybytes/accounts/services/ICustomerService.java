@@ -0,0 +1,13 @@
+package com.easybytes.accounts.services;
+
+import com.easybytes.accounts.dtos.CustomerDetailsDto;
+
+public interface ICustomerService {
+
+    /**
+     *
+     * @param mobileNumber - Input Mobile Number
+     * @return Customer, Account, Card and Loan details based on a given mobileNumber
+     */
+    CustomerDetailsDto fetchCustomerDetails(String mobileNumber);
+}
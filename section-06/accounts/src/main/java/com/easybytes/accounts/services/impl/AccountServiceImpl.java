@@ -1,24 +1,53 @@
 package com.easybytes.accounts.services.impl;
 
+import com.easybytes.accounts.bloom.MobileNumberFilter;
 import com.easybytes.accounts.constants.AccountsConstants;
+import com.easybytes.accounts.dtos.AccountEventType;
 import com.easybytes.accounts.dtos.AccountsDto;
+import com.easybytes.accounts.dtos.BatchFetchResponseDto;
 import com.easybytes.accounts.dtos.CustomerAccountResponseDto;
+import com.easybytes.accounts.dtos.CustomerAccountVersion;
+import com.easybytes.accounts.dtos.CustomerAccountView;
+import com.easybytes.accounts.dtos.CustomerBatchResultDto;
 import com.easybytes.accounts.dtos.CustomerDto;
+import com.easybytes.accounts.entity.AccountWithCustomer;
 import com.easybytes.accounts.entity.Accounts;
 import com.easybytes.accounts.entity.Customer;
+import com.easybytes.accounts.entity.OutboxEvent;
 import com.easybytes.accounts.exceptions.CustomerAlreadyExistsException;
 import com.easybytes.accounts.exceptions.ResourceNotFoundException;
 import com.easybytes.accounts.mapper.AccountsMapper;
+import com.easybytes.accounts.mapper.CustomerAccountMapper;
 import com.easybytes.accounts.mapper.CustomerMapper;
 import com.easybytes.accounts.repository.AccountsRepository;
 import com.easybytes.accounts.repository.CustomerRepository;
+import com.easybytes.accounts.repository.OutboxEventRepository;
+import com.easybytes.accounts.sequence.BlockNumberAllocator;
 import com.easybytes.accounts.services.IAccountService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.AllArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.Random;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 @AllArgsConstructor
@@ -26,74 +55,359 @@ public class AccountServiceImpl implements IAccountService {
 
     private AccountsRepository accountsRepository;
     private CustomerRepository customerRepository;
+    private BlockNumberAllocator accountNumberAllocator;
+    private OutboxEventRepository outboxEventRepository;
+    private MobileNumberFilter mobileNumberFilter;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
 
+    /**
+     * Duplicates are detected by the unique constraint on mobile_number rather than a read before the insert,
+     * which saves a round trip and closes the window in which two concurrent creates could both pass the check.
+     *
+     * @param customerDto - CustomerDto Object
+     */
     @Override
+    @Transactional
     public void createAccount(CustomerDto customerDto) {
         Customer customer = CustomerMapper.mapToCustomer(customerDto);
-        Optional<Customer> optionalCustomer = customerRepository.findByMobileNumber(customerDto.getMobileNumber());
-        if(optionalCustomer.isPresent()) {
-            throw new CustomerAlreadyExistsException("Customer already registered with given mobileNumber "+customerDto.getMobileNumber());
+        mobileNumberFilter.add(customer.getMobileNumber());
+        Customer savedCustomer;
+        try {
+            // flush now so the violation surfaces here instead of at commit
+            savedCustomer = customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException e) {
+            if (isViolationOf(e, AccountsConstants.UK_CUSTOMER_MOBILE_NUMBER)) {
+                throw new CustomerAlreadyExistsException("Customer already registered with given mobileNumber "+customerDto.getMobileNumber());
+            }
+            throw e;
         }
-        Customer savedCustomer =  customerRepository.save(customer);
-        accountsRepository.save(createNewAccount(savedCustomer));
+        Accounts newAccount = createNewAccount(savedCustomer);
+        accountsRepository.save(newAccount);
+        outboxEventRepository.save(new OutboxEvent(AccountEventType.ACCOUNT_CREATED, savedCustomer.getCustomerId(),
+                savedCustomer.getMobileNumber(), null, newAccount.getAccountNumber()));
 
     }
 
+    private static boolean isViolationOf(DataIntegrityViolationException e, String constraintName) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(constraintName);
+    }
+
+    /**
+     * Duplicates are detected with set-based queries, chunked like the batch fetch; customers and accounts
+     * are then inserted in JDBC batches in one transaction. A customer registered concurrently after those
+     * queries fails the batch on the unique constraint, and the items are then retried one transaction each
+     * so that only the duplicate is reported.
+     *
+     * @param customerDtos - Customers to onboard
+     * @return one result per input item, in input order
+     */
     @Override
+    public List<CustomerBatchResultDto> createAccounts(final List<CustomerDto> customerDtos) {
+        try {
+            return transactionTemplate.execute(status -> insertBatch(customerDtos));
+        } catch (DataIntegrityViolationException e) {
+            if (!isViolationOf(e, AccountsConstants.UK_CUSTOMER_MOBILE_NUMBER)) {
+                throw e;
+            }
+        }
+        List<CustomerBatchResultDto> results = new ArrayList<>(customerDtos.size());
+        Set<String> batchMobileNumbers = new HashSet<>();
+        for (CustomerDto customerDto : customerDtos) {
+            String mobileNumber = customerDto.getMobileNumber();
+            if (batchMobileNumbers.add(mobileNumber) && createInOwnTransaction(customerDto)) {
+                results.add(new CustomerBatchResultDto(mobileNumber, AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201));
+            } else {
+                results.add(new CustomerBatchResultDto(mobileNumber, AccountsConstants.STATUS_400, AccountsConstants.MESSAGE_400_CUSTOMER_EXISTS));
+            }
+        }
+        return results;
+    }
+
+    private boolean createInOwnTransaction(CustomerDto customerDto) {
+        try {
+            transactionTemplate.execute(status -> {
+                createAccount(customerDto);
+                return null;
+            });
+            return true;
+        } catch (CustomerAlreadyExistsException e) {
+            return false;
+        }
+    }
+
+    private List<CustomerBatchResultDto> insertBatch(List<CustomerDto> customerDtos) {
+        List<String> mobileNumbers = customerDtos.stream().map(CustomerDto::getMobileNumber).toList();
+        Set<String> knownMobileNumbers = new HashSet<>();
+        for (int from = 0; from < mobileNumbers.size(); from += AccountsConstants.FETCH_CHUNK_SIZE) {
+            knownMobileNumbers.addAll(customerRepository.findExistingMobileNumbers(mobileNumbers.subList(from,
+                    Math.min(from + AccountsConstants.FETCH_CHUNK_SIZE, mobileNumbers.size()))));
+        }
+
+        List<CustomerBatchResultDto> results = new ArrayList<>(customerDtos.size());
+        List<Customer> newCustomers = new ArrayList<>(customerDtos.size());
+        for (CustomerDto customerDto : customerDtos) {
+            String mobileNumber = customerDto.getMobileNumber();
+            if (knownMobileNumbers.add(mobileNumber)) {
+                mobileNumberFilter.add(mobileNumber);
+                newCustomers.add(CustomerMapper.mapToCustomer(customerDto));
+                results.add(new CustomerBatchResultDto(mobileNumber, AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201));
+            } else {
+                results.add(new CustomerBatchResultDto(mobileNumber, AccountsConstants.STATUS_400, AccountsConstants.MESSAGE_400_CUSTOMER_EXISTS));
+            }
+        }
+
+        List<Customer> savedCustomers = customerRepository.saveAll(newCustomers);
+        List<OutboxEvent> events = new ArrayList<>(savedCustomers.size());
+        List<Accounts> newAccounts = new ArrayList<>(savedCustomers.size());
+        for (Customer savedCustomer : savedCustomers) {
+            Accounts newAccount = createNewAccount(savedCustomer);
+            newAccounts.add(newAccount);
+            events.add(new OutboxEvent(AccountEventType.ACCOUNT_CREATED, savedCustomer.getCustomerId(),
+                    savedCustomer.getMobileNumber(), null, newAccount.getAccountNumber()));
+        }
+        accountsRepository.saveAll(newAccounts);
+        outboxEventRepository.saveAll(events);
+        // flush through the repository so a unique violation comes back translated, before the commit
+        customerRepository.flush();
+        return results;
+    }
+
+    /**
+     * Mobile numbers the MobileNumberFilter rules out are reported as not found without a query.
+     *
+     * @param mobileNum - Input Mobile Number
+     * @return Accounts Details based on a given mobileNumber
+     */
+    @Override
+    @Cacheable(cacheNames = AccountsConstants.CUSTOMER_ACCOUNTS_CACHE, key = "#mobileNum")
+    @Transactional(readOnly = true)
     public CustomerAccountResponseDto fetchAccount(final String mobileNum) {
-        Customer customer = customerRepository.findByMobileNumber(mobileNum)
+        return loadAccount(mobileNum);
+    }
+
+    /**
+     * Cached by the ETag of the version rather than the mobile number. The body is read after the version, so it
+     * is never older than it, and a read that raced with an update can only ever cache its body under the version
+     * it started from: a newer version misses the cache instead of finding that body.
+     *
+     * @param mobileNum - Input Mobile Number
+     * @param version - Version of the Customer & Account, as read by fetchAccountVersion
+     * @return Accounts Details at that version or a later one
+     */
+    @Override
+    @Cacheable(cacheNames = AccountsConstants.CUSTOMER_ACCOUNTS_CACHE, key = "#version.eTag()")
+    @Transactional(readOnly = true)
+    public CustomerAccountResponseDto fetchAccount(final String mobileNum, final CustomerAccountVersion version) {
+        return loadAccount(mobileNum);
+    }
+
+    private CustomerAccountResponseDto loadAccount(String mobileNum) {
+        CustomerAccountView customerAccount = findIfMightExist(mobileNum,
+                customerRepository::findCustomerAccountByMobileNumber)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNum));
 
-        Long customerId = customer.getCustomerId();
-        Accounts accounts = accountsRepository.findByCustomerId(customerId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account", "customerId", customerId.toString()));
+        if(customerAccount.accountNumber() == null) {
+            throw new ResourceNotFoundException("Account", "customerId", customerAccount.customerId().toString());
+        }
+        return CustomerAccountMapper.mapToCustomerAccountResponseDto(customerAccount);
+    }
+
+    /**
+     * Not cached: the point is to notice changes, and the lookup is a single indexed read of a few columns.
+     *
+     * @param mobileNum - Input Mobile Number
+     * @return ids and modification timestamps of the Customer & Account, without their details
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CustomerAccountVersion fetchAccountVersion(final String mobileNum) {
+        CustomerAccountVersion version = findIfMightExist(mobileNum,
+                customerRepository::findCustomerAccountVersionByMobileNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNum));
+
+        if(version.accountNumber() == null) {
+            throw new ResourceNotFoundException("Account", "customerId", version.customerId().toString());
+        }
+        return version;
+    }
+
+    /**
+     * Resolves the mobile numbers with IN queries, chunked to stay below the database parameter limits. Numbers
+     * the MobileNumberFilter rules out are left out of the queries.
+     *
+     * @param mobileNumbers - Input Mobile Numbers
+     * @return Customer & Account details keyed by mobile number, plus the mobile numbers that were not found
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BatchFetchResponseDto<CustomerAccountResponseDto> fetchAccounts(final List<String> mobileNumbers) {
+        List<String> distinctMobileNumbers = new ArrayList<>(new LinkedHashSet<>(mobileNumbers));
+        List<String> candidates = distinctMobileNumbers.stream().filter(mobileNumberFilter::mightExist).toList();
+        Map<String, CustomerAccountResponseDto> results = new HashMap<>();
+        for (int from = 0; from < candidates.size(); from += AccountsConstants.FETCH_CHUNK_SIZE) {
+            List<String> chunk = candidates.subList(from,
+                    Math.min(from + AccountsConstants.FETCH_CHUNK_SIZE, candidates.size()));
+            customerRepository.findCustomerAccountsByMobileNumbers(chunk).forEach(customerAccount ->
+                    results.put(customerAccount.mobileNumber(),
+                            CustomerAccountMapper.mapToCustomerAccountResponseDto(customerAccount)));
+        }
+        candidates.stream()
+                .filter(mobileNumber -> !results.containsKey(mobileNumber))
+                .forEach(mobileNumber -> mobileNumberFilter.recordFalsePositive());
+
+        List<String> missing = distinctMobileNumbers.stream()
+                .filter(mobileNumber -> !results.containsKey(mobileNumber))
+                .toList();
+        return new BatchFetchResponseDto<>(results, missing);
+    }
 
-        CustomerDto customerDto = CustomerMapper.mapToCustomerDto(customer);
-        AccountsDto accountsDto = AccountsMapper.mapToAccountsDto(accounts);
-        return new CustomerAccountResponseDto(customerDto, accountsDto);
+    /**
+     * Walks the customers with keyset pagination. Rows are projected straight into DTOs and handed to the
+     * sink page by page, so memory stays flat regardless of table size. Each page is its own read-only
+     * repository transaction, so no connection is held while the sink writes.
+     *
+     * @param sink - Receives every Customer & Account, in customerId order
+     */
+    @Override
+    public void exportAccounts(final Consumer<CustomerAccountResponseDto> sink) {
+        long afterCustomerId = 0L;
+        List<CustomerAccountView> page;
+        do {
+            page = customerRepository.findCustomerAccountsAfter(afterCustomerId,
+                    Limit.of(AccountsConstants.EXPORT_PAGE_SIZE));
+            for (CustomerAccountView customerAccount : page) {
+                sink.accept(CustomerAccountMapper.mapToCustomerAccountResponseDto(customerAccount));
+                afterCustomerId = customerAccount.customerId();
+            }
+        } while (page.size() == AccountsConstants.EXPORT_PAGE_SIZE);
     }
 
     /**
+     * The mobile number (the cache key) may itself be changed by an update, so the whole cache is cleared.
+     * Both rows are read by one query and written by dirty checking when the update event is recorded; their
+     * versions make a concurrent update fail with an optimistic locking exception instead of being lost.
+     *
      * @param CustomerAccountResponseDto - CustomerAccountResponseDto Object
      * @return boolean indicating if the update of Account details is successful or not
      */
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = AccountsConstants.CUSTOMER_ACCOUNTS_CACHE, allEntries = true)
     public boolean updateAccount(final CustomerAccountResponseDto customerAccountResponseDto) {
         boolean isUpdated = false;
         AccountsDto accountsDto = customerAccountResponseDto.getAccountsDto();
         if(accountsDto !=null ){
-            Accounts accounts = accountsRepository.findById(accountsDto.getAccountNumber()).orElseThrow(
-                    () -> new ResourceNotFoundException("Account", "AccountNumber", accountsDto.getAccountNumber().toString())
-            );
-            AccountsMapper.mapToAccounts(accountsDto, accounts);
-            accounts = accountsRepository.save(accounts);
-
-            Long customerId = accounts.getCustomerId();
-            Customer customer = customerRepository.findById(customerId).orElseThrow(
-                    () -> new ResourceNotFoundException("Customer", "CustomerID", customerId.toString())
-            );
-            CustomerMapper.mapToCustomer(customerAccountResponseDto.getCustomerDto(),customer);
-            customerRepository.save(customer);
+            AccountWithCustomer accountWithCustomer = findWithCustomer(accountsDto.getAccountNumber());
+            String previousMobileNumber = accountWithCustomer.customer().getMobileNumber();
+            AccountsMapper.mapToAccounts(accountsDto, accountWithCustomer.accounts());
+            CustomerMapper.mapToCustomer(customerAccountResponseDto.getCustomerDto(), accountWithCustomer.customer());
+            recordUpdate(accountWithCustomer, previousMobileNumber);
             isUpdated = true;
         }
         return  isUpdated;
     }
 
     /**
+     * Like {@link #updateAccount}, but only the fields present in the request are applied, and only the
+     * columns that actually change are written.
+     *
+     * @param customerAccountResponseDto - the account number plus the fields to change
+     * @return boolean indicating if the update of Account details is successful or not
+     */
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = AccountsConstants.CUSTOMER_ACCOUNTS_CACHE, allEntries = true)
+    public boolean patchAccount(final CustomerAccountResponseDto customerAccountResponseDto) {
+        AccountsDto accountsDto = customerAccountResponseDto.getAccountsDto();
+        if(accountsDto == null || accountsDto.getAccountNumber() == null) {
+            return false;
+        }
+        AccountWithCustomer accountWithCustomer = findWithCustomer(accountsDto.getAccountNumber());
+        String previousMobileNumber = accountWithCustomer.customer().getMobileNumber();
+        AccountsMapper.patchAccounts(accountsDto, accountWithCustomer.accounts());
+        if(customerAccountResponseDto.getCustomerDto() != null) {
+            CustomerMapper.patchCustomer(customerAccountResponseDto.getCustomerDto(), accountWithCustomer.customer());
+        }
+        recordUpdate(accountWithCustomer, previousMobileNumber);
+        return true;
+    }
+
+    private void recordUpdate(AccountWithCustomer accountWithCustomer, String previousMobileNumber) {
+        Customer customer = accountWithCustomer.customer();
+        String changedFrom = previousMobileNumber.equals(customer.getMobileNumber()) ? null : previousMobileNumber;
+        if (changedFrom != null) {
+            // lockForEvent flushes the rows, so this has to come first
+            mobileNumberFilter.add(customer.getMobileNumber());
+        }
+        lockForEvent(customer);
+        outboxEventRepository.save(new OutboxEvent(AccountEventType.ACCOUNT_UPDATED, customer.getCustomerId(),
+                customer.getMobileNumber(), changedFrom, accountWithCustomer.accounts().getAccountNumber()));
+    }
+
+    /**
+     * Makes sure the customer version is bumped by the transaction, so that two transactions writing events for
+     * the same customer cannot both commit: one fails with an optimistic locking exception. The events of a
+     * customer therefore commit one after the other, and as outbox ids are taken one at a time, in id order,
+     * which is the order the OutboxRelay delivers them in. Pending changes are flushed first, as a customer that
+     * is written anyway already gets a new version.
+     */
+    private void lockForEvent(Customer customer) {
+        Long version = customer.getVersion();
+        entityManager.flush();
+        if (Objects.equals(version, customer.getVersion())) {
+            entityManager.lock(customer, LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+        }
+    }
+
+    private AccountWithCustomer findWithCustomer(Long accountNumber) {
+        AccountWithCustomer accountWithCustomer = accountsRepository.findWithCustomerByAccountNumber(accountNumber)
+                .orElseThrow(() -> new ResourceNotFoundException("Account", "AccountNumber", accountNumber.toString()));
+        if(accountWithCustomer.customer() == null) {
+            Long customerId = accountWithCustomer.accounts().getCustomerId();
+            throw new ResourceNotFoundException("Customer", "CustomerID", customerId.toString());
+        }
+        return accountWithCustomer;
+    }
+
+    /**
+     * Customer and account are only flagged as deleted, in one transaction; the rows are removed later by
+     * the TombstonePurger. Like creates and updates, the delete is announced through the outbox.
+     *
      * @param mobileNumber - Input Mobile Number
      * @return boolean indicating if the delete of Account details is successful or not
      */
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = AccountsConstants.CUSTOMER_ACCOUNTS_CACHE, key = "#mobileNumber")
     public boolean deleteAccount(String mobileNumber) {
-        Customer customer = customerRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        Customer customer = findIfMightExist(mobileNumber, customerRepository::findByMobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber)
         );
+        lockForEvent(customer);
         accountsRepository.deleteByCustomerId(customer.getCustomerId());
-        customerRepository.deleteById(customer.getCustomerId());
+        customerRepository.delete(customer);
+        outboxEventRepository.save(new OutboxEvent(AccountEventType.ACCOUNT_DELETED, customer.getCustomerId(),
+                mobileNumber, null, null));
         return true;
     }
 
 
+    /**
+     * @return the result of {@code lookup}, or empty without calling it when the mobile number is ruled out
+     */
+    private <T> Optional<T> findIfMightExist(String mobileNumber, Function<String, Optional<T>> lookup) {
+        if (!mobileNumberFilter.mightExist(mobileNumber)) {
+            return Optional.empty();
+        }
+        Optional<T> found = lookup.apply(mobileNumber);
+        if (found.isEmpty()) {
+            mobileNumberFilter.recordFalsePositive();
+        }
+        return found;
+    }
+
     /**
      * @param customer - Customer Object
      * @return the new account details
@@ -101,9 +415,7 @@ public class AccountServiceImpl implements IAccountService {
     private Accounts createNewAccount(Customer customer) {
         Accounts newAccount = new Accounts();
         newAccount.setCustomerId(customer.getCustomerId());
-        long randomAccNumber = 1000000000L + new Random().nextInt(900000000);
-
-        newAccount.setAccountNumber(randomAccNumber);
+        newAccount.setAccountNumber(accountNumberAllocator.next());
         newAccount.setAccountType(AccountsConstants.SAVINGS);
         newAccount.setBranchAddress(AccountsConstants.ADDRESS);
 
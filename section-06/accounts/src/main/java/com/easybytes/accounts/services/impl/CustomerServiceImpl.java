@@ -0,0 +1,97 @@
+package com.easybytes.accounts.services.impl;
+
+import com.easybytes.accounts.client.CardsClient;
+import com.easybytes.accounts.client.LoansClient;
+import com.easybytes.accounts.dtos.CardsDto;
+import com.easybytes.accounts.dtos.CustomerAccountResponseDto;
+import com.easybytes.accounts.dtos.CustomerDetailsDto;
+import com.easybytes.accounts.dtos.LoansDto;
+import com.easybytes.accounts.services.IAccountService;
+import com.easybytes.accounts.services.ICustomerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Service
+public class CustomerServiceImpl implements ICustomerService {
+
+    private final IAccountService accountService;
+    private final CardsClient cardsClient;
+    private final LoansClient loansClient;
+    private final ExecutorService customerDetailsExecutor;
+    private final Duration callTimeout;
+
+    public CustomerServiceImpl(IAccountService accountService, CardsClient cardsClient, LoansClient loansClient,
+                               ExecutorService customerDetailsExecutor,
+                               @Value("${accounts.services.read-timeout:2s}") Duration callTimeout) {
+        this.accountService = accountService;
+        this.cardsClient = cardsClient;
+        this.loansClient = loansClient;
+        this.customerDetailsExecutor = customerDetailsExecutor;
+        this.callTimeout = callTimeout;
+    }
+
+    /**
+     * Cards and loans are called concurrently while the account is read locally, so the response takes as long
+     * as the slowest of the three rather than their sum. A remote call that fails or exceeds the timeout is
+     * reported in {@code unavailableServices} and the rest of the details are still returned.
+     *
+     * @param mobileNumber - Input Mobile Number
+     * @return Customer, Account, Card and Loan details based on a given mobileNumber
+     */
+    @Override
+    public CustomerDetailsDto fetchCustomerDetails(String mobileNumber) {
+        long deadline = System.nanoTime() + callTimeout.toNanos();
+        Future<Optional<CardsDto>> card = customerDetailsExecutor.submit(() -> cardsClient.fetchCard(mobileNumber));
+        Future<Optional<LoansDto>> loan = customerDetailsExecutor.submit(() -> loansClient.fetchLoan(mobileNumber));
+
+        CustomerAccountResponseDto customerAccount;
+        try {
+            customerAccount = accountService.fetchAccount(mobileNumber);
+        } catch (RuntimeException e) {
+            card.cancel(true);
+            loan.cancel(true);
+            throw e;
+        }
+
+        CustomerDetailsDto customerDetailsDto = new CustomerDetailsDto();
+        customerDetailsDto.setName(customerAccount.getCustomerDto().getName());
+        customerDetailsDto.setEmail(customerAccount.getCustomerDto().getEmail());
+        customerDetailsDto.setMobileNumber(customerAccount.getCustomerDto().getMobileNumber());
+        customerDetailsDto.setAccountsDto(customerAccount.getAccountsDto());
+
+        List<String> unavailableServices = new ArrayList<>(2);
+        customerDetailsDto.setCardsDto(await(card, deadline, "cards", unavailableServices));
+        customerDetailsDto.setLoansDto(await(loan, deadline, "loans", unavailableServices));
+        customerDetailsDto.setUnavailableServices(unavailableServices);
+        return customerDetailsDto;
+    }
+
+    private static <T> T await(Future<Optional<T>> call, long deadline, String service,
+                               List<String> unavailableServices) {
+        try {
+            return call.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS).orElse(null);
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            log.warn("No answer from {} service in time, returning partial customer details", service);
+        } catch (ExecutionException e) {
+            log.warn("Call to {} service failed, returning partial customer details", service, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            call.cancel(true);
+        }
+        unavailableServices.add(service);
+        return null;
+    }
+}
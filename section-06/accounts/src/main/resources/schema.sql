@@ -1,21 +1,66 @@
+CREATE SEQUENCE IF NOT EXISTS `customer_seq` START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS `account_number_block_seq` START WITH 0 MINVALUE 0;
+
 CREATE TABLE IF NOT EXISTS `customer` (
-  `customer_id` int AUTO_INCREMENT  PRIMARY KEY,
+  `customer_id` int PRIMARY KEY,
   `name` varchar(100) NOT NULL,
   `email` varchar(100) NOT NULL,
   `mobile_number` varchar(20) NOT NULL,
-  `created_at` date NOT NULL,
+  `created_at` timestamp NOT NULL,
   `created_by` varchar(20) NOT NULL,
-  `updated_at` date DEFAULT NULL,
-    `updated_by` varchar(20) DEFAULT NULL
+  `updated_at` timestamp DEFAULT NULL,
+    `updated_by` varchar(20) DEFAULT NULL,
+  `version` bigint NOT NULL DEFAULT 0,
+  `deleted` boolean NOT NULL DEFAULT false,
+  -- null once the row is soft deleted, so the mobile number can be registered again before the purge
+  `live_mobile_number` varchar(20) GENERATED ALWAYS AS (CASE WHEN `deleted` THEN NULL ELSE `mobile_number` END),
+  CONSTRAINT `uk_customer_mobile_number` UNIQUE (`live_mobile_number`)
 );
 
 CREATE TABLE IF NOT EXISTS `accounts` (
   `customer_id` int NOT NULL,
-   `account_number` int AUTO_INCREMENT  PRIMARY KEY,
+   `account_number` bigint AUTO_INCREMENT  PRIMARY KEY,
   `account_type` varchar(100) NOT NULL,
   `branch_address` varchar(200) NOT NULL,
-  `created_at` date NOT NULL,
+  `created_at` timestamp NOT NULL,
    `created_by` varchar(20) NOT NULL,
-   `updated_at` date DEFAULT NULL,
-    `updated_by` varchar(20) DEFAULT NULL
-);
\ No newline at end of file
+   `updated_at` timestamp DEFAULT NULL,
+    `updated_by` varchar(20) DEFAULT NULL,
+  `version` bigint NOT NULL DEFAULT 0,
+  `deleted` boolean NOT NULL DEFAULT false
+);
+
+CREATE SEQUENCE IF NOT EXISTS `outbox_event_seq` START WITH 1 INCREMENT BY 1;
+
+-- account events written with the change they describe, deleted once OutboxRelay has published them, or
+-- parked (parked_at set) once refused max-attempts times
+CREATE TABLE IF NOT EXISTS `outbox_event` (
+  `id` bigint PRIMARY KEY,
+  `event_type` varchar(30) NOT NULL,
+  `customer_id` int NOT NULL,
+  `mobile_number` varchar(20) NOT NULL,
+  `previous_mobile_number` varchar(20) DEFAULT NULL,
+  `account_number` bigint DEFAULT NULL,
+  `created_at` timestamp NOT NULL,
+  `attempts` int NOT NULL DEFAULT 0,
+  `parked_at` timestamp DEFAULT NULL
+);
+
+-- written on the primary and read back from the read replica by ReplicaLagMonitor to measure replication lag
+CREATE TABLE IF NOT EXISTS `replica_heartbeat` (
+  `id` int PRIMARY KEY,
+  `beat_at` timestamp NOT NULL
+);
+
+-- lets the purger find tombstones without scanning the live rows
+CREATE INDEX IF NOT EXISTS `idx_customer_deleted` ON `customer` (`deleted`);
+
+-- lookups filter on mobile_number and deleted = false; the unique constraint is on live_mobile_number
+CREATE INDEX IF NOT EXISTS `idx_customer_mobile_number` ON `customer` (`mobile_number`, `deleted`);
+
+-- the mobile number filter reads the rows written since its previous refresh
+CREATE INDEX IF NOT EXISTS `idx_customer_created_at` ON `customer` (`created_at`);
+CREATE INDEX IF NOT EXISTS `idx_customer_updated_at` ON `customer` (`updated_at`);
+
+CREATE INDEX IF NOT EXISTS `idx_accounts_deleted` ON `accounts` (`deleted`);
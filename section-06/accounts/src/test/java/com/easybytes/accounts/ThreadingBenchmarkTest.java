@@ -0,0 +1,122 @@
+package com.easybytes.accounts;
+
+import com.easybytes.accounts.repository.CustomerRepository;
+import com.easybytes.accounts.utils.TestDataUtil;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Compares request throughput with platform and virtual request threads while every lookup is stuck on a slow
+ * database call. Run with {@code mvn test -Pbenchmark}; it is excluded from the default build.
+ */
+@Tag("benchmark")
+public class ThreadingBenchmarkTest {
+
+    private static final int CONCURRENT_REQUESTS = 2_000;
+    private static final long DB_LATENCY_MILLIS = 500;
+
+    abstract static class ThreadingBenchmark {
+
+        @LocalServerPort
+        private int port;
+
+        void run(String mode) throws Exception {
+            HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+            // warm up connections, Tomcat and the JIT before measuring
+            fire(client, CONCURRENT_REQUESTS, 0);
+
+            long start = System.nanoTime();
+            long failures = fire(client, CONCURRENT_REQUESTS, 1_000_000);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.printf("%s threads: %d requests against %d ms of DB latency in %d ms (%.0f req/s)%n",
+                    mode, CONCURRENT_REQUESTS, DB_LATENCY_MILLIS, elapsedMillis,
+                    CONCURRENT_REQUESTS * 1000.0 / elapsedMillis);
+            assertEquals(0, failures);
+        }
+
+        private long fire(HttpClient client, int requests, int firstMobileNumber) throws Exception {
+            try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<Integer>> statuses = new ArrayList<>(requests);
+                for (int i = 0; i < requests; i++) {
+                    // a distinct mobile number per request so the fetchAccount cache never answers
+                    URI uri = URI.create("http://localhost:" + port + "/api/fetch?mobileNum="
+                            + String.format("%010d", firstMobileNumber + i));
+                    statuses.add(callers.submit(() -> client.send(HttpRequest.newBuilder(uri).build(),
+                            HttpResponse.BodyHandlers.discarding()).statusCode()));
+                }
+                long failures = 0;
+                for (Future<Integer> status : statuses) {
+                    if (status.get() != 200) {
+                        failures++;
+                    }
+                }
+                return failures;
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class SlowDatabaseConfig {
+
+        // stubOnly: a regular mock records every invocation with its stack trace, which would dominate the run
+        @Bean
+        @Primary
+        CustomerRepository slowCustomerRepository() {
+            CustomerRepository customerRepository = mock(CustomerRepository.class, withSettings().stubOnly());
+            when(customerRepository.findCustomerAccountByMobileNumber(anyString())).thenAnswer(invocation -> {
+                Thread.sleep(DB_LATENCY_MILLIS);
+                return Optional.of(TestDataUtil.getCustomerAccountView());
+            });
+            return customerRepository;
+        }
+    }
+
+    @Nested
+    @Import(SlowDatabaseConfig.class)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "spring.threads.virtual.enabled=false")
+    class PlatformThreads extends ThreadingBenchmark {
+
+        @Test
+        void fetchAccountUnderSlowDatabase() throws Exception {
+            run("platform");
+        }
+    }
+
+    @Nested
+    @Import(SlowDatabaseConfig.class)
+    @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+            properties = "spring.threads.virtual.enabled=true")
+    class VirtualThreads extends ThreadingBenchmark {
+
+        @Test
+        void fetchAccountUnderSlowDatabase() throws Exception {
+            run("virtual");
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.easybytes.accounts.config;
+
+import com.easybytes.accounts.dtos.CustomerDto;
+import com.easybytes.accounts.exceptions.CustomerAlreadyExistsException;
+import com.easybytes.accounts.exceptions.ResourceNotFoundException;
+import com.easybytes.accounts.services.IAccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+public class ServiceMetricsAspectTest {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void serviceCalls_shouldBeTimedByOperationAndOutcome() {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Metered User");
+        customerDto.setEmail("metered@example.com");
+        customerDto.setMobileNumber("4000000001");
+
+        // the context, and with it the registry, is shared with other test classes, so compare counts
+        long created = count("createAccount", "success");
+        long duplicates = count("createAccount", "already-exists");
+        long fetched = count("fetchAccount", "success");
+        long notFound = count("fetchAccount", "not-found");
+
+        accountService.createAccount(customerDto);
+        assertThrows(CustomerAlreadyExistsException.class, () -> accountService.createAccount(customerDto));
+        accountService.fetchAccount("4000000001");
+        assertThrows(ResourceNotFoundException.class, () -> accountService.fetchAccount("4000000002"));
+
+        assertThat(count("createAccount", "success")).isEqualTo(created + 1);
+        assertThat(count("createAccount", "already-exists")).isEqualTo(duplicates + 1);
+        assertThat(count("fetchAccount", "success")).isEqualTo(fetched + 1);
+        assertThat(count("fetchAccount", "not-found")).isEqualTo(notFound + 1);
+    }
+
+    @Test
+    void dbTime_shouldBePartOfTotalTime() {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Metered User");
+        customerDto.setEmail("metered@example.com");
+        customerDto.setMobileNumber("4000000003");
+
+        accountService.createAccount(customerDto);
+        Timer total = timer(ServiceMetricsAspect.OPERATION_TIMER, "createAccount", "success");
+        Timer db = timer(ServiceMetricsAspect.DB_TIMER, "createAccount", "success");
+
+        assertThat(db.count()).isEqualTo(total.count());
+        assertThat(db.totalTime(TimeUnit.NANOSECONDS)).isPositive()
+                .isLessThanOrEqualTo(total.totalTime(TimeUnit.NANOSECONDS));
+    }
+
+    private long count(String operation, String outcome) {
+        Timer timer = meterRegistry.find(ServiceMetricsAspect.OPERATION_TIMER)
+                .tag("operation", operation).tag("outcome", outcome).timer();
+        return timer == null ? 0 : timer.count();
+    }
+
+    private Timer timer(String name, String operation, String outcome) {
+        return meterRegistry.get(name).tag("operation", operation).tag("outcome", outcome).timer();
+    }
+}
@@ -0,0 +1,39 @@
+package com.easybytes.accounts.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadConnectionTimeoutTest {
+
+    // placeholders and the "2s" Duration format are what a Boot application resolves for any bean
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withConfiguration(AutoConfigurations.of(PropertyPlaceholderAutoConfiguration.class))
+            .withUserConfiguration(VirtualThreadConnectionTimeout.class)
+            .withBean(HikariDataSource.class);
+
+    @Test
+    void shouldShortenTheConnectionTimeout_whenVirtualThreadsAreEnabled() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true",
+                        "accounts.virtual-threads.connection-timeout=1500ms")
+                .run(context -> assertThat(context.getBean(HikariDataSource.class).getConnectionTimeout())
+                        .isEqualTo(1500));
+    }
+
+    @Test
+    void shouldKeepHikarisTimeout_withPlatformThreads() {
+        long hikariDefault = new HikariDataSource().getConnectionTimeout();
+
+        contextRunner.run(context -> {
+            assertThat(context).doesNotHaveBean(VirtualThreadConnectionTimeout.class);
+            assertThat(context.getBean(HikariDataSource.class).getConnectionTimeout()).isEqualTo(hikariDefault);
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.easybytes.accounts.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+
+    @Test
+    void shouldCountPinningInsideSynchronizedBlock() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+        monitor.start();
+        try {
+            Thread.ofVirtual().start(this::sleepWhileHoldingMonitor).join();
+
+            Counter pinned = null;
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (pinned == null && System.nanoTime() < deadline) {
+                pinned = meterRegistry.find("jvm.threads.virtual.pinned").counter();
+                Thread.sleep(100);
+            }
+
+            assertNotNull(pinned, "pinning was not reported");
+            assertTrue(pinned.getId().getTag("frame").startsWith(VirtualThreadPinningMonitorTest.class.getName()));
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    private void sleepWhileHoldingMonitor() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
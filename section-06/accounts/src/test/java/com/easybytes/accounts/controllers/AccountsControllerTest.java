@@ -1,9 +1,15 @@
 package com.easybytes.accounts.controllers;
 
 import com.easybytes.accounts.constants.AccountsConstants;
+import com.easybytes.accounts.dtos.AccountsDto;
+import com.easybytes.accounts.dtos.BatchFetchRequestDto;
+import com.easybytes.accounts.dtos.BatchFetchResponseDto;
 import com.easybytes.accounts.dtos.CustomerAccountResponseDto;
+import com.easybytes.accounts.dtos.CustomerAccountVersion;
+import com.easybytes.accounts.dtos.CustomerBatchResultDto;
 import com.easybytes.accounts.dtos.CustomerDto;
 import com.easybytes.accounts.dtos.ResponseDto;
+import com.easybytes.accounts.entity.Accounts;
 import com.easybytes.accounts.exceptions.CustomerAlreadyExistsException;
 import com.easybytes.accounts.exceptions.ResourceNotFoundException;
 import com.easybytes.accounts.services.IAccountService;
@@ -15,14 +21,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.stringContainsInOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -74,31 +89,192 @@ public class AccountsControllerTest {
         verify(accountService).createAccount(any(CustomerDto.class));
     }
 
+    @Test
+    void createAccounts_shouldReturnPerItemResults() throws Exception {
+        List<CustomerDto> customerDtos = List.of(TestDataUtil.getCustomerDto(), TestDataUtil.getCustomerDto());
+
+        when(accountService.createAccounts(anyList())).thenReturn(List.of(
+                new CustomerBatchResultDto("1234567890", AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201),
+                new CustomerBatchResultDto("1234567890", AccountsConstants.STATUS_400, AccountsConstants.MESSAGE_400_CUSTOMER_EXISTS)));
+
+        mockMvc.perform(post("/api/create/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerDtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].statusCode").value(AccountsConstants.STATUS_201))
+                .andExpect(jsonPath("$[1].statusCode").value(AccountsConstants.STATUS_400))
+                .andExpect(jsonPath("$[1].statusMsg").value(AccountsConstants.MESSAGE_400_CUSTOMER_EXISTS));
+
+        verify(accountService).createAccounts(anyList());
+    }
+
+    @Test
+    void createAccounts_shouldReport400ForInvalidItemsAndCreateTheRest() throws Exception {
+        List<CustomerDto> customerDtos = List.of(TestDataUtil.getInvalidCustomerDto(), TestDataUtil.getCustomerDto());
+
+        when(accountService.createAccounts(anyList())).thenReturn(List.of(
+                new CustomerBatchResultDto("1234567890", AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201)));
+
+        mockMvc.perform(post("/api/create/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(customerDtos)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].mobileNumber").value("123"))
+                .andExpect(jsonPath("$[0].statusCode").value(AccountsConstants.STATUS_400))
+                .andExpect(jsonPath("$[0].statusMsg",
+                        containsString("mobileNumber=Mobile number must be exactly 10 digits")))
+                .andExpect(jsonPath("$[1].statusCode").value(AccountsConstants.STATUS_201));
+
+        verify(accountService).createAccounts(argThat(items -> items.size() == 1
+                && "1234567890".equals(items.get(0).getMobileNumber())));
+    }
+
+    @Test
+    void createAccounts_shouldReport400ForNullItems() throws Exception {
+        when(accountService.createAccounts(anyList())).thenReturn(List.of(
+                new CustomerBatchResultDto("1234567890", AccountsConstants.STATUS_201, AccountsConstants.MESSAGE_201)));
+
+        mockMvc.perform(post("/api/create/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[null, " + objectMapper.writeValueAsString(TestDataUtil.getCustomerDto()) + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].statusCode").value(AccountsConstants.STATUS_400))
+                .andExpect(jsonPath("$[0].statusMsg").value(AccountsConstants.MESSAGE_400_MISSING_CUSTOMER))
+                .andExpect(jsonPath("$[1].statusCode").value(AccountsConstants.STATUS_201));
+
+        verify(accountService).createAccounts(argThat(items -> items.size() == 1));
+    }
+
+    @Test
+    void createAccounts_shouldNotCallTheService_whenEveryItemIsInvalid() throws Exception {
+        mockMvc.perform(post("/api/create/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(TestDataUtil.getInvalidCustomerDto()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].statusCode").value(AccountsConstants.STATUS_400));
+
+        verify(accountService, never()).createAccounts(anyList());
+    }
+
+    @Test
+    void fetchAccountDetailsBatch_shouldReturnResultsAndMissing() throws Exception {
+        BatchFetchRequestDto requestDto = new BatchFetchRequestDto();
+        requestDto.setMobileNumbers(List.of("1234567890", "0987654321"));
+
+        when(accountService.fetchAccounts(anyList())).thenReturn(new BatchFetchResponseDto<>(
+                Map.of("1234567890", TestDataUtil.getCustomerAccountResponseDto()), List.of("0987654321")));
+
+        mockMvc.perform(post("/api/fetch/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.1234567890.accountsDto.accountNumber").value(12345L))
+                .andExpect(jsonPath("$.missing[0]").value("0987654321"));
+
+        verify(accountService).fetchAccounts(List.of("1234567890", "0987654321"));
+    }
+
+    @Test
+    void fetchAccountDetailsBatch_shouldReturn400_whenMobileNumberInvalid() throws Exception {
+        BatchFetchRequestDto requestDto = new BatchFetchRequestDto();
+        requestDto.setMobileNumbers(List.of("1234567890", "123"));
+
+        mockMvc.perform(post("/api/fetch/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage",
+                        containsString("Mobile number must be exactly 10 digits")));
+
+        verify(accountService, never()).fetchAccounts(anyList());
+    }
+
+    @Test
+    void exportAccountDetails_shouldStreamOneJsonObjectPerLine() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<CustomerAccountResponseDto> sink = invocation.getArgument(0);
+            sink.accept(TestDataUtil.getCustomerAccountResponseDto());
+            sink.accept(TestDataUtil.getCustomerAccountResponseDto());
+            return null;
+        }).when(accountService).exportAccounts(any());
+
+        MvcResult mvcResult = mockMvc.perform(get("/api/export")
+                        .accept(AccountsConstants.APPLICATION_NDJSON_VALUE))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(AccountsConstants.APPLICATION_NDJSON_VALUE))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(body.endsWith("\n"));
+        assertEquals(12345L, objectMapper.readTree(lines[1]).at("/accountsDto/accountNumber").asLong());
+    }
+
     @Test
     public void fetchAccountDetails_Successful() throws Exception {
         String mobileNumber = "1234567890";
         CustomerAccountResponseDto responseDto = TestDataUtil.getCustomerAccountResponseDto();
 
         //given
-        when(accountService.fetchAccount(mobileNumber)).thenReturn(responseDto);
+        when(accountService.fetchAccountVersion(mobileNumber)).thenReturn(TestDataUtil.getCustomerAccountVersion());
+        when(accountService.fetchAccount(mobileNumber, TestDataUtil.getCustomerAccountVersion())).thenReturn(responseDto);
 
         mockMvc.perform(get("/api/fetch")
                         .param("mobileNum", mobileNumber)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", TestDataUtil.getCustomerAccountVersion().eTag()))
+                .andExpect(header().exists("Last-Modified"))
                 .andExpect(jsonPath("$.customerDto.name").value("ABCDE"))
                 .andExpect(jsonPath("$.accountsDto.accountNumber").value(12345L));
 
-        verify(accountService, times(1)).fetchAccount(mobileNumber);
+        verify(accountService, times(1)).fetchAccount(mobileNumber, TestDataUtil.getCustomerAccountVersion());
 
     }
 
+    @Test
+    void fetchAccountDetails_shouldReturnNotModified_whenETagMatches() throws Exception {
+        String mobileNumber = "1234567890";
+        CustomerAccountVersion version = TestDataUtil.getCustomerAccountVersion();
+        when(accountService.fetchAccountVersion(mobileNumber)).thenReturn(version);
+
+        mockMvc.perform(get("/api/fetch")
+                        .param("mobileNum", mobileNumber)
+                        .header("If-None-Match", version.eTag())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", version.eTag()))
+                .andExpect(content().string(""));
+
+        verify(accountService, never()).fetchAccount(anyString(), any(CustomerAccountVersion.class));
+    }
+
+    @Test
+    void fetchAccountDetails_shouldReturnBody_whenETagIsStale() throws Exception {
+        String mobileNumber = "1234567890";
+        CustomerAccountVersion version = TestDataUtil.getCustomerAccountVersion();
+        when(accountService.fetchAccountVersion(mobileNumber)).thenReturn(version);
+        when(accountService.fetchAccount(mobileNumber, version)).thenReturn(TestDataUtil.getCustomerAccountResponseDto());
+
+        mockMvc.perform(get("/api/fetch")
+                        .param("mobileNum", mobileNumber)
+                        .header("If-None-Match", "\"1-0-3039-0\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", version.eTag()))
+                .andExpect(jsonPath("$.customerDto.name").value("ABCDE"));
+    }
+
     @Test
     void fetchAccountDetails_shouldReturnNotFound_whenCustomerNotFound() throws Exception {
         String mobileNumber = "1234567890";
 
         // Given: Service layer throws exception
-        when(accountService.fetchAccount(mobileNumber))
+        when(accountService.fetchAccountVersion(mobileNumber))
                 .thenThrow(new ResourceNotFoundException("Customer", "mobileNumber", mobileNumber));
 
         //when + then
@@ -117,7 +293,7 @@ public class AccountsControllerTest {
 
         // Given: Service layer throws exception
 
-        when(accountService.fetchAccount(mobileNumber))
+        when(accountService.fetchAccountVersion(mobileNumber))
                 .thenThrow(new ResourceNotFoundException("Account", "customerId", customerId));
 
         //when + then
@@ -167,6 +343,57 @@ public class AccountsControllerTest {
                 .andExpect(content().json(expectedResponseJson));
     }
 
+    @Test
+    void updateAccountDetails_shouldReturn409Conflict_whenUpdatedConcurrently() throws Exception {
+        CustomerAccountResponseDto responseDto = TestDataUtil.getCustomerAccountResponseDto();
+
+        when(accountService.updateAccount(responseDto))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Accounts.class, 12345L));
+
+        mockMvc.perform(put("/api/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(responseDto)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value("CONFLICT"))
+                .andExpect(jsonPath("$.errorMessage").value(AccountsConstants.MESSAGE_409_CONCURRENT_UPDATE));
+    }
+
+    @Test
+    void patchAccountDetails_shouldReturn200Ok_whenPatchIsSuccessful() throws Exception {
+        AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(12345L);
+        accountsDto.setBranchAddress("Mumbai, India");
+        CustomerAccountResponseDto responseDto = new CustomerAccountResponseDto(null, accountsDto);
+
+        when(accountService.patchAccount(responseDto)).thenReturn(true);
+
+        mockMvc.perform(patch("/api/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(responseDto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.statusCode").value(AccountsConstants.STATUS_200));
+
+        verify(accountService).patchAccount(responseDto);
+    }
+
+    @Test
+    void patchAccountDetails_shouldReturn400BadRequest_whenAPresentFieldIsInvalid() throws Exception {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setMobileNumber("abc");
+        AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(12345L);
+        accountsDto.setBranchAddress("");
+
+        mockMvc.perform(patch("/api/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CustomerAccountResponseDto(customerDto, accountsDto))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage").value(containsString("mobileNumber=")))
+                .andExpect(jsonPath("$.errorMessage").value(containsString("branchAddress=")));
+
+        verify(accountService, never()).patchAccount(any());
+    }
+
     @Test
     void deleteAccountDetails_shouldReturn200Ok_whenDeletionSucceeds() throws JsonProcessingException, Exception {
         String mobileNumber = "1234567890";
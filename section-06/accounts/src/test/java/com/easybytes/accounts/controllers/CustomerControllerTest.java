@@ -0,0 +1,54 @@
+package com.easybytes.accounts.controllers;
+
+import com.easybytes.accounts.dtos.CustomerDetailsDto;
+import com.easybytes.accounts.services.ICustomerService;
+import com.easybytes.accounts.utils.TestDataUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class CustomerControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ICustomerService customerService;
+
+    @Test
+    void fetchCustomerDetails_shouldReturnDetailsAndUnavailableServices() throws Exception {
+        CustomerDetailsDto details = new CustomerDetailsDto();
+        details.setName("John Doe");
+        details.setMobileNumber("1234567890");
+        details.setAccountsDto(TestDataUtil.getAccountsDto());
+        details.setUnavailableServices(List.of("loans"));
+        when(customerService.fetchCustomerDetails("1234567890")).thenReturn(details);
+
+        mockMvc.perform(get("/api/fetchCustomerDetails").param("mobileNumber", "1234567890"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("John Doe"))
+                .andExpect(jsonPath("$.accountsDto").exists())
+                .andExpect(jsonPath("$.loansDto").doesNotExist())
+                .andExpect(jsonPath("$.unavailableServices[0]").value("loans"));
+    }
+
+    @Test
+    void fetchCustomerDetails_invalidMobileNumber_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/fetchCustomerDetails").param("mobileNumber", "12345"))
+                .andExpect(status().isBadRequest());
+
+        verify(customerService, never()).fetchCustomerDetails(anyString());
+    }
+}
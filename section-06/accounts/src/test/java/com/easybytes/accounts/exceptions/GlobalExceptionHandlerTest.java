@@ -0,0 +1,78 @@
+package com.easybytes.accounts.exceptions;
+
+import com.easybytes.accounts.dtos.CustomerDto;
+import com.easybytes.accounts.dtos.ErrorResponseDto;
+import com.easybytes.accounts.utils.TestDataUtil;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+    private final WebRequest webRequest = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/fetch"));
+
+    @Test
+    void domainExceptions_shouldNotCaptureStackTraces() {
+        ResourceNotFoundException notFound = new ResourceNotFoundException("Customer", "mobileNumber", "1234567890");
+        CustomerAlreadyExistsException exists = new CustomerAlreadyExistsException("Customer already exists");
+
+        assertEquals("Customer not found with the given input data mobileNumber : '1234567890'", notFound.getMessage());
+        assertEquals(0, notFound.getStackTrace().length);
+        assertEquals(0, exists.getStackTrace().length);
+    }
+
+    @Test
+    void handleResourceNotFoundException_shouldBuildNotFoundBody() {
+        ResponseEntity<ErrorResponseDto> response = handler.handleResourceNotFoundException(
+                new ResourceNotFoundException("Customer", "mobileNumber", "1234567890"), webRequest);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("uri=/api/fetch", response.getBody().getApiPath());
+        assertEquals(HttpStatus.NOT_FOUND, response.getBody().getErrorCode());
+        assertNotNull(response.getBody().getErrorTime());
+    }
+
+    @Test
+    void handleConstraintViolationException_shouldRenderSingleViolationLikeAMap() {
+        CustomerDto customerDto = TestDataUtil.getCustomerDto();
+        customerDto.setMobileNumber("123");
+
+        ResponseEntity<ErrorResponseDto> response = handler.handleConstraintViolationException(
+                new ConstraintViolationException(validate(customerDto)), webRequest);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals("{mobileNumber=Mobile number must be exactly 10 digits}", response.getBody().getErrorMessage());
+    }
+
+    @Test
+    void handleConstraintViolationException_shouldListEveryInvalidField() {
+        CustomerDto customerDto = TestDataUtil.getCustomerDto();
+        customerDto.setMobileNumber("123");
+        customerDto.setEmail("not-an-email");
+
+        String errorMessage = handler.handleConstraintViolationException(
+                new ConstraintViolationException(validate(customerDto)), webRequest).getBody().getErrorMessage();
+
+        assertTrue(errorMessage.startsWith("{") && errorMessage.endsWith("}"));
+        assertTrue(errorMessage.contains("mobileNumber=Mobile number must be exactly 10 digits"));
+        assertTrue(errorMessage.contains("email=Email address should be a valid value"));
+    }
+
+    private static Set<? extends ConstraintViolation<?>> validate(CustomerDto customerDto) {
+        try (ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory()) {
+            return validatorFactory.getValidator().validate(customerDto);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.easybytes.accounts.mapper;
+
+import com.easybytes.accounts.dtos.CustomerAccountResponseDto;
+import com.easybytes.accounts.dtos.CustomerAccountView;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CustomerAccountMapperTest {
+
+    @Test
+    void mapToCustomerAccountResponseDto_shouldMapFieldsCorrectly() {
+        CustomerAccountView view = new CustomerAccountView(7L, "Alice", "alice@example.com", "9876543210",
+                1234567890L, "Savings", "Bangalore");
+
+        CustomerAccountResponseDto dto = CustomerAccountMapper.mapToCustomerAccountResponseDto(view);
+
+        assertEquals("Alice", dto.getCustomerDto().getName());
+        assertEquals("alice@example.com", dto.getCustomerDto().getEmail());
+        assertEquals("9876543210", dto.getCustomerDto().getMobileNumber());
+        assertEquals(1234567890L, dto.getAccountsDto().getAccountNumber());
+        assertEquals("Savings", dto.getAccountsDto().getAccountType());
+        assertEquals("Bangalore", dto.getAccountsDto().getBranchAddress());
+    }
+}
@@ -0,0 +1,138 @@
+package com.easybytes.accounts.outbox;
+
+import com.easybytes.accounts.dtos.AccountEvent;
+import com.easybytes.accounts.dtos.AccountEventType;
+import com.easybytes.accounts.dtos.AccountsDto;
+import com.easybytes.accounts.dtos.CustomerAccountResponseDto;
+import com.easybytes.accounts.dtos.CustomerDto;
+import com.easybytes.accounts.entity.OutboxEvent;
+import com.easybytes.accounts.exceptions.CustomerAlreadyExistsException;
+import com.easybytes.accounts.repository.OutboxEventRepository;
+import com.easybytes.accounts.services.IAccountService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// a database of its own: the scheduled relays of other cached test contexts would drain a shared outbox
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox-relay;DB_CLOSE_DELAY=-1",
+        "accounts.outbox.poll-interval=1h",
+        "accounts.outbox.transport=in-memory"
+})
+@RecordApplicationEvents
+public class OutboxRelayTest {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @BeforeEach
+    void drainOutbox() {
+        outboxRelay.relay();
+        applicationEvents.clear();
+    }
+
+    @Test
+    void lifecycle_shouldBePublishedInOrderAndRemovedFromOutbox() {
+        accountService.createAccount(customerDto("7300000001"));
+        Long accountNumber = accountService.fetchAccount("7300000001").getAccountsDto().getAccountNumber();
+        CustomerDto changedMobileNumber = new CustomerDto();
+        changedMobileNumber.setMobileNumber("7300000002");
+        AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(accountNumber);
+        accountService.patchAccount(new CustomerAccountResponseDto(changedMobileNumber, accountsDto));
+        accountService.deleteAccount("7300000002");
+        assertThat(outboxEventRepository.count()).isEqualTo(3);
+
+        outboxRelay.relay();
+
+        List<AccountEvent> events = applicationEvents.stream(AccountEvent.class).toList();
+        assertThat(events).extracting(AccountEvent::eventType).containsExactly(
+                AccountEventType.ACCOUNT_CREATED, AccountEventType.ACCOUNT_UPDATED, AccountEventType.ACCOUNT_DELETED);
+        assertThat(events.get(0).accountNumber()).isEqualTo(accountNumber);
+        assertThat(events.get(1).mobileNumber()).isEqualTo("7300000002");
+        assertThat(events.get(1).previousMobileNumber()).isEqualTo("7300000001");
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    @Test
+    void createAccount_shouldNotWriteEvent_whenTransactionRollsBack() {
+        accountService.createAccount(customerDto("7300000003"));
+        long pending = outboxEventRepository.count();
+
+        assertThatThrownBy(() -> accountService.createAccount(customerDto("7300000003")))
+                .isInstanceOf(CustomerAlreadyExistsException.class);
+
+        assertThat(outboxEventRepository.count()).isEqualTo(pending);
+    }
+
+    @Test
+    void relay_shouldKeepEvents_whenTransportFails() {
+        accountService.createAccount(customerDto("7300000004"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboxRelay failingRelay = new OutboxRelay(outboxEventRepository, events -> {
+            throw new IllegalStateException("subscriber down");
+        }, meterRegistry, 10, 3);
+
+        failingRelay.relay();
+
+        assertThat(outboxEventRepository.count()).isEqualTo(1);
+        assertThat(meterRegistry.counter(OutboxRelay.FAILED_COUNTER).count()).isEqualTo(1);
+        assertThat(applicationEvents.stream(AccountEvent.class)).isEmpty();
+    }
+
+    @Test
+    void relay_shouldParkTheRefusedEvent_andDeliverTheOthers() {
+        accountService.createAccount(customerDto("7300000005"));
+        accountService.createAccount(customerDto("7300000006"));
+        accountService.createAccount(customerDto("7300000007"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        List<String> delivered = new ArrayList<>();
+        OutboxRelay refusingRelay = new OutboxRelay(outboxEventRepository, events -> {
+            if (events.stream().anyMatch(event -> "7300000006".equals(event.mobileNumber()))) {
+                throw new EventsRejectedException("400 BAD_REQUEST", null);
+            }
+            events.forEach(event -> delivered.add(event.mobileNumber()));
+        }, meterRegistry, 10, 3);
+
+        for (int i = 0; i < 5; i++) {
+            refusingRelay.relay();
+        }
+
+        assertThat(delivered).containsExactly("7300000005", "7300000007");
+        assertThat(meterRegistry.counter(OutboxRelay.PARKED_COUNTER).count()).isEqualTo(1);
+        List<OutboxEvent> remaining = outboxEventRepository.findAll();
+        assertThat(remaining).singleElement().satisfies(event -> {
+            assertThat(event.getMobileNumber()).isEqualTo("7300000006");
+            assertThat(event.getAttempts()).isEqualTo(3);
+            assertThat(event.getParkedAt()).isNotNull();
+        });
+        outboxEventRepository.deleteAll(remaining);
+    }
+
+    private static CustomerDto customerDto(String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Outbox Customer");
+        customerDto.setEmail("outbox@example.com");
+        customerDto.setMobileNumber(mobileNumber);
+        return customerDto;
+    }
+}
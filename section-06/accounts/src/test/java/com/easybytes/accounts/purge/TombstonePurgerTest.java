@@ -0,0 +1,105 @@
+package com.easybytes.accounts.purge;
+
+import com.easybytes.accounts.dtos.CustomerDto;
+import com.easybytes.accounts.entity.Customer;
+import com.easybytes.accounts.exceptions.ResourceNotFoundException;
+import com.easybytes.accounts.repository.AccountsRepository;
+import com.easybytes.accounts.repository.CustomerRepository;
+import com.easybytes.accounts.services.IAccountService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "accounts.purge.cron=-",
+        "accounts.purge.batch-size=2",
+        "accounts.purge.pause=0ms"
+})
+public class TombstonePurgerTest {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private TombstonePurger tombstonePurger;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void deleteAccount_shouldOnlyFlagTheRows() {
+        accountService.createAccount(customerDto("7200000001"));
+        Long customerId = customerRepository.findByMobileNumber("7200000001").orElseThrow().getCustomerId();
+
+        accountService.deleteAccount("7200000001");
+
+        assertThat(customerRepository.findByMobileNumber("7200000001")).isEmpty();
+        assertThat(accountsRepository.findByCustomerId(customerId)).isEmpty();
+        assertThatThrownBy(() -> accountService.fetchAccount("7200000001"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from customer where customer_id = ? and deleted = true", Long.class, customerId))
+                .isEqualTo(1L);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from accounts where customer_id = ? and deleted = true", Long.class, customerId))
+                .isEqualTo(1L);
+    }
+
+    @Test
+    void createAccount_shouldAcceptMobileNumberOfDeletedCustomer() {
+        accountService.createAccount(customerDto("7200000002"));
+        accountService.deleteAccount("7200000002");
+
+        accountService.createAccount(customerDto("7200000002"));
+
+        Customer customer = customerRepository.findByMobileNumber("7200000002").orElseThrow();
+        assertThat(accountsRepository.findByCustomerId(customer.getCustomerId())).isPresent();
+    }
+
+    @Test
+    void purge_shouldRemoveFlaggedRowsInBatchesAndKeepLiveOnes() {
+        for (int i = 3; i <= 7; i++) {
+            accountService.createAccount(customerDto("720000000" + i));
+        }
+        for (int i = 3; i <= 6; i++) {
+            accountService.deleteAccount("720000000" + i);
+        }
+        double purgedBefore = purgedCount("customer");
+
+        long purged = tombstonePurger.purge();
+
+        assertThat(purged).isGreaterThanOrEqualTo(8);
+        assertThat(purgedCount("customer") - purgedBefore).isGreaterThanOrEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from customer where deleted = true", Long.class))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from accounts where deleted = true", Long.class))
+                .isZero();
+        assertThat(customerRepository.findByMobileNumber("7200000007")).isPresent();
+    }
+
+    private double purgedCount(String table) {
+        return meterRegistry.counter(TombstonePurger.PURGED_COUNTER, "table", table).count();
+    }
+
+    private static CustomerDto customerDto(String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Tombstone Customer");
+        customerDto.setEmail("tombstone@example.com");
+        customerDto.setMobileNumber(mobileNumber);
+        return customerDto;
+    }
+}
@@ -0,0 +1,106 @@
+package com.easybytes.accounts.replica;
+
+import com.easybytes.accounts.dtos.CustomerDto;
+import com.easybytes.accounts.services.IAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two unrelated H2 databases stand in for primary and replica. Nothing replicates between them, so rows that
+ * exist in only one of them show which database answered. They are inserted behind the service's back, so the
+ * mobile number filter is off.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "accounts.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:schema.sql'",
+        "accounts.datasource.replica.username=sa",
+        "accounts.datasource.replica-lag.max=5s",
+        "accounts.datasource.replica-lag.check-interval=1h",
+        "accounts.mobile-filter.enabled=false"
+})
+public class ReadReplicaRoutingTest {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @Autowired
+    void setDataSources(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                        @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+    }
+
+    @BeforeEach
+    void replicaCaughtUp() {
+        replicateHeartbeat(LocalDateTime.now());
+        replicaLagMonitor.check();
+    }
+
+    @Test
+    void readOnlyFetch_shouldBeAnsweredByTheReplica() {
+        insertCustomerWithAccount(replica, 1, "7400000001", "Replica Customer");
+
+        assertThat(replicaLagMonitor.isReplicaUsable()).isTrue();
+        assertThat(accountService.fetchAccount("7400000001").getCustomerDto().getName()).isEqualTo("Replica Customer");
+        assertThat(primary.queryForObject("select count(*) from customer where mobile_number = '7400000001'", Long.class))
+                .isZero();
+    }
+
+    @Test
+    void write_shouldGoToThePrimary() {
+        accountService.createAccount(customerDto("7400000002"));
+
+        assertThat(primary.queryForObject("select count(*) from customer where mobile_number = '7400000002'", Long.class))
+                .isEqualTo(1L);
+        assertThat(replica.queryForObject("select count(*) from customer where mobile_number = '7400000002'", Long.class))
+                .isZero();
+    }
+
+    @Test
+    void readOnlyFetch_shouldFallBackToThePrimary_whenReplicaLags() {
+        insertCustomerWithAccount(primary, 3, "7400000003", "Primary Customer");
+        insertCustomerWithAccount(replica, 3, "7400000003", "Stale Customer");
+        replicateHeartbeat(LocalDateTime.now().minusMinutes(1));
+
+        replicaLagMonitor.check();
+
+        assertThat(replicaLagMonitor.isReplicaUsable()).isFalse();
+        assertThat(accountService.fetchAccount("7400000003").getCustomerDto().getName()).isEqualTo("Primary Customer");
+    }
+
+    private void replicateHeartbeat(LocalDateTime beatAt) {
+        replica.update("delete from replica_heartbeat");
+        replica.update("insert into replica_heartbeat (id, beat_at) values (1, ?)", beatAt);
+    }
+
+    private static void insertCustomerWithAccount(JdbcTemplate database, long id, String mobileNumber, String name) {
+        long customerId = 900_000 + id;
+        database.update("insert into customer (customer_id, name, email, mobile_number, created_at, created_by) " +
+                "values (?, ?, 'routing@example.com', ?, current_timestamp, 'test-run')", customerId, name, mobileNumber);
+        database.update("insert into accounts (customer_id, account_number, account_type, branch_address, created_at, created_by) " +
+                "values (?, ?, 'Savings', 'Bangalore', current_timestamp, 'test-run')", customerId, 1_740_000_000 + id);
+    }
+
+    private static CustomerDto customerDto(String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Routing Customer");
+        customerDto.setEmail("routing@example.com");
+        customerDto.setMobileNumber(mobileNumber);
+        return customerDto;
+    }
+}
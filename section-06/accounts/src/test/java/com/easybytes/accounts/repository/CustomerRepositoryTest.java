@@ -1,17 +1,27 @@
 package com.easybytes.accounts.repository;
 
 import com.easybytes.accounts.audits.AuditorAwareImpl;
+import com.easybytes.accounts.constants.AccountsConstants;
+import com.easybytes.accounts.dtos.CustomerAccountVersion;
+import com.easybytes.accounts.dtos.CustomerAccountView;
+import com.easybytes.accounts.entity.Accounts;
 import com.easybytes.accounts.entity.Customer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @SpringBootTest
 @Import(AuditorAwareImpl.class)
@@ -20,6 +30,21 @@ public class CustomerRepositoryTest {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void lookupsByMobileNumber_shouldUseTheMobileNumberIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "explain select customer_id from customer where mobile_number = '1234567890' and deleted = false",
+                String.class);
+
+        assertThat(plan).containsIgnoringCase("idx_customer_mobile_number");
+    }
+
     @Test
     public void testFindByMobileNumber_shouldReturnCustomer() {
         // Given
@@ -43,4 +68,191 @@ public class CustomerRepositoryTest {
         assertThat(foundCustomer.get().getEmail()).isEqualTo("test@example.com");
 
     }
+
+    @Test
+    public void testFindCustomerAccountByMobileNumber_shouldJoinCustomerAndAccount() {
+        // Given
+        Customer customer = new Customer();
+        customer.setName("Joined User");
+        customer.setEmail("joined@example.com");
+        customer.setMobileNumber("8888888888");
+        customer.setCreatedAt(LocalDateTime.now());
+        customer.setCreatedBy("test-run");
+        Customer savedCustomer = customerRepository.save(customer);
+
+        Accounts accounts = new Accounts();
+        accounts.setCustomerId(savedCustomer.getCustomerId());
+        accounts.setAccountNumber(1888888888L);
+        accounts.setAccountType("Savings");
+        accounts.setBranchAddress("Bangalore");
+        accountsRepository.save(accounts);
+
+        //when
+        Optional<CustomerAccountView> view = customerRepository.findCustomerAccountByMobileNumber("8888888888");
+
+        //then
+        assertThat(view).isPresent();
+        assertThat(view.get().customerId()).isEqualTo(savedCustomer.getCustomerId());
+        assertThat(view.get().email()).isEqualTo("joined@example.com");
+        assertThat(view.get().accountNumber()).isEqualTo(1888888888L);
+        assertThat(view.get().branchAddress()).isEqualTo("Bangalore");
+    }
+
+    @Test
+    public void testSave_shouldKeepAccountNumbersAboveTheIntRange() {
+        Customer customer = new Customer();
+        customer.setName("Wide User");
+        customer.setEmail("wide@example.com");
+        customer.setMobileNumber("7700000001");
+        customer.setCreatedAt(LocalDateTime.now());
+        customer.setCreatedBy("test-run");
+        Customer savedCustomer = customerRepository.save(customer);
+
+        Accounts accounts = new Accounts();
+        accounts.setCustomerId(savedCustomer.getCustomerId());
+        accounts.setAccountNumber(9_999_999_999L);
+        accounts.setAccountType("Savings");
+        accounts.setBranchAddress("Bangalore");
+        accountsRepository.save(accounts);
+
+        assertThat(customerRepository.findCustomerAccountByMobileNumber("7700000001"))
+                .map(CustomerAccountView::accountNumber).contains(9_999_999_999L);
+    }
+
+    @Test
+    public void testFindCustomerAccountByMobileNumber_shouldReturnCustomerWithoutAccount() {
+        // Given
+        Customer customer = new Customer();
+        customer.setName("Lonely User");
+        customer.setEmail("lonely@example.com");
+        customer.setMobileNumber("7777777777");
+        customer.setCreatedAt(LocalDateTime.now());
+        customer.setCreatedBy("test-run");
+        customerRepository.save(customer);
+
+        //when
+        Optional<CustomerAccountView> view = customerRepository.findCustomerAccountByMobileNumber("7777777777");
+
+        //then
+        assertThat(view).isPresent();
+        assertThat(view.get().name()).isEqualTo("Lonely User");
+        assertThat(view.get().accountNumber()).isNull();
+    }
+
+    @Test
+    public void testFindCustomerAccountsByMobileNumbers_shouldSkipCustomersWithoutAccount() {
+        // Given
+        Customer customer = new Customer();
+        customer.setName("Batch User");
+        customer.setEmail("batch@example.com");
+        customer.setMobileNumber("6666666666");
+        customer.setCreatedAt(LocalDateTime.now());
+        customer.setCreatedBy("test-run");
+        Customer savedCustomer = customerRepository.save(customer);
+
+        Accounts accounts = new Accounts();
+        accounts.setCustomerId(savedCustomer.getCustomerId());
+        accounts.setAccountNumber(1666666666L);
+        accounts.setAccountType("Savings");
+        accounts.setBranchAddress("Bangalore");
+        accountsRepository.save(accounts);
+
+        Customer customerWithoutAccount = new Customer();
+        customerWithoutAccount.setName("No Account User");
+        customerWithoutAccount.setEmail("noaccount@example.com");
+        customerWithoutAccount.setMobileNumber("5555555555");
+        customerWithoutAccount.setCreatedAt(LocalDateTime.now());
+        customerWithoutAccount.setCreatedBy("test-run");
+        customerRepository.save(customerWithoutAccount);
+
+        //when
+        List<CustomerAccountView> views = customerRepository.findCustomerAccountsByMobileNumbers(
+                List.of("6666666666", "5555555555", "4444444444"));
+
+        //then
+        assertThat(views).hasSize(1);
+        assertThat(views.get(0).mobileNumber()).isEqualTo("6666666666");
+        assertThat(views.get(0).accountNumber()).isEqualTo(1666666666L);
+    }
+
+    @Test
+    public void testFindCustomerAccountsAfter_shouldReturnNextPageInCustomerIdOrder() {
+        // Given
+        List<Long> customerIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Customer customer = new Customer();
+            customer.setName("Export User " + i);
+            customer.setEmail("export" + i + "@example.com");
+            customer.setMobileNumber("333333333" + i);
+            customer.setCreatedAt(LocalDateTime.now());
+            customer.setCreatedBy("test-run");
+            customerIds.add(customerRepository.save(customer).getCustomerId());
+        }
+
+        //when
+        List<CustomerAccountView> page = customerRepository.findCustomerAccountsAfter(customerIds.get(0), Limit.of(1));
+
+        //then
+        assertThat(page).hasSize(1);
+        assertThat(page.get(0).customerId()).isEqualTo(customerIds.get(1));
+        assertThat(page.get(0).mobileNumber()).isEqualTo("3333333331");
+    }
+
+    @Test
+    public void testSave_shouldViolateUniqueMobileNumberConstraint_whenMobileNumberTaken() {
+        // Given
+        Customer customer = new Customer();
+        customer.setName("Unique User");
+        customer.setEmail("unique@example.com");
+        customer.setMobileNumber("2222222222");
+        customer.setCreatedAt(LocalDateTime.now());
+        customer.setCreatedBy("test-run");
+        customerRepository.saveAndFlush(customer);
+
+        Customer duplicate = new Customer();
+        duplicate.setName("Duplicate User");
+        duplicate.setEmail("duplicate@example.com");
+        duplicate.setMobileNumber("2222222222");
+        duplicate.setCreatedAt(LocalDateTime.now());
+        duplicate.setCreatedBy("test-run");
+
+        //when + then
+        assertThatThrownBy(() -> customerRepository.saveAndFlush(duplicate))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .satisfies(e -> assertThat(((DataIntegrityViolationException) e).getMostSpecificCause().getMessage())
+                        .containsIgnoringCase(AccountsConstants.UK_CUSTOMER_MOBILE_NUMBER));
+    }
+
+    @Test
+    public void testFindCustomerAccountVersionByMobileNumber_shouldChangeWhenCustomerIsUpdated() {
+        // Given
+        Customer customer = new Customer();
+        customer.setName("Versioned User");
+        customer.setEmail("versioned@example.com");
+        customer.setMobileNumber("1111111112");
+        customer.setCreatedAt(LocalDateTime.now());
+        customer.setCreatedBy("test-run");
+        Customer savedCustomer = customerRepository.save(customer);
+
+        Accounts accounts = new Accounts();
+        accounts.setCustomerId(savedCustomer.getCustomerId());
+        accounts.setAccountNumber(1111111112L);
+        accounts.setAccountType("Savings");
+        accounts.setBranchAddress("Bangalore");
+        accountsRepository.save(accounts);
+
+        CustomerAccountVersion before = customerRepository.findCustomerAccountVersionByMobileNumber("1111111112").orElseThrow();
+        assertThat(customerRepository.findCustomerAccountVersionByMobileNumber("1111111112")).contains(before);
+
+        //when
+        Customer loaded = customerRepository.findById(savedCustomer.getCustomerId()).orElseThrow();
+        loaded.setEmail("changed@example.com");
+        customerRepository.save(loaded);
+
+        //then
+        CustomerAccountVersion after = customerRepository.findCustomerAccountVersionByMobileNumber("1111111112").orElseThrow();
+        assertThat(after.accountNumber()).isEqualTo(1111111112L);
+        assertThat(after.eTag()).isNotEqualTo(before.eTag());
+        assertThat(after.lastModified()).isAfter(before.lastModified());
+    }
 }
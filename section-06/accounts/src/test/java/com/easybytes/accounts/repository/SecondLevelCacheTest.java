@@ -0,0 +1,109 @@
+package com.easybytes.accounts.repository;
+
+import com.easybytes.accounts.entity.Accounts;
+import com.easybytes.accounts.entity.Customer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class SecondLevelCacheTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findByMobileNumber_shouldBeServedFromCache() {
+        Customer saved = customerRepository.save(newCustomer("6000000001"));
+        statistics.clear();
+
+        Optional<Customer> first = customerRepository.findByMobileNumber("6000000001");
+        Optional<Customer> second = customerRepository.findByMobileNumber("6000000001");
+
+        assertThat(first).get().extracting(Customer::getCustomerId).isEqualTo(saved.getCustomerId());
+        assertThat(second).get().extracting(Customer::getEmail).isEqualTo("cached@example.com");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(2);
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests").tag("region", "customer").meters())
+                .isNotEmpty();
+    }
+
+    @Test
+    void findById_shouldServeAccountsFromCache() {
+        Customer customer = customerRepository.save(newCustomer("6000000002"));
+        Accounts accounts = new Accounts();
+        accounts.setCustomerId(customer.getCustomerId());
+        accounts.setAccountNumber(1600000002L);
+        accounts.setAccountType("Savings");
+        accounts.setBranchAddress("Bangalore");
+        accountsRepository.save(accounts);
+        statistics.clear();
+
+        Optional<Accounts> found = accountsRepository.findById(1600000002L);
+
+        assertThat(found).get().extracting(Accounts::getBranchAddress).isEqualTo("Bangalore");
+        assertThat(found.get().isNew()).isFalse();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void findByMobileNumber_shouldFollowMobileNumberChange() {
+        Customer saved = customerRepository.save(newCustomer("6000000003"));
+        customerRepository.findByMobileNumber("6000000003");
+
+        Customer loaded = customerRepository.findById(saved.getCustomerId()).orElseThrow();
+        loaded.setMobileNumber("6000000004");
+        customerRepository.save(loaded);
+
+        assertThat(customerRepository.findByMobileNumber("6000000003")).isEmpty();
+        assertThat(customerRepository.findByMobileNumber("6000000004")).get()
+                .extracting(Customer::getCustomerId).isEqualTo(saved.getCustomerId());
+    }
+
+    @Test
+    void findByMobileNumber_shouldReturnEmpty_afterDelete() {
+        Customer saved = customerRepository.save(newCustomer("6000000005"));
+        customerRepository.findByMobileNumber("6000000005");
+
+        customerRepository.deleteById(saved.getCustomerId());
+
+        assertThat(customerRepository.findByMobileNumber("6000000005")).isEmpty();
+        assertThat(customerRepository.findById(saved.getCustomerId())).isEmpty();
+    }
+
+    private static Customer newCustomer(String mobileNumber) {
+        Customer customer = new Customer();
+        customer.setName("Cached User");
+        customer.setEmail("cached@example.com");
+        customer.setMobileNumber(mobileNumber);
+        customer.setCreatedAt(LocalDateTime.now());
+        customer.setCreatedBy("test-run");
+        return customer;
+    }
+}
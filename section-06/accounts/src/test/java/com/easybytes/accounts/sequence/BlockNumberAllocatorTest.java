@@ -0,0 +1,96 @@
+package com.easybytes.accounts.sequence;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BlockNumberAllocatorTest {
+
+    private static final long BASE = 1_900_000_000L;
+
+    private final ExecutorService refillExecutor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        refillExecutor.shutdownNow();
+    }
+
+    @Test
+    void next_shouldReturnConsecutiveNumbersFromReservedBlocks() {
+        AtomicLong sequence = new AtomicLong();
+        BlockNumberAllocator allocator = new BlockNumberAllocator(sequence::getAndIncrement, refillExecutor,
+                BASE, 10, Long.MAX_VALUE);
+
+        for (int i = 0; i < 25; i++) {
+            assertEquals(BASE + i, allocator.next());
+        }
+    }
+
+    @Test
+    void next_shouldFailOnceTheRangeIsExhausted() {
+        AtomicLong sequence = new AtomicLong();
+        BlockNumberAllocator allocator = new BlockNumberAllocator(sequence::getAndIncrement, refillExecutor,
+                BASE, 10, BASE + 19);
+
+        for (int i = 0; i < 20; i++) {
+            allocator.next();
+        }
+        assertThrows(IllegalStateException.class, allocator::next);
+    }
+
+    @Test
+    void next_shouldNeverHandOutDuplicates_underHeavyConcurrencyAcrossNodes() throws Exception {
+        int threads = 16;
+        int perThread = 250_000;
+        AtomicLong sharedSequence = new AtomicLong();
+        // two allocators sharing one block source behave like two nodes sharing one database sequence
+        BlockNumberAllocator nodeA = new BlockNumberAllocator(sharedSequence::getAndIncrement, refillExecutor,
+                BASE, 1_000, Long.MAX_VALUE);
+        BlockNumberAllocator nodeB = new BlockNumberAllocator(sharedSequence::getAndIncrement, refillExecutor,
+                BASE, 1_000, Long.MAX_VALUE);
+
+        ExecutorService workers = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            BlockNumberAllocator allocator = t % 2 == 0 ? nodeA : nodeB;
+            futures.add(workers.submit(() -> {
+                long[] numbers = new long[perThread];
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    numbers[i] = allocator.next();
+                }
+                return numbers;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        long[] all = new long[threads * perThread];
+        int position = 0;
+        for (Future<long[]> future : futures) {
+            long[] numbers = future.get();
+            System.arraycopy(numbers, 0, all, position, numbers.length);
+            position += numbers.length;
+        }
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        workers.shutdown();
+
+        Arrays.sort(all);
+        for (int i = 1; i < all.length; i++) {
+            assertNotEquals(all[i - 1], all[i], "duplicate number " + all[i]);
+        }
+        assertTrue(all[0] >= BASE);
+        System.out.printf("Allocated %,d unique numbers on %d threads in %d ms%n", all.length, threads, elapsedMillis);
+    }
+}
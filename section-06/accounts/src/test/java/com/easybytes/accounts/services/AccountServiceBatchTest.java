@@ -0,0 +1,123 @@
+package com.easybytes.accounts.services;
+
+import com.easybytes.accounts.bloom.MobileNumberFilter;
+import com.easybytes.accounts.constants.AccountsConstants;
+import com.easybytes.accounts.dtos.CustomerBatchResultDto;
+import com.easybytes.accounts.dtos.CustomerDto;
+import com.easybytes.accounts.entity.Customer;
+import com.easybytes.accounts.repository.AccountsRepository;
+import com.easybytes.accounts.repository.CustomerRepository;
+import com.easybytes.accounts.repository.OutboxEventRepository;
+import com.easybytes.accounts.sequence.BlockNumberAllocator;
+import com.easybytes.accounts.services.impl.AccountServiceImpl;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+public class AccountServiceBatchTest {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private BlockNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private MobileNumberFilter mobileNumberFilter;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void createAccounts_shouldPersistEveryNewCustomerWithAnAccount() {
+        List<CustomerDto> customerDtos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            CustomerDto customerDto = new CustomerDto();
+            customerDto.setName("Batch Customer " + i);
+            customerDto.setEmail("batch" + i + "@example.com");
+            customerDto.setMobileNumber(String.valueOf(5000000000L + i));
+            customerDtos.add(customerDto);
+        }
+        customerDtos.add(customerDtos.get(0));
+
+        List<CustomerBatchResultDto> results = accountService.createAccounts(customerDtos);
+
+        assertEquals(121, results.size());
+        assertEquals(120, results.stream().filter(r -> AccountsConstants.STATUS_201.equals(r.getStatusCode())).count());
+        assertEquals(AccountsConstants.STATUS_400, results.get(120).getStatusCode());
+
+        Customer customer = customerRepository.findByMobileNumber("5000000119").orElseThrow();
+        assertTrue(accountsRepository.findByCustomerId(customer.getCustomerId()).isPresent());
+    }
+
+    @Test
+    void createAccounts_shouldOnlyFailTheDuplicate_whenItIsRegisteredAfterTheExistenceCheck() {
+        accountService.createAccount(customerDto("5100000001"));
+        // a repository that misses the customer in the existence check, as if it had been registered just after it
+        CustomerRepository lateCustomerRepository = mock(CustomerRepository.class, AdditionalAnswers.delegatesTo(customerRepository));
+        doReturn(List.of()).when(lateCustomerRepository).findExistingMobileNumbers(anyCollection());
+        IAccountService racingAccountService = new AccountServiceImpl(accountsRepository, lateCustomerRepository,
+                accountNumberAllocator, outboxEventRepository, mobileNumberFilter, entityManager, transactionTemplate);
+
+        List<CustomerBatchResultDto> results = racingAccountService.createAccounts(
+                List.of(customerDto("5100000002"), customerDto("5100000001"), customerDto("5100000003")));
+
+        assertEquals(List.of(AccountsConstants.STATUS_201, AccountsConstants.STATUS_400, AccountsConstants.STATUS_201),
+                results.stream().map(CustomerBatchResultDto::getStatusCode).toList());
+        assertTrue(customerRepository.findByMobileNumber("5100000002").isPresent());
+        assertTrue(customerRepository.findByMobileNumber("5100000003").isPresent());
+    }
+
+    @Test
+    void createAccounts_shouldCheckForDuplicatesInChunks() {
+        CustomerRepository countingCustomerRepository = mock(CustomerRepository.class, AdditionalAnswers.delegatesTo(customerRepository));
+        IAccountService chunkingAccountService = new AccountServiceImpl(accountsRepository, countingCustomerRepository,
+                accountNumberAllocator, outboxEventRepository, mobileNumberFilter, entityManager, transactionTemplate);
+        List<CustomerDto> customerDtos = new ArrayList<>();
+        for (int i = 0; i < AccountsConstants.FETCH_CHUNK_SIZE + 1; i++) {
+            customerDtos.add(customerDto(String.valueOf(5200000000L + i)));
+        }
+
+        List<CustomerBatchResultDto> results = chunkingAccountService.createAccounts(customerDtos);
+
+        assertTrue(results.stream().allMatch(r -> AccountsConstants.STATUS_201.equals(r.getStatusCode())));
+        verify(countingCustomerRepository, times(2)).findExistingMobileNumbers(
+                argThat(mobileNumbers -> mobileNumbers.size() <= AccountsConstants.FETCH_CHUNK_SIZE));
+    }
+
+    private static CustomerDto customerDto(String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Batch Customer " + mobileNumber);
+        customerDto.setEmail("batch" + mobileNumber + "@example.com");
+        customerDto.setMobileNumber(mobileNumber);
+        return customerDto;
+    }
+}
@@ -0,0 +1,110 @@
+package com.easybytes.accounts.services;
+
+import com.easybytes.accounts.constants.AccountsConstants;
+import com.easybytes.accounts.dtos.CustomerAccountResponseDto;
+import com.easybytes.accounts.dtos.CustomerAccountVersion;
+import com.easybytes.accounts.entity.AccountWithCustomer;
+import com.easybytes.accounts.entity.Accounts;
+import com.easybytes.accounts.entity.Customer;
+import com.easybytes.accounts.repository.AccountsRepository;
+import com.easybytes.accounts.repository.CustomerRepository;
+import com.easybytes.accounts.utils.TestDataUtil;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// the repositories are mocks, so the mobile number filter would only ever see an empty customer table
+@SpringBootTest(properties = "accounts.mobile-filter.enabled=false")
+public class AccountServiceCacheTest {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private CustomerRepository customerRepository;
+
+    @MockitoBean
+    private AccountsRepository accountsRepository;
+
+    // the mocked repositories hand out entities that are not managed, which could not be locked
+    @MockitoBean
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(AccountsConstants.CUSTOMER_ACCOUNTS_CACHE).clear();
+
+        Customer customer = TestDataUtil.getCustomer();
+        Accounts accounts = TestDataUtil.getAccounts();
+        when(customerRepository.findByMobileNumber(anyString())).thenReturn(Optional.of(customer));
+        when(customerRepository.findCustomerAccountByMobileNumber(anyString()))
+                .thenReturn(Optional.of(TestDataUtil.getCustomerAccountView()));
+        when(customerRepository.findById(anyLong())).thenReturn(Optional.of(customer));
+        when(customerRepository.save(any(Customer.class))).thenReturn(customer);
+        when(accountsRepository.findById(anyLong())).thenReturn(Optional.of(accounts));
+        when(accountsRepository.save(any(Accounts.class))).thenReturn(accounts);
+        when(accountsRepository.findWithCustomerByAccountNumber(anyLong()))
+                .thenReturn(Optional.of(new AccountWithCustomer(accounts, customer)));
+    }
+
+    @Test
+    void fetchAccount_shouldServeRepeatedReadsFromCache() {
+        CustomerAccountResponseDto first = accountService.fetchAccount("1234567890");
+        CustomerAccountResponseDto second = accountService.fetchAccount("1234567890");
+
+        assertEquals(first, second);
+        verify(customerRepository, times(1)).findCustomerAccountByMobileNumber("1234567890");
+    }
+
+    @Test
+    void deleteAccount_shouldEvictCachedEntry() {
+        accountService.fetchAccount("1234567890");
+
+        accountService.deleteAccount("1234567890");
+        accountService.fetchAccount("1234567890");
+
+        verify(customerRepository, times(2)).findCustomerAccountByMobileNumber("1234567890");
+    }
+
+    @Test
+    void updateAccount_shouldEvictCachedEntries() {
+        accountService.fetchAccount("1234567890");
+
+        accountService.updateAccount(TestDataUtil.getCustomerAccountResponseDto());
+        accountService.fetchAccount("1234567890");
+
+        verify(customerRepository, times(2)).findCustomerAccountByMobileNumber("1234567890");
+    }
+
+    @Test
+    void fetchAccountAtVersion_shouldNotServeABodyCachedBeforeTheVersion() {
+        // what a read that raced with an update leaves behind once the update evicted the cache
+        CustomerAccountResponseDto stale = TestDataUtil.getCustomerAccountResponseDto();
+        stale.getCustomerDto().setName("Stale");
+        cacheManager.getCache(AccountsConstants.CUSTOMER_ACCOUNTS_CACHE).put("1234567890", stale);
+
+        CustomerAccountVersion version = TestDataUtil.getCustomerAccountVersion();
+        CustomerAccountResponseDto first = accountService.fetchAccount("1234567890", version);
+        CustomerAccountResponseDto second = accountService.fetchAccount("1234567890", version);
+
+        assertNotEquals("Stale", first.getCustomerDto().getName());
+        assertEquals(first, second);
+        verify(customerRepository, times(1)).findCustomerAccountByMobileNumber("1234567890");
+    }
+}
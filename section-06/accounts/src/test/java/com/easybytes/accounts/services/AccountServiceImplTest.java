@@ -1,24 +1,48 @@
 package com.easybytes.accounts.services;
 
+import com.easybytes.accounts.bloom.MobileNumberFilter;
+import com.easybytes.accounts.constants.AccountsConstants;
+import com.easybytes.accounts.dtos.AccountsDto;
+import com.easybytes.accounts.dtos.BatchFetchResponseDto;
 import com.easybytes.accounts.dtos.CustomerAccountResponseDto;
+import com.easybytes.accounts.dtos.CustomerAccountView;
+import com.easybytes.accounts.dtos.CustomerBatchResultDto;
+import com.easybytes.accounts.dtos.CustomerDto;
+import com.easybytes.accounts.entity.AccountWithCustomer;
 import com.easybytes.accounts.entity.Accounts;
 import com.easybytes.accounts.entity.Customer;
 import com.easybytes.accounts.exceptions.CustomerAlreadyExistsException;
 import com.easybytes.accounts.exceptions.ResourceNotFoundException;
 import com.easybytes.accounts.repository.AccountsRepository;
 import com.easybytes.accounts.repository.CustomerRepository;
+import com.easybytes.accounts.repository.OutboxEventRepository;
+import com.easybytes.accounts.sequence.BlockNumberAllocator;
 import com.easybytes.accounts.services.impl.AccountServiceImpl;
 import com.easybytes.accounts.utils.TestDataUtil;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -31,17 +55,37 @@ public class AccountServiceImplTest {
     @Mock
     AccountsRepository accountsRepository;
 
+    @Mock
+    BlockNumberAllocator accountNumberAllocator;
+
+    @Mock
+    OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    MobileNumberFilter mobileNumberFilter;
+
+    @Mock
+    EntityManager entityManager;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
     @InjectMocks
     AccountServiceImpl accountService;
 
+    @BeforeEach
+    void everyMobileNumberMightExist() {
+        lenient().when(mobileNumberFilter.mightExist(anyString())).thenReturn(true);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
     @Test
     public void createAccount_whenCustomerDoesNotExist_shouldCreateAccount() {
         Customer customer = new Customer();
 
         //Given
-        when(customerRepository.findByMobileNumber(any(String.class)))
-                .thenReturn(Optional.empty());
-        when(customerRepository.save(any(Customer.class)))
+        when(customerRepository.saveAndFlush(any(Customer.class)))
                 .thenReturn(customer);
 
         //below is not required as it is not returnig anything
@@ -52,19 +96,18 @@ public class AccountServiceImplTest {
         accountService.createAccount(TestDataUtil.getCustomerDto());
 
         //then
-        verify(customerRepository, times(1)).findByMobileNumber(anyString());
-        verify(customerRepository, times(1)).save(any(Customer.class));
+        verify(customerRepository, never()).findByMobileNumber(anyString());
+        verify(customerRepository, times(1)).saveAndFlush(any(Customer.class));
         verify(accountsRepository, times(1)).save(any(Accounts.class));
 
     }
 
     @Test
     public void createAccount_shouldThrowException_whenCustomerAlreadyExists() {
-        Customer existingCustomer  = new Customer();
-
         //Given
-        when(customerRepository.findByMobileNumber(any(String.class)))
-                .thenReturn(Optional.of(existingCustomer ));
+        when(customerRepository.saveAndFlush(any(Customer.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("Unique index or primary key violation: \"PUBLIC.UK_CUSTOMER_MOBILE_NUMBER_INDEX_5\"")));
 
         //when + given
         assertThrows(CustomerAlreadyExistsException.class, () -> {
@@ -72,21 +115,92 @@ public class AccountServiceImplTest {
         });
 
         //then
-        verify(customerRepository, times(1)).findByMobileNumber(anyString());
-        verify(customerRepository, never()).save(any(Customer.class));
+        verify(customerRepository, never()).findByMobileNumber(anyString());
         verify(accountsRepository, never()).save(any(Accounts.class));
     }
 
     @Test
-    void fetchAccount_shouldReturnCustomerAccountResponse_whenCustomerAndAccountExist() {
-        Customer customer = TestDataUtil.getCustomer();
-        Accounts accounts = TestDataUtil.getAccounts();
+    public void createAccount_shouldRethrow_whenAnotherConstraintIsViolated() {
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("NULL not allowed for column \"NAME\""));
+
+        //Given
+        when(customerRepository.saveAndFlush(any(Customer.class))).thenThrow(violation);
+
+        //when + given
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class, () -> {
+                accountService.createAccount(TestDataUtil.getCustomerDto());
+        });
+
+        //then
+        assertSame(violation, exception);
+        verify(accountsRepository, never()).save(any(Accounts.class));
+    }
+
+    @Test
+    void createAccounts_shouldReportDuplicatesAndCreateTheRest() {
+        CustomerDto newCustomer = TestDataUtil.getCustomerDto();
+        CustomerDto existingCustomer = TestDataUtil.getCustomerDto();
+        existingCustomer.setMobileNumber("1111111111");
+        CustomerDto repeatedInBatch = TestDataUtil.getCustomerDto();
 
         //given
-        when(customerRepository.findByMobileNumber(anyString()))
-                .thenReturn(Optional.of(customer));
-        when(accountsRepository.findByCustomerId(anyLong()))
-                .thenReturn(Optional.of(accounts));
+        when(customerRepository.findExistingMobileNumbers(anyCollection()))
+                .thenReturn(List.of("1111111111"));
+        when(customerRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        //when
+        List<CustomerBatchResultDto> results =
+                accountService.createAccounts(List.of(newCustomer, existingCustomer, repeatedInBatch));
+
+        //then
+        assertEquals(3, results.size());
+        assertEquals(AccountsConstants.STATUS_201, results.get(0).getStatusCode());
+        assertEquals(AccountsConstants.STATUS_400, results.get(1).getStatusCode());
+        assertEquals("1111111111", results.get(1).getMobileNumber());
+        assertEquals(AccountsConstants.STATUS_400, results.get(2).getStatusCode());
+
+        verify(customerRepository, times(1)).findExistingMobileNumbers(anyCollection());
+        verify(customerRepository, times(1)).saveAll(argThat(customers -> ((List<?>) customers).size() == 1));
+        verify(accountsRepository, times(1)).saveAll(argThat(accounts -> ((List<?>) accounts).size() == 1));
+        verify(customerRepository, never()).findByMobileNumber(anyString());
+    }
+
+    @Test
+    void createAccounts_shouldRetryOneByOne_whenACustomerIsRegisteredConcurrently() {
+        CustomerDto newCustomer = TestDataUtil.getCustomerDto();
+        CustomerDto concurrentCustomer = TestDataUtil.getCustomerDto();
+        concurrentCustomer.setMobileNumber("1111111111");
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Unique index or primary key violation: \"PUBLIC.UK_CUSTOMER_MOBILE_NUMBER_INDEX_5\""));
+
+        //given
+        when(customerRepository.findExistingMobileNumbers(anyCollection())).thenReturn(List.of());
+        when(customerRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(violation).when(customerRepository).flush();
+        when(customerRepository.saveAndFlush(argThat(customer -> customer != null
+                && "1111111111".equals(customer.getMobileNumber())))).thenThrow(violation);
+        when(customerRepository.saveAndFlush(argThat(customer -> customer != null
+                && "1234567890".equals(customer.getMobileNumber())))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        //when
+        List<CustomerBatchResultDto> results =
+                accountService.createAccounts(List.of(newCustomer, concurrentCustomer));
+
+        //then
+        assertEquals(AccountsConstants.STATUS_201, results.get(0).getStatusCode());
+        assertEquals(AccountsConstants.STATUS_400, results.get(1).getStatusCode());
+        assertEquals(AccountsConstants.MESSAGE_400_CUSTOMER_EXISTS, results.get(1).getStatusMsg());
+        verify(transactionTemplate, times(3)).execute(any());
+        verify(accountsRepository, times(1)).save(any(Accounts.class));
+    }
+
+    @Test
+    void fetchAccount_shouldReturnCustomerAccountResponse_whenCustomerAndAccountExist() {
+        //given
+        when(customerRepository.findCustomerAccountByMobileNumber(anyString()))
+                .thenReturn(Optional.of(TestDataUtil.getCustomerAccountView()));
 
         //when
         CustomerAccountResponseDto responseDto = accountService.fetchAccount("1234567890");
@@ -104,18 +218,17 @@ public class AccountServiceImplTest {
         assertEquals(12345L, responseDto.getAccountsDto().getAccountNumber());
         assertEquals("Bangalore, India", responseDto.getAccountsDto().getBranchAddress());
 
-        //verification
-        verify(customerRepository, times(1)).findByMobileNumber(anyString());
-        verify(accountsRepository, times(1)).findByCustomerId(anyLong());
-
-
+        //verification: a single joined query, no per-entity lookups
+        verify(customerRepository, times(1)).findCustomerAccountByMobileNumber(anyString());
+        verifyNoMoreInteractions(customerRepository);
+        verifyNoInteractions(accountsRepository);
     }
 
     @Test
     void fetchAccount_shouldThrowResourceNotFoundException_whenCustomerNotFound() {
         //given
         String mobileNumber = "1234567890";
-        when(customerRepository.findByMobileNumber(anyString()))
+        when(customerRepository.findCustomerAccountByMobileNumber(anyString()))
                 .thenReturn(Optional.empty());
 
         //when + given
@@ -125,21 +238,29 @@ public class AccountServiceImplTest {
 
         //Then
         assertEquals("Customer not found with the given input data mobileNumber : '1234567890'", exception.getMessage());
-        verify(customerRepository, times(1)).findByMobileNumber(mobileNumber);
+        verify(customerRepository, times(1)).findCustomerAccountByMobileNumber(mobileNumber);
         verifyNoMoreInteractions(customerRepository);
         verifyNoInteractions(accountsRepository); // since customer is not found
     }
 
+    @Test
+    void fetchAccount_shouldNotQuery_whenMobileNumberFilterRulesTheNumberOut() {
+        //given
+        when(mobileNumberFilter.mightExist("1234567890")).thenReturn(false);
+
+        //when + then
+        assertThrows(ResourceNotFoundException.class, () -> accountService.fetchAccount("1234567890"));
+        verifyNoInteractions(customerRepository, accountsRepository);
+        verify(mobileNumberFilter, never()).recordFalsePositive();
+    }
+
     @Test
     void fetchAccount_shouldThrowResourceNotFoundException_whenAccountNotFoundForCustomer() {
-        Customer customer = TestDataUtil.getCustomer();
         String mobileNumber = "1234567890";
 
         //given
-        when(customerRepository.findByMobileNumber(anyString()))
-                .thenReturn(Optional.of(customer));
-        when(accountsRepository.findByCustomerId(anyLong()))
-                .thenReturn(Optional.empty());
+        when(customerRepository.findCustomerAccountByMobileNumber(anyString()))
+                .thenReturn(Optional.of(TestDataUtil.getCustomerAccountViewWithoutAccount()));
 
         //when + given
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -149,45 +270,102 @@ public class AccountServiceImplTest {
         //Then
         assertAll(
                 () -> assertEquals("Account not found with the given input data customerId : '1'", exception.getMessage()),
-                () -> verify(customerRepository, times(1)).findByMobileNumber(mobileNumber),
-                () -> verify(accountsRepository, times(1)).findByCustomerId(customer.getCustomerId())
+                () -> verify(customerRepository, times(1)).findCustomerAccountByMobileNumber(mobileNumber)
         );
 
         verifyNoMoreInteractions(customerRepository);
-        verifyNoMoreInteractions(accountsRepository);
+        verifyNoInteractions(accountsRepository);
+
+    }
+
+    @Test
+    void fetchAccounts_shouldReturnFoundAccountsAndReportMissingMobileNumbers() {
+        //given
+        when(customerRepository.findCustomerAccountsByMobileNumbers(anyList()))
+                .thenReturn(List.of(TestDataUtil.getCustomerAccountView()));
+
+        //when
+        BatchFetchResponseDto<CustomerAccountResponseDto> response =
+                accountService.fetchAccounts(List.of("1234567890", "0987654321", "1234567890"));
+
+        //then
+        assertAll(
+                () -> assertEquals(1, response.getResults().size()),
+                () -> assertEquals(12345L, response.getResults().get("1234567890").getAccountsDto().getAccountNumber()),
+                () -> assertEquals(List.of("0987654321"), response.getMissing())
+        );
+        verify(customerRepository, times(1)).findCustomerAccountsByMobileNumbers(List.of("1234567890", "0987654321"));
+        verifyNoInteractions(accountsRepository);
+    }
+
+    @Test
+    void fetchAccounts_shouldQueryInChunks() {
+        List<String> mobileNumbers = IntStream.range(0, AccountsConstants.FETCH_CHUNK_SIZE * 2 + 1)
+                .mapToObj(i -> String.format("%010d", i))
+                .toList();
 
+        //given
+        when(customerRepository.findCustomerAccountsByMobileNumbers(anyList())).thenReturn(List.of());
+
+        //when
+        BatchFetchResponseDto<CustomerAccountResponseDto> response = accountService.fetchAccounts(mobileNumbers);
+
+        //then
+        assertEquals(mobileNumbers, response.getMissing());
+        verify(customerRepository, times(3)).findCustomerAccountsByMobileNumbers(anyList());
+    }
+
+    @Test
+    void exportAccounts_shouldSeekPastTheLastCustomerOfEachFullPage() {
+        List<CustomerAccountView> firstPage = IntStream.rangeClosed(1, AccountsConstants.EXPORT_PAGE_SIZE)
+                .mapToObj(i -> new CustomerAccountView((long) i, "ABC", "xyz@example.com", String.format("%010d", i),
+                        12345L + i, "SAVINGS", "Bangalore, India"))
+                .toList();
+        List<CustomerAccountView> lastPage = List.of(TestDataUtil.getCustomerAccountViewWithoutAccount());
+
+        //given
+        when(customerRepository.findCustomerAccountsAfter(eq(0L), any(Limit.class))).thenReturn(firstPage);
+        when(customerRepository.findCustomerAccountsAfter(eq((long) AccountsConstants.EXPORT_PAGE_SIZE), any(Limit.class)))
+                .thenReturn(lastPage);
+
+        //when
+        List<CustomerAccountResponseDto> exported = new ArrayList<>();
+        accountService.exportAccounts(exported::add);
+
+        //then
+        assertAll(
+                () -> assertEquals(AccountsConstants.EXPORT_PAGE_SIZE + 1, exported.size()),
+                () -> assertEquals("0000000001", exported.get(0).getCustomerDto().getMobileNumber()),
+                () -> assertNull(exported.get(AccountsConstants.EXPORT_PAGE_SIZE).getAccountsDto().getAccountNumber())
+        );
+        verify(customerRepository, times(2)).findCustomerAccountsAfter(anyLong(), any(Limit.class));
+        verifyNoInteractions(accountsRepository);
     }
 
     @Test
     public void updateAccount_shouldUpdateCustomerAndAccount_whenValidDataProvided() {
         CustomerAccountResponseDto responseDto = TestDataUtil.getCustomerAccountResponseDto();
+        responseDto.getAccountsDto().setBranchAddress("Mumbai, India");
+        responseDto.getCustomerDto().setName("Updated Name");
         Accounts accounts = TestDataUtil.getAccounts();
         Customer customer = TestDataUtil.getCustomer();
 
         //given
-        when(accountsRepository.findById(anyLong()))
-                .thenReturn(Optional.of(accounts));
-
-        when(accountsRepository.save(any(Accounts.class)))
-                .thenReturn(accounts);
-
-        when(customerRepository.findById(anyLong()))
-                .thenReturn(Optional.of(customer));
-
-        when(customerRepository.save(any(Customer.class)))
-                .thenReturn(customer);
+        when(accountsRepository.findWithCustomerByAccountNumber(anyLong()))
+                .thenReturn(Optional.of(new AccountWithCustomer(accounts, customer)));
 
         //when
         boolean isUpdated = accountService.updateAccount(responseDto);
 
         //then
         assertTrue(isUpdated);
+        assertEquals("Mumbai, India", accounts.getBranchAddress());
+        assertEquals("Updated Name", customer.getName());
 
-        //verifacation
-        verify(accountsRepository, times(1)).findById(anyLong());
-        verify(accountsRepository, times(1)).save(any(Accounts.class));
-        verify(customerRepository, times(1)).findById(anyLong());
-        verify(customerRepository, times(1)).save(any(Customer.class));
+        //verifacation: one read, and the managed entities are flushed by dirty checking rather than saved
+        verify(accountsRepository, times(1)).findWithCustomerByAccountNumber(12345L);
+        verifyNoMoreInteractions(accountsRepository);
+        verifyNoInteractions(customerRepository);
 
     }
 
@@ -196,19 +374,17 @@ public class AccountServiceImplTest {
         CustomerAccountResponseDto responseDto = TestDataUtil.getCustomerAccountResponseDto();
 
         //given
-        when(accountsRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(accountsRepository.findWithCustomerByAccountNumber(anyLong())).thenReturn(Optional.empty());
 
         //when + then
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
             accountService.updateAccount(responseDto);
         });
 
-        String accountNumber = responseDto.getAccountsDto().getAccountNumber().toString();
-        String expectedMessage = "Account not found with the given input data AccountNumber : '" + accountNumber + "'";
         //Then
         assertAll(
                 () -> assertEquals("Account not found with the given input data AccountNumber : '12345'", exception.getMessage()),
-                () -> verify(accountsRepository, times(1)).findById(responseDto.getAccountsDto().getAccountNumber())
+                () -> verify(accountsRepository, times(1)).findWithCustomerByAccountNumber(responseDto.getAccountsDto().getAccountNumber())
         );
         verifyNoMoreInteractions(accountsRepository);
         verifyNoInteractions(customerRepository);
@@ -221,10 +397,8 @@ public class AccountServiceImplTest {
         Accounts accounts = TestDataUtil.getAccounts();
 
         //given
-        when(accountsRepository.findById(anyLong())).thenReturn(Optional.of(accounts));
-        when(accountsRepository.save(any(Accounts.class))).thenReturn(accounts);
-
-        when(customerRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(accountsRepository.findWithCustomerByAccountNumber(anyLong()))
+                .thenReturn(Optional.of(new AccountWithCustomer(accounts, null)));
 
         //when + then
         ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class, () -> {
@@ -234,15 +408,44 @@ public class AccountServiceImplTest {
         Long customerId = accounts.getCustomerId();
         String expectedMessage = "Customer not found with the given input data CustomerID : '" + customerId + "'";
         //Then
-        assertAll(
-                () -> assertEquals(expectedMessage, exception.getMessage()),
-                () -> verify(accountsRepository, times(1)).findById(responseDto.getAccountsDto().getAccountNumber()),
-                () -> verify(accountsRepository, times(1)).save(accounts),
-                () -> verify(customerRepository, times(1)).findById(accounts.getCustomerId())
-        );
-        verifyNoMoreInteractions(accountsRepository);
-        verifyNoMoreInteractions(customerRepository);
+        assertEquals(expectedMessage, exception.getMessage());
+        assertEquals("Bangalore, India", accounts.getBranchAddress());
+        verifyNoInteractions(customerRepository);
+
+    }
+
+    @Test
+    public void patchAccount_shouldOnlyApplyFieldsPresentInRequest() {
+        AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(12345L);
+        accountsDto.setBranchAddress("Mumbai, India");
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setEmail("new@example.com");
+        Accounts accounts = TestDataUtil.getAccounts();
+        Customer customer = TestDataUtil.getCustomer();
+
+        //given
+        when(accountsRepository.findWithCustomerByAccountNumber(12345L))
+                .thenReturn(Optional.of(new AccountWithCustomer(accounts, customer)));
+
+        //when
+        boolean isUpdated = accountService.patchAccount(new CustomerAccountResponseDto(customerDto, accountsDto));
+
+        //then
+        assertTrue(isUpdated);
+        assertEquals("Mumbai, India", accounts.getBranchAddress());
+        assertEquals("SAVINGS", accounts.getAccountType());
+        assertEquals("new@example.com", customer.getEmail());
+        assertEquals("ABC", customer.getName());
+        assertEquals("1234567890", customer.getMobileNumber());
+    }
+
+    @Test
+    public void patchAccount_shouldReturnFalse_whenAccountNumberMissing() {
+        CustomerAccountResponseDto responseDto = new CustomerAccountResponseDto(TestDataUtil.getCustomerDto(), new AccountsDto());
 
+        assertFalse(accountService.patchAccount(responseDto));
+        verifyNoInteractions(accountsRepository);
     }
 
     @Test
@@ -272,7 +475,7 @@ public class AccountServiceImplTest {
         assertTrue(result);
         verify(customerRepository).findByMobileNumber(mobileNumber);
         verify(accountsRepository).deleteByCustomerId(customer.getCustomerId());
-        verify(customerRepository).deleteById(customer.getCustomerId());
+        verify(customerRepository).delete(customer);
     }
 
     @Test
@@ -0,0 +1,140 @@
+package com.easybytes.accounts.services;
+
+import com.easybytes.accounts.dtos.AccountsDto;
+import com.easybytes.accounts.dtos.CustomerAccountResponseDto;
+import com.easybytes.accounts.dtos.CustomerDto;
+import com.easybytes.accounts.entity.AccountWithCustomer;
+import com.easybytes.accounts.entity.Accounts;
+import com.easybytes.accounts.entity.Customer;
+import com.easybytes.accounts.repository.AccountsRepository;
+import com.easybytes.accounts.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class AccountServiceUpdateTest {
+
+    @Autowired
+    private IAccountService accountService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AccountsRepository accountsRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void updateAccount_shouldWriteBothRowsAndBumpTheirVersions() {
+        Accounts accounts = createCustomerWithAccount("7100000001", 1710000001L);
+
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Renamed Customer");
+        customerDto.setEmail("renamed@example.com");
+        customerDto.setMobileNumber("7100000001");
+        AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(accounts.getAccountNumber());
+        accountsDto.setAccountType("Current");
+        accountsDto.setBranchAddress("Mumbai");
+
+        accountService.updateAccount(new CustomerAccountResponseDto(customerDto, accountsDto));
+
+        AccountWithCustomer updated = accountsRepository.findWithCustomerByAccountNumber(1710000001L).orElseThrow();
+        assertThat(updated.accounts().getAccountType()).isEqualTo("Current");
+        assertThat(updated.accounts().getVersion()).isEqualTo(1L);
+        assertThat(updated.customer().getName()).isEqualTo("Renamed Customer");
+        assertThat(updated.customer().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void patchAccount_shouldLeaveAbsentFieldsUntouched() {
+        createCustomerWithAccount("7100000002", 1710000002L);
+
+        AccountsDto accountsDto = new AccountsDto();
+        accountsDto.setAccountNumber(1710000002L);
+        accountsDto.setBranchAddress("Pune");
+
+        accountService.patchAccount(new CustomerAccountResponseDto(null, accountsDto));
+
+        AccountWithCustomer patched = accountsRepository.findWithCustomerByAccountNumber(1710000002L).orElseThrow();
+        assertThat(patched.accounts().getBranchAddress()).isEqualTo("Pune");
+        assertThat(patched.accounts().getAccountType()).isEqualTo("Savings");
+        assertThat(patched.customer().getName()).isEqualTo("Versioned Customer");
+        // bumped for the ACCOUNT_UPDATED event even though no customer column changed
+        assertThat(patched.customer().getVersion()).isEqualTo(1L);
+    }
+
+    @Test
+    void update_shouldFailWithConflict_whenRowChangedSinceItWasRead() {
+        createCustomerWithAccount("7100000003", 1710000003L);
+        TransactionTemplate staleWriter = new TransactionTemplate(transactionManager);
+        TransactionTemplate concurrentWriter = new TransactionTemplate(transactionManager);
+        concurrentWriter.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        assertThatThrownBy(() -> staleWriter.executeWithoutResult(status -> {
+            Accounts stale = accountsRepository.findWithCustomerByAccountNumber(1710000003L).orElseThrow().accounts();
+
+            concurrentWriter.executeWithoutResult(inner -> {
+                AccountsDto accountsDto = new AccountsDto();
+                accountsDto.setAccountNumber(1710000003L);
+                accountsDto.setBranchAddress("Chennai");
+                accountService.patchAccount(new CustomerAccountResponseDto(null, accountsDto));
+            });
+
+            stale.setBranchAddress("Kolkata");
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(accountsRepository.findById(1710000003L).orElseThrow().getBranchAddress()).isEqualTo("Chennai");
+    }
+
+    @Test
+    void events_shouldNotCommitConcurrently_forTheSameCustomer() {
+        createCustomerWithAccount("7100000004", 1710000004L);
+        TransactionTemplate outerWriter = new TransactionTemplate(transactionManager);
+        TransactionTemplate concurrentWriter = new TransactionTemplate(transactionManager);
+        concurrentWriter.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AccountsDto unchanged = new AccountsDto();
+        unchanged.setAccountNumber(1710000004L);
+        CustomerDto renamed = new CustomerDto();
+        renamed.setMobileNumber("7100000005");
+
+        // the outer patch changes no column, so only the forced customer version bump can make it conflict
+        assertThatThrownBy(() -> outerWriter.executeWithoutResult(status -> {
+            accountService.patchAccount(new CustomerAccountResponseDto(null, unchanged));
+            concurrentWriter.executeWithoutResult(inner ->
+                    accountService.patchAccount(new CustomerAccountResponseDto(renamed, unchanged)));
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(accountsRepository.findWithCustomerByAccountNumber(1710000004L).orElseThrow().customer()
+                .getMobileNumber()).isEqualTo("7100000005");
+    }
+
+    private Accounts createCustomerWithAccount(String mobileNumber, Long accountNumber) {
+        Customer customer = new Customer();
+        customer.setName("Versioned Customer");
+        customer.setEmail("versioned@example.com");
+        customer.setMobileNumber(mobileNumber);
+        customer.setCreatedAt(LocalDateTime.now());
+        customer.setCreatedBy("test-run");
+        Customer savedCustomer = customerRepository.save(customer);
+
+        Accounts accounts = new Accounts();
+        accounts.setCustomerId(savedCustomer.getCustomerId());
+        accounts.setAccountNumber(accountNumber);
+        accounts.setAccountType("Savings");
+        accounts.setBranchAddress("Bangalore");
+        return accountsRepository.save(accounts);
+    }
+}
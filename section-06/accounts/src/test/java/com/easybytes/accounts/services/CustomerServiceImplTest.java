@@ -0,0 +1,169 @@
+package com.easybytes.accounts.services;
+
+import com.easybytes.accounts.client.CardsClient;
+import com.easybytes.accounts.client.LoansClient;
+import com.easybytes.accounts.config.ServiceClientsConfig;
+import com.easybytes.accounts.dtos.CustomerDetailsDto;
+import com.easybytes.accounts.exceptions.ResourceNotFoundException;
+import com.easybytes.accounts.services.impl.CustomerServiceImpl;
+import com.easybytes.accounts.utils.TestDataUtil;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CustomerServiceImplTest {
+
+    private static final String CARD_JSON = """
+            {"mobileNumber":"1234567890","cardNumber":"100646930341","cardType":"Credit Card",
+             "totalLimit":100000,"amountUsed":1000,"availableAmount":99000}""";
+    private static final String LOAN_JSON = """
+            {"mobileNumber":"1234567890","loanNumber":"548732457654","loanType":"Home Loan",
+             "totalLoan":100000,"amountPaid":1000,"outstandingAmount":99000}""";
+
+    private final IAccountService accountService = mock(IAccountService.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private HttpServer cards;
+    private HttpServer loans;
+
+    @BeforeEach
+    void setUp() {
+        when(accountService.fetchAccount("1234567890")).thenReturn(TestDataUtil.getCustomerAccountResponseDto());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        if (cards != null) {
+            cards.stop(0);
+        }
+        if (loans != null) {
+            loans.stop(0);
+        }
+    }
+
+    @Test
+    void fetchCustomerDetails_shouldCombineAccountCardAndLoan() throws IOException {
+        cards = stub(200, CARD_JSON, 0);
+        loans = stub(200, LOAN_JSON, 0);
+
+        CustomerDetailsDto details = service(Duration.ofSeconds(2)).fetchCustomerDetails("1234567890");
+
+        assertEquals("1234567890", details.getMobileNumber());
+        assertNotNull(details.getAccountsDto());
+        assertEquals("100646930341", details.getCardsDto().getCardNumber());
+        assertEquals("548732457654", details.getLoansDto().getLoanNumber());
+        assertTrue(details.getUnavailableServices().isEmpty());
+    }
+
+    @Test
+    void fetchCustomerDetails_whenNoCardOrLoan_shouldNotReportServicesUnavailable() throws IOException {
+        cards = stub(404, "{}", 0);
+        loans = stub(404, "{}", 0);
+
+        CustomerDetailsDto details = service(Duration.ofSeconds(2)).fetchCustomerDetails("1234567890");
+
+        assertNull(details.getCardsDto());
+        assertNull(details.getLoansDto());
+        assertTrue(details.getUnavailableServices().isEmpty());
+    }
+
+    @Test
+    void fetchCustomerDetails_whenOneServiceIsSlow_shouldReturnPartialDetailsWithinTimeout() throws IOException {
+        cards = stub(200, CARD_JSON, 0);
+        loans = stub(200, LOAN_JSON, 3000);
+
+        long start = System.nanoTime();
+        CustomerDetailsDto details = service(Duration.ofMillis(500)).fetchCustomerDetails("1234567890");
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertNotNull(details.getCardsDto());
+        assertNull(details.getLoansDto());
+        assertEquals(List.of("loans"), details.getUnavailableServices());
+        assertTrue(elapsedMillis < 2000, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void fetchCustomerDetails_whenServiceFails_shouldReportItUnavailable() throws IOException {
+        cards = stub(500, "{}", 0);
+        loans = stub(200, LOAN_JSON, 0);
+
+        CustomerDetailsDto details = service(Duration.ofSeconds(2)).fetchCustomerDetails("1234567890");
+
+        assertNull(details.getCardsDto());
+        assertNotNull(details.getLoansDto());
+        assertEquals(List.of("cards"), details.getUnavailableServices());
+    }
+
+    @Test
+    void fetchCustomerDetails_shouldCallCardsAndLoansConcurrently() throws IOException {
+        cards = stub(200, CARD_JSON, 400);
+        loans = stub(200, LOAN_JSON, 400);
+
+        long start = System.nanoTime();
+        CustomerDetailsDto details = service(Duration.ofSeconds(2)).fetchCustomerDetails("1234567890");
+        long elapsedMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+
+        assertTrue(details.getUnavailableServices().isEmpty());
+        assertTrue(elapsedMillis < 750, "took " + elapsedMillis + " ms");
+    }
+
+    @Test
+    void fetchCustomerDetails_whenCustomerNotFound_shouldThrow() throws IOException {
+        cards = stub(404, "{}", 0);
+        loans = stub(404, "{}", 0);
+        when(accountService.fetchAccount("1234567890"))
+                .thenThrow(new ResourceNotFoundException("Customer", "mobileNumber", "1234567890"));
+
+        ICustomerService customerService = service(Duration.ofSeconds(2));
+
+        assertThrows(ResourceNotFoundException.class, () -> customerService.fetchCustomerDetails("1234567890"));
+    }
+
+    private ICustomerService service(Duration timeout) {
+        RestClient.Builder builder = RestClient.builder();
+        CardsClient cardsClient = new CardsClient(ServiceClientsConfig.restClient(builder, baseUrl(cards),
+                Duration.ofMillis(500), timeout));
+        LoansClient loansClient = new LoansClient(ServiceClientsConfig.restClient(builder, baseUrl(loans),
+                Duration.ofMillis(500), timeout));
+        return new CustomerServiceImpl(accountService, cardsClient, loansClient, executor, timeout);
+    }
+
+    private static String baseUrl(HttpServer server) {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    private static HttpServer stub(int status, String body, long delayMillis) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/fetch", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        return server;
+    }
+}
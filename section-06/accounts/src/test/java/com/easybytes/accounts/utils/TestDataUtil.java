@@ -2,10 +2,14 @@ package com.easybytes.accounts.utils;
 
 import com.easybytes.accounts.dtos.AccountsDto;
 import com.easybytes.accounts.dtos.CustomerAccountResponseDto;
+import com.easybytes.accounts.dtos.CustomerAccountVersion;
+import com.easybytes.accounts.dtos.CustomerAccountView;
 import com.easybytes.accounts.dtos.CustomerDto;
 import com.easybytes.accounts.entity.Accounts;
 import com.easybytes.accounts.entity.Customer;
 
+import java.time.LocalDateTime;
+
 public class TestDataUtil {
 
     public static Accounts getAccounts() {
@@ -47,6 +51,21 @@ public class TestDataUtil {
         return new CustomerAccountResponseDto(getCustomerDto(), getAccountsDto());
     }
 
+    public static CustomerAccountView getCustomerAccountView() {
+        return new CustomerAccountView(1L, "ABC", "xyz@example.com", "1234567890",
+                12345L, "SAVINGS", "Bangalore, India");
+    }
+
+    public static CustomerAccountView getCustomerAccountViewWithoutAccount() {
+        return new CustomerAccountView(1L, "ABC", "xyz@example.com", "1234567890",
+                null, null, null);
+    }
+
+    public static CustomerAccountVersion getCustomerAccountVersion() {
+        return new CustomerAccountVersion(1L, LocalDateTime.of(2024, 1, 1, 10, 0),
+                12345L, LocalDateTime.of(2024, 1, 2, 10, 0));
+    }
+
     public static CustomerDto getInvalidCustomerDto() {
         CustomerDto invalidCustomer = new CustomerDto();
         invalidCustomer.setName("Ab"); // too short
@@ -0,0 +1,87 @@
+package com.eazybytes.benchmarks;
+
+import com.eazybytes.loans.amortization.AmortizationEngine;
+import com.eazybytes.loans.amortization.AmortizationSchedule;
+import com.eazybytes.loans.amortization.Repayment;
+import com.eazybytes.loans.amortization.ScheduleCache;
+import com.eazybytes.loans.dto.AmortizationScheduleDto;
+import com.eazybytes.loans.mapper.AmortizationMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the loans amortization engine for a 30-year monthly loan: generating the whole schedule, posting a
+ * payment to it incrementally against regenerating it from scratch, and serving it from the schedule cache under
+ * concurrent requests.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AmortizationBenchmark {
+
+    private static final int PRINCIPAL = 100_000;
+    private static final int RATE_BPS = 850;
+    private static final int MONTHS = 360;
+    private static final int CACHED_LOANS = 5_000;
+
+    private int installment;
+    private AmortizationSchedule schedule;
+    private Repayment scheduledRepayment;
+    private ScheduleCache scheduleCache;
+    private LocalDate firstDueDate;
+
+    @Setup
+    public void setUp() {
+        installment = AmortizationEngine.installment(PRINCIPAL, RATE_BPS, MONTHS);
+        schedule = AmortizationEngine.schedule(PRINCIPAL, RATE_BPS, installment, 1);
+        scheduledRepayment = AmortizationEngine.repay(schedule, schedule.payment(0));
+        scheduleCache = new ScheduleCache(new SimpleMeterRegistry(), CACHED_LOANS);
+        for (long loanId = 0; loanId < CACHED_LOANS; loanId++) {
+            scheduleCache.put(loanId, 1L, schedule);
+        }
+        firstDueDate = LocalDate.of(2025, 1, 1);
+    }
+
+    @Benchmark
+    public AmortizationSchedule generate30YearSchedule() {
+        return AmortizationEngine.schedule(PRINCIPAL, RATE_BPS, installment, 1);
+    }
+
+    @Benchmark
+    public Repayment repayScheduledInstallment() {
+        return AmortizationEngine.repay(schedule, schedule.payment(0));
+    }
+
+    @Benchmark
+    public Repayment repayExtraPrincipal() {
+        return AmortizationEngine.repay(schedule, schedule.payment(0) + 5_000);
+    }
+
+    /**
+     * What {@link #repayScheduledInstallment} would cost without the cached schedule to start from.
+     */
+    @Benchmark
+    public AmortizationSchedule regenerateAfterScheduledInstallment() {
+        AmortizationSchedule full = AmortizationEngine.schedule(PRINCIPAL, RATE_BPS, installment, 1);
+        return AmortizationEngine.schedule(full.balance(0), RATE_BPS, installment, 2);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public AmortizationSchedule cachedScheduleLookup() {
+        return scheduleCache.get(ThreadLocalRandom.current().nextLong(CACHED_LOANS), 1L);
+    }
+
+    @Benchmark
+    public AmortizationScheduleDto scheduleToDto() {
+        return AmortizationMapper.mapToAmortizationScheduleDto("101000000001", firstDueDate,
+                scheduledRepayment.remaining());
+    }
+}
@@ -0,0 +1,207 @@
+package com.eazybytes.benchmarks;
+
+import com.easybytes.accounts.controllers.AccountsController;
+import com.easybytes.accounts.dtos.CustomerDto;
+import com.easybytes.accounts.dtos.ErrorResponseDto;
+import com.easybytes.accounts.exceptions.CustomerAlreadyExistsException;
+import com.easybytes.accounts.exceptions.GlobalExceptionHandler;
+import com.easybytes.accounts.exceptions.ResourceNotFoundException;
+import com.eazybytes.cards.exception.CardAlreadyExistsException;
+import com.eazybytes.loans.exception.LoanAlreadyExistsException;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Error body construction in the three GlobalExceptionHandlers, from an already thrown exception. The
+ * {@code ...IncludingException} variants also create the exception, which is what a failing request pays.
+ * <p>
+ * The {@code legacy...} methods reproduce the previous error path (a {@code String.format} message on an
+ * exception that fills in its stack trace, validation messages rendered through a {@code HashMap}) next to
+ * the current one. The {@code ...AtRequestDepth} pair creates the exception under {@value #REQUEST_STACK_DEPTH}
+ * extra frames, roughly what Tomcat, the filter chain and MVC dispatch put below a service call, since the
+ * cost of filling in a stack trace grows with its depth.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExceptionHandlerBenchmark {
+
+    static final int REQUEST_STACK_DEPTH = 100;
+
+    private GlobalExceptionHandler accountsHandler;
+    private com.eazybytes.cards.exception.GlobalExceptionHandler cardsHandler;
+    private com.eazybytes.loans.exception.GlobalExceptionHandler loansHandler;
+    private WebRequest webRequest;
+
+    private ResourceNotFoundException resourceNotFoundException;
+    private CustomerAlreadyExistsException customerAlreadyExistsException;
+    private ConstraintViolationException constraintViolationException;
+    private MethodArgumentNotValidException methodArgumentNotValidException;
+    private CardAlreadyExistsException cardAlreadyExistsException;
+    private LoanAlreadyExistsException loanAlreadyExistsException;
+
+    @Setup
+    public void setUp() throws Exception {
+        accountsHandler = new GlobalExceptionHandler();
+        cardsHandler = new com.eazybytes.cards.exception.GlobalExceptionHandler();
+        loansHandler = new com.eazybytes.loans.exception.GlobalExceptionHandler();
+        webRequest = new ServletWebRequest(new MockHttpServletRequest("GET", "/api/fetch"));
+
+        resourceNotFoundException = new ResourceNotFoundException("Customer", "mobileNumber", "9345432123");
+        customerAlreadyExistsException = new CustomerAlreadyExistsException(
+                "Customer already registered with given mobileNumber 9345432123");
+        cardAlreadyExistsException = new CardAlreadyExistsException(
+                "Card already registered with given mobileNumber 9345432123");
+        loanAlreadyExistsException = new LoanAlreadyExistsException(
+                "Loan already registered with given mobileNumber 9345432123");
+
+        try (ValidatorFactory validatorFactory = Validation.buildDefaultValidatorFactory()) {
+            CustomerDto invalidCustomerDto = new CustomerDto();
+            invalidCustomerDto.setName("Madan");
+            invalidCustomerDto.setEmail("tutor@eazybytes.com");
+            invalidCustomerDto.setMobileNumber("93454-3212");
+            constraintViolationException = new ConstraintViolationException(
+                    validatorFactory.getValidator().validate(invalidCustomerDto));
+
+            BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(invalidCustomerDto, "customerDto");
+            bindingResult.addError(new FieldError("customerDto", "mobileNumber",
+                    "Mobile number must be exactly 10 digits"));
+            methodArgumentNotValidException = new MethodArgumentNotValidException(
+                    new MethodParameter(AccountsController.class.getMethod("createAccount", CustomerDto.class), 0),
+                    bindingResult);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<?> accountsResourceNotFound() {
+        return accountsHandler.handleResourceNotFoundException(resourceNotFoundException, webRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> accountsResourceNotFoundIncludingException() {
+        return accountsHandler.handleResourceNotFoundException(
+                new ResourceNotFoundException("Customer", "mobileNumber", "9345432123"), webRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> accountsCustomerExists() {
+        return accountsHandler.handleCustomerExists(customerAlreadyExistsException, webRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> accountsConstraintViolation() {
+        return accountsHandler.handleConstraintViolationException(constraintViolationException, webRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> accountsMethodArgumentNotValid() throws Exception {
+        return accountsHandler.handleException(methodArgumentNotValidException, webRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> cardsAlreadyExists() {
+        return cardsHandler.handleCardAlreadyExistsException(cardAlreadyExistsException, webRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> cardsResourceNotFoundIncludingException() {
+        return cardsHandler.handleResourceNotFoundException(
+                new com.eazybytes.cards.exception.ResourceNotFoundException("Card", "mobileNumber", "9345432123"),
+                webRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> loansAlreadyExists() {
+        return loansHandler.handleLoanAlreadyExistsException(loanAlreadyExistsException, webRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> loansResourceNotFoundIncludingException() {
+        return loansHandler.handleResourceNotFoundException(
+                new com.eazybytes.loans.exception.ResourceNotFoundException("Loan", "mobileNumber", "9345432123"),
+                webRequest);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> accountsResourceNotFoundAtRequestDepth() {
+        return atDepth(REQUEST_STACK_DEPTH, () -> accountsHandler.handleResourceNotFoundException(
+                new ResourceNotFoundException("Customer", "mobileNumber", "9345432123"), webRequest));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> legacyResourceNotFoundAtRequestDepth() {
+        return atDepth(REQUEST_STACK_DEPTH, () -> legacyErrorResponse(
+                new LegacyResourceNotFoundException("Customer", "mobileNumber", "9345432123"), HttpStatus.NOT_FOUND));
+    }
+
+    @Benchmark
+    public ResponseEntity<?> legacyResourceNotFoundIncludingException() {
+        return legacyErrorResponse(
+                new LegacyResourceNotFoundException("Customer", "mobileNumber", "9345432123"), HttpStatus.NOT_FOUND);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> legacyConstraintViolation() {
+        Map<String, String> validationErrors = new HashMap<>();
+        constraintViolationException.getConstraintViolations().forEach(violation -> {
+            String fullPath = violation.getPropertyPath().toString();
+            String fieldName = fullPath.contains(".")
+                    ? fullPath.substring(fullPath.lastIndexOf('.') + 1)
+                    : fullPath;
+            validationErrors.put(fieldName, violation.getMessage());
+        });
+        return legacyErrorResponse(validationErrors.toString(), HttpStatus.BAD_REQUEST);
+    }
+
+    @Benchmark
+    public ResponseEntity<?> legacyMethodArgumentNotValid() {
+        Map<String, String> validationErrors = new HashMap<>();
+        for (ObjectError error : methodArgumentNotValidException.getBindingResult().getAllErrors()) {
+            validationErrors.put(((FieldError) error).getField(), error.getDefaultMessage());
+        }
+        return legacyErrorResponse(validationErrors.toString(), HttpStatus.BAD_REQUEST);
+    }
+
+    private ResponseEntity<ErrorResponseDto> legacyErrorResponse(RuntimeException exception, HttpStatus status) {
+        return legacyErrorResponse(exception.getMessage(), status);
+    }
+
+    private ResponseEntity<ErrorResponseDto> legacyErrorResponse(String message, HttpStatus status) {
+        ErrorResponseDto error = new ErrorResponseDto(
+                webRequest.getDescription(false), status, message, LocalDateTime.now());
+        return new ResponseEntity<>(error, status);
+    }
+
+    private static <T> T atDepth(int depth, Supplier<T> action) {
+        return depth == 0 ? action.get() : atDepth(depth - 1, action);
+    }
+
+    /** The not-found exception as it was before it became stackless. */
+    static class LegacyResourceNotFoundException extends RuntimeException {
+
+        LegacyResourceNotFoundException(String resourceName, String fieldName, String fieldValue) {
+            super(String.format("%s not found with the given input data %s : '%s'", resourceName, fieldName, fieldValue));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.eazybytes.benchmarks;
+
+import com.eazybytes.loans.accrual.AccrualRun;
+import com.eazybytes.loans.accrual.InterestAccrualJob;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the loans {@link InterestAccrualJob} against an in-memory H2 database filled with generated loans and
+ * prints rows per second. Not a JMH benchmark: one run over millions of rows is the measurement.
+ * <p>
+ * The first run is stopped part way and run again for the same date, which resumes after the last committed
+ * chunk; a second night then accrues every loan once more.
+ *
+ * <pre>
+ * mvn -f benchmarks/pom.xml package
+ * java -Xmx4g -cp benchmarks/target/benchmarks.jar com.eazybytes.benchmarks.InterestAccrualBenchmark loans 5000000 4
+ * </pre>
+ */
+public class InterestAccrualBenchmark {
+
+    private static final int INSERT_BATCH = 500_000;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: InterestAccrualBenchmark <loans module directory> [loans, default 2000000] "
+                    + "[threads, default 4] [chunk size, default 10000]");
+            System.exit(2);
+        }
+        Path schema = Path.of(args[0]).toAbsolutePath().resolve("src/main/resources/schema.sql");
+        if (!Files.exists(schema)) {
+            throw new IllegalStateException("No schema.sql at " + schema);
+        }
+        int loans = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int chunkSize = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+
+        try (HikariDataSource dataSource = new HikariDataSource()) {
+            dataSource.setJdbcUrl("jdbc:h2:mem:accrual;DB_CLOSE_DELAY=-1");
+            dataSource.setUsername("sa");
+            dataSource.setMaximumPoolSize(threads + 1);
+            new ResourceDatabasePopulator(new FileSystemResource(schema)).execute(dataSource);
+
+            LocalDate night = LocalDate.now().minusDays(1);
+            generate(new JdbcTemplate(dataSource), loans, night.minusDays(1));
+
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            InterestAccrualJob interrupted = new InterestAccrualJob(dataSource, transactionManager,
+                    new SimpleMeterRegistry(), chunkSize, 1000, threads, Duration.ofDays(30));
+            CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS).execute(interrupted::stop);
+            print("stopped after 1s", interrupted.accrueThrough(night));
+
+            InterestAccrualJob job = new InterestAccrualJob(dataSource, transactionManager,
+                    new SimpleMeterRegistry(), chunkSize, 1000, threads, Duration.ofDays(30));
+            print("rerun, same night", job.accrueThrough(night));
+            print("next night", job.accrueThrough(night.plusDays(1)));
+        }
+    }
+
+    /**
+     * Loans with varied balances and rates, all accrued through {@code accruedThrough}.
+     */
+    private static void generate(JdbcTemplate jdbcTemplate, int loans, LocalDate accruedThrough) {
+        long start = System.nanoTime();
+        for (int from = 1; from <= loans; from += INSERT_BATCH) {
+            jdbcTemplate.update("insert into loans (mobile_number, loan_number, loan_type, total_loan, amount_paid, "
+                            + "outstanding_amount, interest_rate_bps, accrued_through, created_at, created_by) "
+                            + "select cast(5000000000 + x as varchar), cast(100000000000 + x as varchar), 'Home Loan', "
+                            + "1000000, 0, 10000 + mod(x * 7919, 990000), 300 + mod(x, 900), ?, current_timestamp, "
+                            + "'GENERATOR' from system_range(?, ?)",
+                    accruedThrough, from, Math.min(from + INSERT_BATCH - 1, loans));
+        }
+        System.out.printf("generated %d loans in %d ms%n", loans,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static void print(String name, AccrualRun run) {
+        System.out.printf("%-18s %9d loans %6d chunks (%6d skipped) %7d ms %10.0f rows/s%s%n", name, run.rows(),
+                run.chunks(), run.skippedChunks(), run.elapsed().toMillis(), run.rowsPerSecond(),
+                run.complete() ? "" : "  stopped");
+    }
+}
@@ -0,0 +1,121 @@
+package com.eazybytes.benchmarks;
+
+import com.easybytes.accounts.dtos.AccountsDto;
+import com.easybytes.accounts.dtos.CustomerAccountView;
+import com.easybytes.accounts.dtos.CustomerDto;
+import com.easybytes.accounts.entity.Accounts;
+import com.easybytes.accounts.entity.Customer;
+import com.easybytes.accounts.mapper.AccountsMapper;
+import com.easybytes.accounts.mapper.CustomerAccountMapper;
+import com.easybytes.accounts.mapper.CustomerMapper;
+import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.entity.Cards;
+import com.eazybytes.cards.mapper.CardsMapper;
+import com.eazybytes.loans.dto.LoansDto;
+import com.eazybytes.loans.entity.Loans;
+import com.eazybytes.loans.mapper.LoansMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private Customer customer;
+    private CustomerDto customerDto;
+    private Accounts accounts;
+    private AccountsDto accountsDto;
+    private CustomerAccountView customerAccountView;
+    private Cards cards;
+    private CardsDto cardsDto;
+    private Loans loans;
+    private LoansDto loansDto;
+
+    @Setup
+    public void setUp() {
+        customer = new Customer();
+        customer.setCustomerId(1L);
+        customer.setName("Madan Reddy");
+        customer.setEmail("tutor@eazybytes.com");
+        customer.setMobileNumber("9345432123");
+        customerDto = CustomerMapper.mapToCustomerDto(customer);
+
+        accounts = new Accounts();
+        accounts.setCustomerId(1L);
+        accounts.setAccountNumber(1900000001L);
+        accounts.setAccountType("Savings");
+        accounts.setBranchAddress("123 Main Street, New York");
+        accountsDto = AccountsMapper.mapToAccountsDto(accounts);
+
+        customerAccountView = new CustomerAccountView(1L, "Madan Reddy", "tutor@eazybytes.com", "9345432123",
+                1900000001L, "Savings", "123 Main Street, New York");
+
+        cards = new Cards();
+        cards.setMobileNumber("9345432123");
+        cards.setCardNumber("101000000001");
+        cards.setCardType("Credit Card");
+        cards.setTotalLimit(100_000);
+        cards.setAmountUsed(1_000);
+        cards.setAvailableAmount(99_000);
+        cardsDto = CardsMapper.mapToCardsDto(cards, new CardsDto());
+
+        loans = new Loans();
+        loans.setMobileNumber("9345432123");
+        loans.setLoanNumber("101000000001");
+        loans.setLoanType("Home Loan");
+        loans.setTotalLoan(100_000);
+        loans.setAmountPaid(1_000);
+        loans.setOutstandingAmount(99_000);
+        loansDto = LoansMapper.mapToLoansDto(loans, new LoansDto());
+    }
+
+    @Benchmark
+    public CustomerDto customerToDto() {
+        return CustomerMapper.mapToCustomerDto(customer);
+    }
+
+    @Benchmark
+    public Customer customerFromDto() {
+        return CustomerMapper.mapToCustomer(customerDto);
+    }
+
+    @Benchmark
+    public AccountsDto accountsToDto() {
+        return AccountsMapper.mapToAccountsDto(accounts);
+    }
+
+    @Benchmark
+    public Accounts accountsFromDto() {
+        return AccountsMapper.mapToAccounts(accountsDto);
+    }
+
+    @Benchmark
+    public Object customerAccountViewToResponse() {
+        return CustomerAccountMapper.mapToCustomerAccountResponseDto(customerAccountView);
+    }
+
+    @Benchmark
+    public CardsDto cardsToDto() {
+        return CardsMapper.mapToCardsDto(cards, new CardsDto());
+    }
+
+    @Benchmark
+    public Cards cardsFromDto() {
+        return CardsMapper.mapToCards(cardsDto, new Cards());
+    }
+
+    @Benchmark
+    public LoansDto loansToDto() {
+        return LoansMapper.mapToLoansDto(loans, new LoansDto());
+    }
+
+    @Benchmark
+    public Loans loansFromDto() {
+        return LoansMapper.mapToLoans(loansDto, new Loans());
+    }
+}
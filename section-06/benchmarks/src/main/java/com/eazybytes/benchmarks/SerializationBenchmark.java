@@ -0,0 +1,44 @@
+package com.eazybytes.benchmarks;
+
+import com.easybytes.accounts.dtos.CustomerAccountResponseDto;
+import com.easybytes.accounts.dtos.CustomerAccountView;
+import com.easybytes.accounts.mapper.CustomerAccountMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private CustomerAccountResponseDto customerAccountResponseDto;
+    private byte[] customerAccountResponseJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        // configured the way Spring Boot configures the mapper behind the REST endpoints
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        customerAccountResponseDto = CustomerAccountMapper.mapToCustomerAccountResponseDto(
+                new CustomerAccountView(1L, "Madan Reddy", "tutor@eazybytes.com", "9345432123",
+                        1900000001L, "Savings", "123 Main Street, New York"));
+        customerAccountResponseJson = objectMapper.writeValueAsBytes(customerAccountResponseDto);
+    }
+
+    @Benchmark
+    public byte[] serializeCustomerAccountResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(customerAccountResponseDto);
+    }
+
+    @Benchmark
+    public CustomerAccountResponseDto deserializeCustomerAccountResponse() throws Exception {
+        return objectMapper.readValue(customerAccountResponseJson, CustomerAccountResponseDto.class);
+    }
+}
@@ -0,0 +1,151 @@
+package com.eazybytes.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time from process start to the first successful request ({@code GET /api/contact-info}) of a service, for the
+ * plain fat jar and for the layouts produced by the {@code aot-cds} Maven profile. Not a JMH benchmark: every
+ * sample is a fresh JVM, which is exactly what JMH forks are meant to hide.
+ * <p>
+ * The variants are run round-robin so that machine noise spreads evenly over them. The CDS archive only works
+ * with the JDK that created it, so run this with the same {@code java} the service was built with.
+ *
+ * <pre>
+ * mvn -f cards/pom.xml -Paot-cds package -DskipTests
+ * mvn -f benchmarks/pom.xml package
+ * java -cp benchmarks/target/benchmarks.jar com.eazybytes.benchmarks.StartupBenchmark cards 10
+ * </pre>
+ */
+public class StartupBenchmark {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+    private static final String PROBE_PATH = "/api/contact-info";
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: StartupBenchmark <service module directory> [samples per variant, default 5]");
+            System.exit(2);
+        }
+        Path module = Path.of(args[0]).toAbsolutePath();
+        int samples = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        new StartupBenchmark().run(module, samples);
+    }
+
+    private void run(Path module, int samples) throws Exception {
+        Path fatJar = findJar(module.resolve("target"));
+        Path extracted = module.resolve("target").resolve("cds");
+        Path extractedJar = extracted.resolve(fatJar.getFileName());
+        if (!Files.exists(extracted.resolve("application.jsa"))) {
+            throw new IllegalStateException("No CDS archive in " + extracted + ", build the module with -Paot-cds first");
+        }
+
+        Map<String, Variant> variants = new LinkedHashMap<>();
+        variants.put("fat jar", new Variant(module, List.of("-jar", fatJar.toString())));
+        variants.put("extracted", new Variant(extracted, List.of("-jar", extractedJar.toString())));
+        variants.put("extracted + AOT", new Variant(extracted,
+                List.of("-Dspring.aot.enabled=true", "-jar", extractedJar.toString())));
+        variants.put("extracted + AOT + AppCDS", new Variant(extracted,
+                List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true", "-jar", extractedJar.toString())));
+
+        Map<String, List<Long>> results = new LinkedHashMap<>();
+        variants.keySet().forEach(name -> results.put(name, new ArrayList<>()));
+        for (int sample = 1; sample <= samples; sample++) {
+            for (Map.Entry<String, Variant> variant : variants.entrySet()) {
+                long millis = timeToFirstRequest(variant.getValue());
+                results.get(variant.getKey()).add(millis);
+                System.out.printf("sample %d/%d  %-26s %6d ms%n", sample, samples, variant.getKey(), millis);
+            }
+        }
+
+        System.out.printf("%n%-26s %10s %10s %10s%n", module.getFileName() + " time to first request", "min", "median", "max");
+        long baseline = median(results.get("fat jar"));
+        for (Map.Entry<String, List<Long>> result : results.entrySet()) {
+            List<Long> millis = result.getValue().stream().sorted().toList();
+            long median = median(millis);
+            System.out.printf("%-26s %7d ms %7d ms %7d ms   %+.0f%%%n", result.getKey(), millis.getFirst(), median,
+                    millis.getLast(), 100.0 * (median - baseline) / baseline);
+        }
+    }
+
+    private long timeToFirstRequest(Variant variant) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        command.addAll(variant.arguments());
+        command.add("--server.port=" + port);
+        HttpRequest probe = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PROBE_PATH))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(variant.workingDirectory().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Service exited with " + process.exitValue() + ": " + command);
+                }
+                try {
+                    if (httpClient.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("Service did not answer within " + STARTUP_TIMEOUT + ": " + command);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static Path findJar(Path target) throws IOException {
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No jar in " + target + ", package the module first"));
+        }
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = values.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+
+    private record Variant(Path workingDirectory, List<String> arguments) {
+    }
+}
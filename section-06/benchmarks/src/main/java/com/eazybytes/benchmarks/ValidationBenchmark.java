@@ -0,0 +1,113 @@
+package com.eazybytes.benchmarks;
+
+import com.easybytes.accounts.dtos.CustomerDto;
+import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.loans.dto.LoansDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bean validation as the controllers trigger it through {@code @Valid}. The invalid cases fail every
+ * {@code @Pattern} mobile number check, which also pays for interpolating the violation messages.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private CustomerDto validCustomerDto;
+    private CustomerDto invalidCustomerDto;
+    private CardsDto validCardsDto;
+    private CardsDto invalidCardsDto;
+    private LoansDto validLoansDto;
+    private LoansDto invalidLoansDto;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        validCustomerDto = customerDto("9345432123");
+        invalidCustomerDto = customerDto("93454-3212");
+        validCardsDto = cardsDto("9345432123");
+        invalidCardsDto = cardsDto("93454-3212");
+        validLoansDto = loansDto("9345432123");
+        invalidLoansDto = loansDto("93454-3212");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerDto>> validCustomer() {
+        return validator.validate(validCustomerDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerDto>> invalidCustomer() {
+        return validator.validate(invalidCustomerDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CardsDto>> validCard() {
+        return validator.validate(validCardsDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CardsDto>> invalidCard() {
+        return validator.validate(invalidCardsDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LoansDto>> validLoan() {
+        return validator.validate(validLoansDto);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<LoansDto>> invalidLoan() {
+        return validator.validate(invalidLoansDto);
+    }
+
+    private static CustomerDto customerDto(String mobileNumber) {
+        CustomerDto customerDto = new CustomerDto();
+        customerDto.setName("Madan Reddy");
+        customerDto.setEmail("tutor@eazybytes.com");
+        customerDto.setMobileNumber(mobileNumber);
+        return customerDto;
+    }
+
+    private static CardsDto cardsDto(String mobileNumber) {
+        CardsDto cardsDto = new CardsDto();
+        cardsDto.setMobileNumber(mobileNumber);
+        cardsDto.setCardNumber("101000000001");
+        cardsDto.setCardType("Credit Card");
+        cardsDto.setTotalLimit(100_000);
+        cardsDto.setAmountUsed(1_000);
+        cardsDto.setAvailableAmount(99_000);
+        return cardsDto;
+    }
+
+    private static LoansDto loansDto(String mobileNumber) {
+        LoansDto loansDto = new LoansDto();
+        loansDto.setMobileNumber(mobileNumber);
+        loansDto.setLoanNumber("101000000001");
+        loansDto.setLoanType("Home Loan");
+        loansDto.setTotalLoan(100_000);
+        loansDto.setAmountPaid(1_000);
+        loansDto.setOutstandingAmount(99_000);
+        return loansDto;
+    }
+}
@@ -0,0 +1,64 @@
+package com.eazybytes.cards.config;
+
+import com.eazybytes.cards.ledger.CardLedger;
+import com.eazybytes.cards.ledger.WriteAheadLog;
+import com.eazybytes.cards.repository.CardAuthorizationRepository;
+import com.eazybytes.cards.repository.CardBalanceRepository;
+import com.eazybytes.cards.repository.CardLedgerRepository;
+import com.eazybytes.cards.repository.CardsRepository;
+import com.eazybytes.cards.sequence.BlockNumberAllocator;
+import com.eazybytes.cards.service.ICardAuthorizationsService;
+import com.eazybytes.cards.service.impl.CardAuthorizationsServiceImpl;
+import com.eazybytes.cards.service.impl.LedgerCardAuthorizationsServiceImpl;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Picks where card authorizations keep balances: {@code cards.ledger.mode=database} (the default) updates the
+ * cards row on every authorization, {@code in-memory} uses the {@link CardLedger}.
+ * <p>
+ * A switch in the bean method, like OutboxConfig in accounts, so the mode can still be changed on an AOT build.
+ */
+@Configuration
+public class CardAuthorizationsConfig {
+
+    static final String UNFLUSHED_GAUGE = "cards.ledger.unflushed";
+
+    @Bean
+    public ICardAuthorizationsService iCardAuthorizationsService(
+            @Value("${cards.ledger.mode:database}") String mode,
+            CardsRepository cardsRepository,
+            CardAuthorizationRepository cardAuthorizationRepository,
+            CardBalanceRepository cardBalanceRepository,
+            CardLedgerRepository cardLedgerRepository,
+            BlockNumberAllocator authorizationIdAllocator,
+            MeterRegistry meterRegistry,
+            @Value("${cards.ledger.wal.path:cards-ledger.wal}") Path walPath,
+            @Value("${cards.ledger.wal.capacity:1048576}") int walCapacity,
+            @Value("${cards.ledger.wal.sync:true}") boolean walSync,
+            @Value("${cards.ledger.flush-interval:1s}") Duration flushInterval,
+            @Value("${cards.ledger.flush-batch-size:10000}") int flushBatchSize) throws IOException {
+        return switch (mode) {
+            case "database" -> new CardAuthorizationsServiceImpl(cardsRepository, cardAuthorizationRepository,
+                    cardBalanceRepository, authorizationIdAllocator);
+            case "in-memory" -> {
+                CardLedger cardLedger = new CardLedger(new WriteAheadLog(walPath, walCapacity), cardLedgerRepository,
+                        flushBatchSize, walSync);
+                cardLedger.startFlushing(flushInterval);
+                Gauge.builder(UNFLUSHED_GAUGE, cardLedger, CardLedger::unflushed)
+                        .description("Card ledger entries not yet written to the database")
+                        .register(meterRegistry);
+                yield new LedgerCardAuthorizationsServiceImpl(cardsRepository, cardLedger, authorizationIdAllocator);
+            }
+            default -> throw new IllegalArgumentException(
+                    "Unknown cards.ledger.mode '" + mode + "', expected database or in-memory");
+        };
+    }
+}
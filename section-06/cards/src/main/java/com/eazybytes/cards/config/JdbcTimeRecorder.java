@@ -0,0 +1,46 @@
+package com.eazybytes.cards.config;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Hibernate session listener (registered through {@code hibernate.session.events.auto}) that adds the time
+ * spent executing JDBC statements and batches to a per-thread running total. {@link ServiceMetricsAspect}
+ * reads the total before and after a service call to split its duration into database and non-database time.
+ * <p>
+ * Hibernate creates one instance per session and a session is used by one thread at a time, so the start
+ * timestamps need no synchronization.
+ */
+public class JdbcTimeRecorder extends BaseSessionEventListener {
+
+    private static final ThreadLocal<long[]> JDBC_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+    private long statementStart;
+    private long batchStart;
+
+    /**
+     * @return nanoseconds the current thread has spent in JDBC executions so far; only differences are meaningful
+     */
+    public static long currentThreadNanos() {
+        return JDBC_NANOS.get()[0];
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        JDBC_NANOS.get()[0] += System.nanoTime() - statementStart;
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        batchStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        JDBC_NANOS.get()[0] += System.nanoTime() - batchStart;
+    }
+}
@@ -0,0 +1,43 @@
+package com.eazybytes.cards.config;
+
+import com.eazybytes.cards.dto.AccountEventDto;
+import com.eazybytes.cards.dto.BatchFetchResponseDto;
+import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.dto.CardsVersion;
+import com.eazybytes.cards.dto.CardsView;
+import com.eazybytes.cards.dto.ErrorResponseDto;
+import com.eazybytes.cards.dto.ResponseDto;
+import com.eazybytes.cards.repository.SimpleNaturalIdRepository;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * What a native image of this service cannot find out by itself: classes that are only ever reached by name or
+ * by reflection, and resources read by libraries rather than by Spring. Entities, controller payloads and
+ * Spring-managed configuration files are covered by Spring AOT; H2 and springdoc bring their own metadata.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // cache region sizes for the Caffeine JCache provider
+        hints.resources().registerPattern("application.conf");
+
+        // hibernate.session.events.auto and @EnableJpaRepositories(repositoryBaseClass) name these classes
+        hints.reflection().registerType(JdbcTimeRecorder.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(SimpleNaturalIdRepository.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        // built by Hibernate from "select new ..." queries
+        hints.reflection().registerType(CardsView.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        hints.reflection().registerType(CardsVersion.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        // (de)serialized by Jackson outside of plain @RequestBody / @ResponseBody types: exception handler bodies,
+        // generic and list payloads
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                ErrorResponseDto.class, ResponseDto.class, BatchFetchResponseDto.class, CardsDto.class,
+                AccountEventDto.class);
+    }
+}
@@ -0,0 +1,56 @@
+package com.eazybytes.cards.config;
+
+import com.eazybytes.cards.sequence.BlockNumberAllocator;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+@Configuration
+public class NumberAllocatorConfig {
+
+    // Random card numbers used to be drawn from [100_000_000_000, 100_900_000_000), so allocated
+    // numbers start above that range and stay 12 digits long.
+    private static final long CARD_NUMBER_BASE = 101_000_000_000L;
+    private static final long CARD_NUMBER_MAX = 999_999_999_999L;
+    private static final long AUTHORIZATION_ID_BASE = 1L;
+
+    // Not a bean: any Executor bean makes Boot back off from creating applicationTaskExecutor,
+    // which @Async and MVC async rely on.
+    private final ExecutorService numberBlockRefillExecutor;
+
+    public NumberAllocatorConfig(Environment environment) {
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name("number-block-refill").factory()
+                : Thread.ofPlatform().name("number-block-refill").daemon().factory();
+        this.numberBlockRefillExecutor = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdownNumberBlockRefillExecutor() {
+        numberBlockRefillExecutor.shutdown();
+    }
+
+    @Bean
+    public BlockNumberAllocator cardNumberAllocator(JdbcTemplate jdbcTemplate,
+                                                    @Value("${cards.number-block-size:100}") long blockSize) {
+        return new BlockNumberAllocator(
+                () -> jdbcTemplate.queryForObject("select next value for card_number_block_seq", Long.class),
+                numberBlockRefillExecutor, CARD_NUMBER_BASE, blockSize, CARD_NUMBER_MAX);
+    }
+
+    @Bean
+    public BlockNumberAllocator authorizationIdAllocator(JdbcTemplate jdbcTemplate,
+                                                         @Value("${cards.authorization-id-block-size:1000}") long blockSize) {
+        return new BlockNumberAllocator(
+                () -> jdbcTemplate.queryForObject("select next value for card_authorization_id_block_seq", Long.class),
+                numberBlockRefillExecutor, AUTHORIZATION_ID_BASE, blockSize, Long.MAX_VALUE);
+    }
+}
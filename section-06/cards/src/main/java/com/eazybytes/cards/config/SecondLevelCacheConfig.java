@@ -0,0 +1,32 @@
+package com.eazybytes.cards.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.UUID;
+
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /**
+     * Gives Hibernate a JCache manager of its own rather than the provider's JVM-wide default. Hibernate closes the
+     * manager when the session factory shuts down, and two application contexts in one JVM (the test suite keeps
+     * several alive) must neither share cached rows nor close each other's regions. Region sizes come from
+     * {@code application.conf}.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheManagerCustomizer() {
+        return properties -> {
+            CachingProvider cachingProvider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+            URI uri = URI.create("hibernate-l2:" + UUID.randomUUID());
+            properties.put(ConfigSettings.CACHE_MANAGER,
+                    cachingProvider.getCacheManager(uri, cachingProvider.getDefaultClassLoader()));
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.eazybytes.cards.config;
+
+import com.eazybytes.cards.exception.CardAlreadyExistsException;
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.service.ICardsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every method of {@link ICardsService}. Each call is recorded twice, under the same operation and
+ * outcome tags: {@code service.operation} is the total time and {@code service.operation.db} is the part spent
+ * executing JDBC statements, taken from {@link JdbcTimeRecorder}. Histogram buckets and SLO boundaries for
+ * both are configured under {@code management.metrics.distribution} in application.yaml.
+ * <p>
+ * Ordered ahead of the transaction interceptor, so commit time is part of the measurement.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    static final String OPERATION_TIMER = "service.operation";
+    static final String DB_TIMER = "service.operation.db";
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.eazybytes.cards.service.ICardsService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        long jdbcNanosBefore = JdbcTimeRecorder.currentThreadNanos();
+        long start = System.nanoTime();
+        String outcome = "success";
+        try {
+            return joinPoint.proceed();
+        } catch (ResourceNotFoundException e) {
+            outcome = "not-found";
+            throw e;
+        } catch (CardAlreadyExistsException e) {
+            outcome = "already-exists";
+            throw e;
+        } catch (OptimisticLockingFailureException e) {
+            outcome = "conflict";
+            throw e;
+        } catch (Throwable e) {
+            outcome = "error";
+            throw e;
+        } finally {
+            long totalNanos = System.nanoTime() - start;
+            long jdbcNanos = JdbcTimeRecorder.currentThreadNanos() - jdbcNanosBefore;
+            Tags tags = Tags.of("operation", joinPoint.getSignature().getName(), "outcome", outcome);
+            Timer.builder(OPERATION_TIMER)
+                    .description("Time spent in a service method")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(totalNanos, TimeUnit.NANOSECONDS);
+            Timer.builder(DB_TIMER)
+                    .description("Time a service method spent executing JDBC statements")
+                    .tags(tags)
+                    .register(meterRegistry)
+                    .record(jdbcNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
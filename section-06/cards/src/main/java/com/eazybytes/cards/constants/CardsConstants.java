@@ -15,6 +15,14 @@ public final class CardsConstants {
     public static final String  STATUS_417 = "417";
     public static final String  MESSAGE_417_UPDATE= "Update operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
+    public static final String  MESSAGE_417_CAPTURE= "Capture failed. The authorization was already reversed";
+    public static final String  MESSAGE_417_REVERSE= "Reversal failed. The authorization was already captured";
+    public static final String  MESSAGE_409_CONCURRENT_UPDATE = "The record was changed by another request. Please fetch it again and retry";
+    public static final int  MAX_BATCH_SIZE = 1000;
+    public static final int  FETCH_CHUNK_SIZE = 500;
+    public static final int  EXPORT_PAGE_SIZE = 500;
+    public static final String  APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String  UK_CARDS_MOBILE_NUMBER = "uk_cards_mobile_number";
     // public static final String  STATUS_500 = "500";
     // public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
 
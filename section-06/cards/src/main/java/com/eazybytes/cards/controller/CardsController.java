@@ -1,11 +1,21 @@
 package com.eazybytes.cards.controller;
 
 import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.AuthorizationRequestDto;
+import com.eazybytes.cards.dto.BatchFetchRequestDto;
+import com.eazybytes.cards.dto.BatchFetchResponseDto;
+import com.eazybytes.cards.dto.CardAuthorizationDto;
 import com.eazybytes.cards.dto.CardsContactInfoDto;
 import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.dto.CardsVersion;
 import com.eazybytes.cards.dto.ErrorResponseDto;
 import com.eazybytes.cards.dto.ResponseDto;
+import com.eazybytes.cards.service.ICardAuthorizationsService;
 import com.eazybytes.cards.service.ICardsService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -23,6 +33,12 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 
 @Tag(
         name = "CRUD REST APIs for Cards in EazyBank",
@@ -35,8 +51,11 @@ public class CardsController {
 
     private ICardsService iCardsService;
 
-    public CardsController(ICardsService iCardsService) {
+    private ICardAuthorizationsService iCardAuthorizationsService;
+
+    public CardsController(ICardsService iCardsService, ICardAuthorizationsService iCardAuthorizationsService) {
         this.iCardsService = iCardsService;
+        this.iCardAuthorizationsService = iCardAuthorizationsService;
     }
 
     @Value("${build.version}")
@@ -48,6 +67,9 @@ public class CardsController {
     @Autowired
     private CardsContactInfoDto cardsContactInfoDto;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(
             summary = "Create Card REST API",
             description = "REST API to create new Card inside EazyBank"
@@ -85,6 +107,10 @@ public class CardsController {
                     responseCode = "200",
                     description = "HTTP Status OK"
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified, when If-None-Match or If-Modified-Since still matches"
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error",
@@ -96,9 +122,52 @@ public class CardsController {
     @GetMapping("/fetch")
     public ResponseEntity<CardsDto> fetchCardDetails(@RequestParam
                                                      @Pattern(regexp="(^$|[0-9]{10})",message = "Mobile number must be 10 digits")
-                                                     String mobileNumber) {
-        CardsDto cardsDto = iCardsService.fetchCard(mobileNumber);
-        return ResponseEntity.status(HttpStatus.OK).body(cardsDto);
+                                                     String mobileNumber,
+                                                     WebRequest webRequest) {
+        // read the version first, so a concurrent update can only pair a newer body with an older ETag
+        CardsVersion version = iCardsService.fetchCardVersion(mobileNumber);
+        Instant lastModified = version.lastModified();
+        if (lastModified == null ? webRequest.checkNotModified(version.eTag())
+                : webRequest.checkNotModified(version.eTag(), lastModified.toEpochMilli())) {
+            return null;
+        }
+        CardsDto cardsDto = iCardsService.fetchCard(version);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.OK).eTag(version.eTag());
+        if (lastModified != null) {
+            response.lastModified(lastModified);
+        }
+        return response.body(cardsDto);
+    }
+
+    @Operation(
+            summary = "Batch Fetch Card Details REST API",
+            description = "REST API to fetch card details for many mobile numbers in one call"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping("/fetch/batch")
+    public ResponseEntity<BatchFetchResponseDto<CardsDto>> fetchCardDetailsBatch(@Valid @RequestBody BatchFetchRequestDto batchFetchRequestDto) {
+        BatchFetchResponseDto<CardsDto> responseDto = iCardsService.fetchCards(batchFetchRequestDto.getMobileNumbers());
+        return ResponseEntity.status(HttpStatus.OK).body(responseDto);
     }
 
     @Operation(
@@ -110,6 +179,13 @@ public class CardsController {
                     responseCode = "200",
                     description = "HTTP Status OK"
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "HTTP Status Conflict",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "417",
                     description = "Expectation Failed"
@@ -173,6 +249,170 @@ public class CardsController {
         }
     }
 
+    @Operation(
+            summary = "Authorize Card Payment REST API",
+            description = "REST API to hold an amount against the available amount of a card"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "HTTP Status CREATED"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "HTTP Status Not Found",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "422",
+                    description = "HTTP Status Unprocessable Entity, when the card does not have the amount available",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/authorize")
+    public ResponseEntity<CardAuthorizationDto> authorizeCardPayment(@Valid @RequestBody AuthorizationRequestDto authorizationRequestDto) {
+        CardAuthorizationDto authorizationDto = iCardAuthorizationsService.authorize(
+                authorizationRequestDto.getCardNumber(), authorizationRequestDto.getAmount());
+        return ResponseEntity.status(HttpStatus.CREATED).body(authorizationDto);
+    }
+
+    @Operation(
+            summary = "Capture Card Payment REST API",
+            description = "REST API to capture an authorized amount"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "HTTP Status Conflict",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "417",
+                    description = "Expectation Failed"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/capture")
+    public ResponseEntity<ResponseDto> captureCardPayment(@RequestParam Long authorizationId) {
+        boolean isCaptured = iCardAuthorizationsService.capture(authorizationId);
+        if(isCaptured) {
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(new ResponseDto(CardsConstants.STATUS_200, CardsConstants.MESSAGE_200));
+        }else{
+            return ResponseEntity
+                    .status(HttpStatus.EXPECTATION_FAILED)
+                    .body(new ResponseDto(CardsConstants.STATUS_417, CardsConstants.MESSAGE_417_CAPTURE));
+        }
+    }
+
+    @Operation(
+            summary = "Reverse Card Payment REST API",
+            description = "REST API to reverse an authorization and give the amount back to the card"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "HTTP Status Conflict",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "417",
+                    description = "Expectation Failed"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    })
+    @PostMapping("/reverse")
+    public ResponseEntity<ResponseDto> reverseCardPayment(@RequestParam Long authorizationId) {
+        boolean isReversed = iCardAuthorizationsService.reverse(authorizationId);
+        if(isReversed) {
+            return ResponseEntity
+                    .status(HttpStatus.OK)
+                    .body(new ResponseDto(CardsConstants.STATUS_200, CardsConstants.MESSAGE_200));
+        }else{
+            return ResponseEntity
+                    .status(HttpStatus.EXPECTATION_FAILED)
+                    .body(new ResponseDto(CardsConstants.STATUS_417, CardsConstants.MESSAGE_417_REVERSE));
+        }
+    }
+
+    @Operation(
+            summary = "Export Card Details REST API",
+            description = "REST API to stream every card as newline-delimited JSON"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping(value = "/export", produces = CardsConstants.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCardDetails() {
+        // rows are left in the generator buffer instead of being flushed one by one
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody responseBody = outputStream -> {
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                iCardsService.exportCards(cardsDto -> writeLine(writer, generator, cardsDto));
+            }
+        };
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(CardsConstants.APPLICATION_NDJSON_VALUE))
+                .body(responseBody);
+    }
+
+    private void writeLine(ObjectWriter writer, JsonGenerator generator, Object value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Operation(
             summary = "Get Build information",
             description = "Get Build information that is deployed into cards microservice"
@@ -0,0 +1,25 @@
+package com.eazybytes.cards.dto;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Schema(name = "BatchFetchRequest",
+        description = "Schema to hold the mobile numbers to fetch in one call"
+)
+@Data
+public class BatchFetchRequestDto {
+
+    @NotEmpty(message = "Mobile Numbers can not be a null or empty")
+    @Size(max = CardsConstants.MAX_BATCH_SIZE, message = "At most " + CardsConstants.MAX_BATCH_SIZE + " Mobile Numbers can be fetched at once")
+    @Schema(
+            description = "Mobile Numbers of the customers", example = "[\"4354437687\", \"4354437688\"]"
+    )
+    private List<@Pattern(regexp="[0-9]{10}",message = "Mobile Number must be 10 digits") String> mobileNumbers;
+
+}
@@ -0,0 +1,35 @@
+package com.eazybytes.cards.dto;
+
+import com.eazybytes.cards.entity.AuthorizationStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(name = "CardAuthorization",
+        description = "Schema to hold an amount authorized against a card"
+)
+@Data @AllArgsConstructor @NoArgsConstructor
+public class CardAuthorizationDto {
+
+    @Schema(
+            description = "Id to capture or reverse the authorization with", example = "1"
+    )
+    private Long authorizationId;
+
+    @Schema(
+            description = "Card Number of the customer", example = "100646930341"
+    )
+    private String cardNumber;
+
+    @Schema(
+            description = "Amount held against the card", example = "1000"
+    )
+    private int amount;
+
+    @Schema(
+            description = "Status of the authorization", example = "AUTHORIZED"
+    )
+    private AuthorizationStatus status;
+
+}
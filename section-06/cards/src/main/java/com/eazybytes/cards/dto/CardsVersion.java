@@ -0,0 +1,33 @@
+package com.eazybytes.cards.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Id, version and last modification time of a card, read without loading the row; used as the validator for
+ * conditional GET /api/fetch requests. When the card ledger keeps the balances, the available amount it holds is
+ * part of the validator too, since it changes without the row being written.
+ */
+public record CardsVersion(Long cardId, Long version, LocalDateTime modifiedAt, Integer ledgerAvailableAmount) {
+
+    public CardsVersion(Long cardId, Long version, LocalDateTime modifiedAt) {
+        this(cardId, version, modifiedAt, null);
+    }
+
+    public CardsVersion withLedgerAvailableAmount(int availableAmount) {
+        return new CardsVersion(cardId, version, modifiedAt, availableAmount);
+    }
+
+    public String eTag() {
+        String eTag = Long.toHexString(cardId) + "-" + Long.toHexString(version);
+        return "\"" + (ledgerAvailableAmount == null ? eTag : eTag + "-" + Integer.toHexString(ledgerAvailableAmount)) + "\"";
+    }
+
+    /**
+     * @return the modification time of the row, or null when the ledger balance makes it meaningless
+     */
+    public Instant lastModified() {
+        return ledgerAvailableAmount == null ? modifiedAt.atZone(ZoneId.systemDefault()).toInstant() : null;
+    }
+}
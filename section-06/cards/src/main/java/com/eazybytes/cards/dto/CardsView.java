@@ -0,0 +1,8 @@
+package com.eazybytes.cards.dto;
+
+/**
+ * Read-only projection of a card row, populated directly by the repository query without loading
+ * managed entities.
+ */
+public record CardsView(Long cardId, String mobileNumber, String cardNumber, String cardType, int totalLimit, int amountUsed, int availableAmount) {
+}
@@ -0,0 +1,28 @@
+package com.eazybytes.cards.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks an account event as applied, so that a redelivered copy is skipped.
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class AppliedAccountEvent {
+
+    @Id
+    private Long eventId;
+
+    private LocalDateTime appliedAt;
+}
@@ -0,0 +1,11 @@
+package com.eazybytes.cards.entity;
+
+/**
+ * Lifecycle of a {@link CardAuthorization}: a hold is either captured or reversed, never both.
+ */
+public enum AuthorizationStatus {
+
+    AUTHORIZED,
+    CAPTURED,
+    REVERSED
+}
@@ -0,0 +1,35 @@
+package com.eazybytes.cards.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * An amount held against a card. The card balance already reflects it while the authorization is
+ * {@code AUTHORIZED} or {@code CAPTURED}; reversing it gives the amount back.
+ */
+@Entity
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class CardAuthorization extends BaseEntity {
+
+    // assigned from authorizationIdAllocator, which the card ledger draws from as well
+    @Id
+    private Long authorizationId;
+
+    private Long cardId;
+
+    private int amount;
+
+    @Enumerated(EnumType.STRING)
+    private AuthorizationStatus status;
+}
@@ -2,8 +2,18 @@ package com.eazybytes.cards.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.SoftDelete;
 
 @Entity
+@DynamicUpdate
+@SoftDelete
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "cards")
+@NaturalIdCache(region = "cards-by-mobile-number")
 @Getter
 @Setter
 @ToString
@@ -15,6 +25,8 @@ public class Cards extends BaseEntity {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long cardId;
 
+	// mutable: updateCard maps the mobile number from the request onto the card
+	@NaturalId(mutable = true)
 	private String mobileNumber;
 
 	private String cardNumber;
@@ -0,0 +1,14 @@
+package com.eazybytes.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class CardBalanceUpdateException extends RuntimeException {
+
+    public CardBalanceUpdateException(String cardNumber) {
+        super("The limit and amounts of card " + cardNumber + " are kept by the card ledger and can only be changed "
+                + "by authorizations", null, false, false);
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.eazybytes.cards.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.UNPROCESSABLE_ENTITY)
+public class InsufficientFundsException extends RuntimeException {
+
+    public InsufficientFundsException(String cardNumber, int amount){
+        super("Card " + cardNumber + " does not have " + amount + " available", null, false, false);
+    }
+
+}
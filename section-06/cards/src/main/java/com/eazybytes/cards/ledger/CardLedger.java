@@ -0,0 +1,377 @@
+package com.eazybytes.cards.ledger;
+
+import com.eazybytes.cards.entity.AuthorizationStatus;
+import com.eazybytes.cards.repository.CardLedgerRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Card balances and authorizations kept in memory, for cards that take more authorizations than a row update per
+ * authorization can sustain.
+ * <p>
+ * Each card that has seen an authorization since startup has its available amount in an atomic counter, so an
+ * authorization is a compare-and-set on that counter plus one entry in the {@link WriteAheadLog}; nothing on that
+ * path waits for the database or for another card. Every {@code flush-interval} the entries written since the last
+ * flush are applied to the database in one transaction: the authorization rows, their status changes and the net
+ * change per card, together with the sequence flushed so far (the checkpoint).
+ * <p>
+ * On startup the balances of the cards in the log are read from the cards table, which is exact up to the
+ * checkpoint, and the entries after the checkpoint are replayed on top. The ledger must be the only writer of the
+ * balances of the cards it holds, and only one ledger may run against a database.
+ * <p>
+ * With {@code syncWrites} an operation only returns once its entry is forced to disk, so an approved authorization
+ * survives a crash of the machine; concurrent operations share one force (see {@link WriteAheadLog#sync()}).
+ * Without it they survive a crash of the process, and the last {@code flush-interval} is lost with the machine.
+ */
+@Slf4j
+public class CardLedger implements AutoCloseable {
+
+    private final WriteAheadLog writeAheadLog;
+    private final CardLedgerRepository cardLedgerRepository;
+    private final int flushBatchSize;
+    private final boolean syncWrites;
+
+    private final ConcurrentHashMap<Long, AtomicInteger> availableAmounts = new ConcurrentHashMap<>();
+    // authorizations with changes that are not flushed yet, plus ones read back from the database
+    private final ConcurrentHashMap<Long, AuthorizationState> authorizations = new ConcurrentHashMap<>();
+    private final AtomicLong nextSequence;
+    private final AtomicLong flushes = new AtomicLong();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile long checkpoint;
+    private volatile boolean closed;
+    private ScheduledExecutorService flushExecutor;
+
+    /**
+     * Rebuilds the state from the database and the log tail.
+     *
+     * @param writeAheadLog        - write-ahead log, possibly left over from a previous run
+     * @param cardLedgerRepository - database side of the ledger
+     * @param flushBatchSize       - most entries written to the database per transaction
+     * @param syncWrites           - whether operations wait for their entry to be forced to disk
+     */
+    public CardLedger(WriteAheadLog writeAheadLog, CardLedgerRepository cardLedgerRepository, int flushBatchSize,
+                      boolean syncWrites) {
+        this.writeAheadLog = writeAheadLog;
+        this.cardLedgerRepository = cardLedgerRepository;
+        this.flushBatchSize = flushBatchSize;
+        this.syncWrites = syncWrites;
+        this.checkpoint = cardLedgerRepository.findCheckpoint();
+
+        long last = checkpoint;
+        List<LedgerEntry> tail = writeAheadLog.readAll().stream()
+                .filter(entry -> entry.sequence() > checkpoint)
+                .sorted(Comparator.comparingLong(LedgerEntry::sequence))
+                .toList();
+        for (LedgerEntry entry : tail) {
+            // torn by the crash, so the caller never got an answer for it
+            for (long missing = last + 1; missing < entry.sequence(); missing++) {
+                writeAheadLog.write(LedgerEntry.noop(missing));
+            }
+            replay(entry);
+            last = entry.sequence();
+        }
+        this.nextSequence = new AtomicLong(last + 1);
+        if (!tail.isEmpty()) {
+            log.info("Replayed {} card ledger entries after checkpoint {}", tail.size(), checkpoint);
+        }
+    }
+
+    /**
+     * Flushes every {@code interval} on a thread of its own, so that flushes do not queue up behind other
+     * scheduled work.
+     */
+    public void startFlushing(Duration interval) {
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("card-ledger-flush").daemon().factory());
+        flushExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                log.warn("Card ledger flush failed, retrying in {}", interval, e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return true when the card had {@code amount} available and now holds it; false when it did not or the card
+     * does not exist
+     */
+    public boolean authorize(long authorizationId, long cardId, int amount) {
+        AtomicInteger availableAmount = availableAmount(cardId);
+        if (availableAmount == null || !withdraw(availableAmount, amount)) {
+            return false;
+        }
+        long sequence;
+        try {
+            sequence = claimSequence();
+        } catch (IllegalStateException e) {
+            availableAmount.addAndGet(amount);
+            throw e;
+        }
+        AuthorizationState authorized =
+                new AuthorizationState(cardId, amount, AuthorizationStatus.AUTHORIZED, sequence);
+        authorizations.put(authorizationId, authorized);
+        try {
+            writeAheadLog.write(entry(sequence, LedgerEntry.Type.AUTHORIZE, authorizationId, cardId, amount));
+        } catch (RuntimeException e) {
+            abandon(sequence);
+            authorizations.remove(authorizationId, authorized);
+            availableAmount.addAndGet(amount);
+            throw e;
+        }
+        sync();
+        return true;
+    }
+
+    /**
+     * @return status of the authorization afterwards, empty when there is no such authorization
+     */
+    public Optional<AuthorizationStatus> capture(long authorizationId) {
+        return settle(authorizationId, AuthorizationStatus.CAPTURED);
+    }
+
+    /**
+     * @return status of the authorization afterwards, empty when there is no such authorization
+     */
+    public Optional<AuthorizationStatus> reverse(long authorizationId) {
+        return settle(authorizationId, AuthorizationStatus.REVERSED);
+    }
+
+    private Optional<AuthorizationStatus> settle(long authorizationId, AuthorizationStatus target) {
+        while (true) {
+            AuthorizationState state = authorizationState(authorizationId);
+            if (state == null) {
+                return Optional.empty();
+            }
+            if (state.status() != AuthorizationStatus.AUTHORIZED) {
+                return Optional.of(state.status());
+            }
+            // loaded before a sequence is claimed, as it may query the database, and credited only once the entry
+            // is logged: otherwise a crash could lose a reversal whose amount was already spent again
+            AtomicInteger availableAmount = target == AuthorizationStatus.REVERSED
+                    ? availableAmount(state.cardId()) : null;
+            long sequence = claimSequence();
+            AuthorizationState settled = new AuthorizationState(state.cardId(), state.amount(), target, sequence);
+            if (!authorizations.replace(authorizationId, state, settled)) {
+                // settled concurrently; the sequence is spent either way
+                abandon(sequence);
+                continue;
+            }
+            try {
+                writeAheadLog.write(entry(sequence, target == AuthorizationStatus.CAPTURED ? LedgerEntry.Type.CAPTURE
+                        : LedgerEntry.Type.REVERSE, authorizationId, state.cardId(), state.amount()));
+            } catch (RuntimeException e) {
+                abandon(sequence);
+                authorizations.replace(authorizationId, settled, state);
+                throw e;
+            }
+            sync();
+            if (availableAmount != null) {
+                availableAmount.addAndGet(state.amount());
+            }
+            return Optional.of(target);
+        }
+    }
+
+    /**
+     * Writes the contiguous run of entries after the checkpoint to the database.
+     *
+     * @return number of entries flushed
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            if (closed) {
+                return 0;
+            }
+            writeAheadLog.force();
+            List<LedgerEntry> entries = new ArrayList<>();
+            LedgerEntry entry;
+            while (entries.size() < flushBatchSize && (entry = writeAheadLog.read(checkpoint + entries.size() + 1)) != null) {
+                entries.add(entry);
+            }
+            if (entries.isEmpty()) {
+                return 0;
+            }
+            long flushed = entries.getLast().sequence();
+            cardLedgerRepository.write(entries, flushed);
+            checkpoint = flushed;
+            // counted before the states are dropped, see authorizationState
+            flushes.incrementAndGet();
+            authorizations.values().removeIf(state -> state.sequence() <= flushed);
+            return entries.size();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * @return available amount of the card, empty when it has not been loaded, in which case the table has it
+     */
+    public OptionalInt loadedAvailableAmount(long cardId) {
+        AtomicInteger availableAmount = availableAmounts.get(cardId);
+        return availableAmount == null ? OptionalInt.empty() : OptionalInt.of(availableAmount.get());
+    }
+
+    /**
+     * @return number of entries written but not flushed yet
+     */
+    public long unflushed() {
+        return nextSequence.get() - 1 - checkpoint;
+    }
+
+    /**
+     * Flushes everything that is left. When that fails the entries stay in the log for the next start.
+     */
+    @Override
+    public void close() throws IOException {
+        if (flushExecutor != null) {
+            flushExecutor.shutdownNow();
+        }
+        try {
+            while (flush() > 0) {
+                // next batch
+            }
+        } finally {
+            flushLock.lock();
+            try {
+                closed = true;
+                writeAheadLog.close();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private void replay(LedgerEntry entry) {
+        switch (entry.type()) {
+            case AUTHORIZE -> {
+                AtomicInteger availableAmount = availableAmount(entry.cardId());
+                if (availableAmount != null) {
+                    availableAmount.addAndGet(-entry.amount());
+                }
+                authorizations.put(entry.authorizationId(), new AuthorizationState(entry.cardId(), entry.amount(),
+                        AuthorizationStatus.AUTHORIZED, entry.sequence()));
+            }
+            case CAPTURE, REVERSE -> {
+                AtomicInteger availableAmount = availableAmount(entry.cardId());
+                if (entry.type() == LedgerEntry.Type.REVERSE && availableAmount != null) {
+                    availableAmount.addAndGet(entry.amount());
+                }
+                authorizations.put(entry.authorizationId(), new AuthorizationState(entry.cardId(), entry.amount(),
+                        entry.type() == LedgerEntry.Type.REVERSE ? AuthorizationStatus.REVERSED
+                                : AuthorizationStatus.CAPTURED, entry.sequence()));
+            }
+            case NOOP -> {
+            }
+        }
+    }
+
+    /**
+     * A card only gets entries once it is loaded, and is never unloaded, so the table holds its exact balance
+     * whenever it is loaded.
+     */
+    private AtomicInteger availableAmount(long cardId) {
+        AtomicInteger availableAmount = availableAmounts.get(cardId);
+        if (availableAmount != null) {
+            return availableAmount;
+        }
+        return cardLedgerRepository.findAvailableAmount(cardId)
+                .map(AtomicInteger::new)
+                .map(loaded -> Objects.requireNonNullElse(availableAmounts.putIfAbsent(cardId, loaded), loaded))
+                .orElse(null);
+    }
+
+    /**
+     * An authorization missing from the map has no unflushed changes, so the database has its current status.
+     * Unless a flush stored a newer status and dropped the state while the row was being read: then the row is
+     * stale and is read again.
+     */
+    private AuthorizationState authorizationState(long authorizationId) {
+        while (true) {
+            AuthorizationState state = authorizations.get(authorizationId);
+            if (state != null) {
+                return state;
+            }
+            long flushesBefore = flushes.get();
+            AuthorizationState stored = cardLedgerRepository.findAuthorization(authorizationId)
+                    .map(authorization -> new AuthorizationState(authorization.getCardId(),
+                            authorization.getAmount(), authorization.getStatus(), 0))
+                    .orElse(null);
+            if (stored == null) {
+                return null;
+            }
+            state = authorizations.compute(authorizationId, (id, current) ->
+                    current != null ? current : flushes.get() == flushesBefore ? stored : null);
+            if (state != null) {
+                return state;
+            }
+        }
+    }
+
+    /**
+     * Slot {@code sequence % capacity} still holds entry {@code sequence - capacity}, which must be flushed.
+     */
+    private long claimSequence() {
+        while (true) {
+            long sequence = nextSequence.get();
+            if (sequence - checkpoint > writeAheadLog.capacity()) {
+                throw new IllegalStateException("Card ledger log is full, " + (sequence - 1 - checkpoint)
+                        + " entries are waiting to be flushed");
+            }
+            if (nextSequence.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    /**
+     * Fills a claimed slot that will not get its entry, so that flushes can move past it.
+     */
+    private void abandon(long sequence) {
+        writeAheadLog.write(LedgerEntry.noop(sequence));
+    }
+
+    private void sync() {
+        if (syncWrites) {
+            writeAheadLog.sync();
+        }
+    }
+
+    private static boolean withdraw(AtomicInteger availableAmount, int amount) {
+        int current;
+        do {
+            current = availableAmount.get();
+            if (current < amount) {
+                return false;
+            }
+        } while (!availableAmount.compareAndSet(current, current - amount));
+        return true;
+    }
+
+    private static LedgerEntry entry(long sequence, LedgerEntry.Type type, long authorizationId, long cardId,
+                                     int amount) {
+        return new LedgerEntry(sequence, type, authorizationId, cardId, amount, System.currentTimeMillis());
+    }
+
+    /**
+     * @param sequence - last log entry that changed the authorization, 0 when read from the database
+     */
+    private record AuthorizationState(long cardId, int amount, AuthorizationStatus status, long sequence) {
+    }
+}
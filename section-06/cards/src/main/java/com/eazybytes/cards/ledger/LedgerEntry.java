@@ -0,0 +1,29 @@
+package com.eazybytes.cards.ledger;
+
+/**
+ * One record of the {@link WriteAheadLog}.
+ *
+ * @param sequence        - position in the log, starting at 1 and without gaps
+ * @param type            - what happened
+ * @param authorizationId - authorization the entry belongs to, 0 for {@code NOOP}
+ * @param cardId          - card the authorization is held against, 0 for {@code NOOP}
+ * @param amount          - amount of the authorization, 0 for {@code NOOP}
+ * @param timestamp       - epoch millis when the entry was written
+ */
+public record LedgerEntry(long sequence, Type type, long authorizationId, long cardId, int amount, long timestamp) {
+
+    /**
+     * Stored by ordinal, so new types may only be added at the end.
+     */
+    public enum Type {
+        /** fills a sequence that was claimed but not used, so that the log has no gaps */
+        NOOP,
+        AUTHORIZE,
+        CAPTURE,
+        REVERSE
+    }
+
+    static LedgerEntry noop(long sequence) {
+        return new LedgerEntry(sequence, Type.NOOP, 0, 0, 0, System.currentTimeMillis());
+    }
+}
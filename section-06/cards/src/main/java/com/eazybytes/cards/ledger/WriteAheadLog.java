@@ -0,0 +1,161 @@
+package com.eazybytes.cards.ledger;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Memory-mapped ring of fixed-size {@link LedgerEntry} records. The entry with sequence {@code n} lives in slot
+ * {@code n % capacity}, so writers that claimed different sequences never touch the same bytes and need no lock.
+ * A slot may only be reused once its previous entry has been flushed, which {@link CardLedger} makes sure of.
+ * <p>
+ * The sequence is written last with release semantics and read first with acquire semantics, so a reader that
+ * finds the sequence it expects also sees the rest of the record. A CRC over the whole record tells intact records
+ * from ones torn by a crash. Entries survive a crash of the process as soon as they are written; they survive a
+ * crash of the machine once {@link #force()} or {@link #sync()} has run.
+ */
+public class WriteAheadLog implements AutoCloseable {
+
+    static final int RECORD_SIZE = 48;
+
+    private static final VarHandle LONG_VIEW =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final LedgerEntry.Type[] TYPES = LedgerEntry.Type.values();
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final ReentrantLock syncLock = new ReentrantLock();
+    // forces started and completed by sync, only changed while holding syncLock
+    private volatile long syncsStarted;
+    private volatile long syncsCompleted;
+
+    /**
+     * @param file     - log file, created when missing
+     * @param capacity - number of entries the log holds
+     */
+    public WriteAheadLog(Path file, int capacity) throws IOException {
+        long size = (long) capacity * RECORD_SIZE;
+        if (capacity < 1 || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("capacity must be between 1 and " + Integer.MAX_VALUE / RECORD_SIZE);
+        }
+        this.channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long existingSize = channel.size();
+        if (existingSize != 0 && existingSize != size) {
+            channel.close();
+            throw new IllegalStateException(file + " holds " + existingSize / RECORD_SIZE
+                    + " entries, not " + capacity + "; flush it with the old capacity first");
+        }
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        this.buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.capacity = capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void write(LedgerEntry entry) {
+        int offset = offset(entry.sequence());
+        buffer.putLong(offset + 8, entry.authorizationId());
+        buffer.putLong(offset + 16, entry.cardId());
+        buffer.putInt(offset + 24, entry.amount());
+        buffer.putInt(offset + 28, entry.type().ordinal());
+        buffer.putLong(offset + 32, entry.timestamp());
+        buffer.putInt(offset + 40, checksum(entry));
+        LONG_VIEW.setRelease(buffer, offset, entry.sequence());
+    }
+
+    /**
+     * @return the entry with the given sequence, or null while it is not completely written
+     */
+    public LedgerEntry read(long sequence) {
+        LedgerEntry entry = readSlot(offset(sequence));
+        return entry != null && entry.sequence() == sequence ? entry : null;
+    }
+
+    /**
+     * @return every intact entry in the log, in slot order
+     */
+    public List<LedgerEntry> readAll() {
+        List<LedgerEntry> entries = new ArrayList<>();
+        for (int slot = 0; slot < capacity; slot++) {
+            LedgerEntry entry = readSlot(slot * RECORD_SIZE);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    public void force() {
+        buffer.force();
+    }
+
+    /**
+     * Forces the entries written before the call, sharing the force with concurrent callers (group commit): a
+     * caller that finds a force started after its write has completed returns without forcing again, and callers
+     * that queued up during a force are covered by the next single one.
+     */
+    public void sync() {
+        long started = syncsStarted;
+        syncLock.lock();
+        try {
+            if (syncsCompleted > started) {
+                return;
+            }
+            long sync = syncsStarted + 1;
+            syncsStarted = sync;
+            buffer.force();
+            syncsCompleted = sync;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private LedgerEntry readSlot(int offset) {
+        long sequence = (long) LONG_VIEW.getAcquire(buffer, offset);
+        int type = buffer.getInt(offset + 28);
+        if (sequence <= 0 || type < 0 || type >= TYPES.length) {
+            return null;
+        }
+        LedgerEntry entry = new LedgerEntry(sequence, TYPES[type], buffer.getLong(offset + 8),
+                buffer.getLong(offset + 16), buffer.getInt(offset + 24), buffer.getLong(offset + 32));
+        return buffer.getInt(offset + 40) == checksum(entry) ? entry : null;
+    }
+
+    private int offset(long sequence) {
+        return (int) (sequence % capacity) * RECORD_SIZE;
+    }
+
+    private static int checksum(LedgerEntry entry) {
+        ByteBuffer record = ByteBuffer.allocate(40)
+                .putLong(entry.sequence())
+                .putLong(entry.authorizationId())
+                .putLong(entry.cardId())
+                .putInt(entry.amount())
+                .putInt(entry.type().ordinal())
+                .putLong(entry.timestamp())
+                .flip();
+        CRC32C crc = new CRC32C();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+}
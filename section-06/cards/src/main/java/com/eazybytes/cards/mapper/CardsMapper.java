@@ -1,6 +1,7 @@
 package com.eazybytes.cards.mapper;
 
 import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.dto.CardsView;
 import com.eazybytes.cards.entity.Cards;
 
 public class CardsMapper {
@@ -15,6 +16,16 @@ public class CardsMapper {
         return cardsDto;
     }
 
+    public static CardsDto mapToCardsDto(CardsView cardsView, CardsDto cardsDto) {
+        cardsDto.setCardNumber(cardsView.cardNumber());
+        cardsDto.setCardType(cardsView.cardType());
+        cardsDto.setMobileNumber(cardsView.mobileNumber());
+        cardsDto.setTotalLimit(cardsView.totalLimit());
+        cardsDto.setAvailableAmount(cardsView.availableAmount());
+        cardsDto.setAmountUsed(cardsView.amountUsed());
+        return cardsDto;
+    }
+
     public static Cards mapToCards(CardsDto cardsDto, Cards cards) {
         cards.setCardNumber(cardsDto.getCardNumber());
         cards.setCardType(cardsDto.getCardType());
@@ -25,4 +36,14 @@ public class CardsMapper {
         return cards;
     }
 
+    /**
+     * For cards whose limit and amounts are kept by the card ledger.
+     */
+    public static Cards mapToCardsExceptBalances(CardsDto cardsDto, Cards cards) {
+        cards.setCardNumber(cardsDto.getCardNumber());
+        cards.setCardType(cardsDto.getCardType());
+        cards.setMobileNumber(cardsDto.getMobileNumber());
+        return cards;
+    }
+
 }
@@ -0,0 +1,106 @@
+package com.eazybytes.cards.purge;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Hard-deletes the card rows that deletes have only flagged ({@code @SoftDelete}), during the off-peak
+ * {@code cards.purge.cron} schedule. Rows go in batches of {@code batch-size}, one auto-committed statement each,
+ * with a {@code pause} in between and at most {@code max-batches-per-run} batches per run.
+ * <p>
+ * The same run forgets account events applied longer than {@code cards.events.applied-retention} ago; redeliveries
+ * come within minutes, so older markers no longer prevent anything.
+ * <p>
+ * Uses plain JDBC so that Hibernate does not invalidate the cards cache region for rows it no longer sees.
+ */
+@Slf4j
+@Component
+public class TombstonePurger {
+
+    static final String PURGED_COUNTER = "softdelete.purged";
+    static final String BATCH_TIMER = "softdelete.purge.batch";
+
+    private static final String TABLE = "cards";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final Duration pause;
+    private final int maxBatchesPerRun;
+    private final Duration appliedEventRetention;
+
+    public TombstonePurger(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                           @Value("${cards.purge.batch-size:500}") int batchSize,
+                           @Value("${cards.purge.pause:200ms}") Duration pause,
+                           @Value("${cards.purge.max-batches-per-run:100}") int maxBatchesPerRun,
+                           @Value("${cards.events.applied-retention:7d}") Duration appliedEventRetention) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.appliedEventRetention = appliedEventRetention;
+    }
+
+    @Scheduled(cron = "${cards.purge.cron:0 */10 1-4 * * *}")
+    public void purgeOffPeak() {
+        long purged = purge();
+        if (purged > 0) {
+            log.info("Purged {} soft-deleted cards", purged);
+        }
+        forgetAppliedEvents();
+    }
+
+    /**
+     * @return number of applied event markers removed
+     */
+    public int forgetAppliedEvents() {
+        return jdbcTemplate.update("delete from applied_account_event where applied_at < ?",
+                LocalDateTime.now().minus(appliedEventRetention));
+    }
+
+    /**
+     * @return number of rows removed
+     */
+    public long purge() {
+        String sql = "delete from " + TABLE + " where deleted = true limit ?";
+        Counter purgedRows = Counter.builder(PURGED_COUNTER)
+                .description("Soft-deleted rows removed by the purger")
+                .tag("table", TABLE)
+                .register(meterRegistry);
+        Timer batchTimer = Timer.builder(BATCH_TIMER)
+                .description("Time taken by one purge batch")
+                .tag("table", TABLE)
+                .register(meterRegistry);
+
+        long purged = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            int deleted = batchTimer.record(() -> jdbcTemplate.update(sql, batchSize));
+            purgedRows.increment(deleted);
+            purged += deleted;
+            if (deleted < batchSize || !pause()) {
+                break;
+            }
+        }
+        return purged;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.eazybytes.cards.repository;
+
+import com.eazybytes.cards.entity.CardAuthorization;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CardAuthorizationRepository extends JpaRepository<CardAuthorization, Long> {
+}
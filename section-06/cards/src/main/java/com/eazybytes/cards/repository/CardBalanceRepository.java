@@ -0,0 +1,110 @@
+package com.eazybytes.cards.repository;
+
+import com.eazybytes.cards.entity.Cards;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Moves money between the available amount and the amount used of a card with one conditional UPDATE each, so
+ * the balance is never read into the application and the row lock lasts a single statement (plus the commit).
+ * <p>
+ * Plain JDBC rather than a Hibernate mutation query, which would invalidate the whole cards cache region on every
+ * call. Only the touched card is evicted instead, once the transaction has committed. The version column is bumped
+ * so that an update of the card through JPA that raced with a hold fails instead of overwriting it.
+ */
+@Repository
+public class CardBalanceRepository {
+
+    private static final String HOLD_SQL = "update cards set amount_used = amount_used + ?, "
+            + "available_amount = available_amount - ?, version = version + 1, updated_at = ?, updated_by = ? "
+            + "where card_id = ? and deleted = false and available_amount >= ?";
+
+    private static final String RELEASE_SQL = "update cards set amount_used = amount_used - ?, "
+            + "available_amount = available_amount + ?, version = version + 1, updated_at = ?, updated_by = ? "
+            + "where card_id = ? and amount_used >= ?";
+
+    private static final String ADJUST_SQL = "update cards set amount_used = amount_used + ?, "
+            + "available_amount = available_amount - ?, version = version + 1, updated_at = ?, updated_by = ? "
+            + "where card_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final AuditorAware<String> auditorAware;
+
+    public CardBalanceRepository(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                 AuditorAware<String> auditorAware) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.auditorAware = auditorAware;
+    }
+
+    /**
+     * @return true when the card had at least {@code amount} available and now holds it, false otherwise
+     */
+    public boolean hold(Long cardId, int amount) {
+        return update(HOLD_SQL, cardId, amount);
+    }
+
+    /**
+     * Gives a held amount back; deleted cards included, so that a late reversal still balances their books.
+     *
+     * @return false when the card is gone or does not hold that much
+     */
+    public boolean release(Long cardId, int amount) {
+        return update(RELEASE_SQL, cardId, amount);
+    }
+
+    /**
+     * @return true while the card row is there, deleted or not; false once the TombstonePurger removed it
+     */
+    public boolean exists(Long cardId) {
+        return jdbcTemplate.queryForObject("select count(*) from cards where card_id = ?", Integer.class, cardId) > 0;
+    }
+
+    /**
+     * Moves {@code amountUsed} from the available amount to the amount used, or back when negative, without any
+     * check. For amounts whose checks already happened elsewhere.
+     */
+    public void adjust(Long cardId, int amountUsed) {
+        evictIfUpdated(jdbcTemplate.update(ADJUST_SQL, amountUsed, amountUsed, LocalDateTime.now(),
+                auditorAware.getCurrentAuditor().orElse(null), cardId), cardId);
+    }
+
+    private boolean update(String sql, Long cardId, int amount) {
+        return evictIfUpdated(jdbcTemplate.update(sql, amount, amount, LocalDateTime.now(),
+                auditorAware.getCurrentAuditor().orElse(null), cardId, amount), cardId);
+    }
+
+    private boolean evictIfUpdated(int updated, Long cardId) {
+        if (updated > 0) {
+            evictAfterCommit(cardId);
+        }
+        return updated > 0;
+    }
+
+    /**
+     * Evicting before the commit would let a concurrent read put the old balance straight back into the cache.
+     */
+    private void evictAfterCommit(Long cardId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(cardId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(cardId);
+            }
+        });
+    }
+
+    private void evict(Long cardId) {
+        entityManagerFactory.getCache().evict(Cards.class, cardId);
+    }
+}
@@ -0,0 +1,115 @@
+package com.eazybytes.cards.repository;
+
+import com.eazybytes.cards.entity.AuthorizationStatus;
+import com.eazybytes.cards.entity.CardAuthorization;
+import com.eazybytes.cards.ledger.LedgerEntry;
+import org.springframework.data.domain.AuditorAware;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Database side of the {@code CardLedger}. Plain JDBC, so reads always go to the primary even outside of a
+ * transaction, and balances are written through {@link CardBalanceRepository}, which evicts only the cards it
+ * touched from the second-level cache.
+ */
+@Repository
+public class CardLedgerRepository {
+
+    private static final int CHECKPOINT_ID = 1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CardBalanceRepository cardBalanceRepository;
+    private final AuditorAware<String> auditorAware;
+
+    public CardLedgerRepository(JdbcTemplate jdbcTemplate, CardBalanceRepository cardBalanceRepository,
+                                AuditorAware<String> auditorAware) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cardBalanceRepository = cardBalanceRepository;
+        this.auditorAware = auditorAware;
+    }
+
+    /**
+     * @return sequence of the last ledger entry written to the database, 0 before the first flush
+     */
+    public long findCheckpoint() {
+        List<Long> checkpoint = jdbcTemplate.queryForList(
+                "select sequence from card_ledger_checkpoint where id = ?", Long.class, CHECKPOINT_ID);
+        if (checkpoint.isEmpty()) {
+            jdbcTemplate.update("insert into card_ledger_checkpoint (id, sequence) values (?, 0)", CHECKPOINT_ID);
+            return 0;
+        }
+        return checkpoint.getFirst();
+    }
+
+    public Optional<Integer> findAvailableAmount(long cardId) {
+        return jdbcTemplate.queryForList("select available_amount from cards where card_id = ? and deleted = false",
+                Integer.class, cardId).stream().findFirst();
+    }
+
+    public Optional<CardAuthorization> findAuthorization(long authorizationId) {
+        return jdbcTemplate.query("select card_id, amount, status from card_authorization where authorization_id = ?",
+                (rs, rowNum) -> new CardAuthorization(authorizationId, rs.getLong("card_id"), rs.getInt("amount"),
+                        AuthorizationStatus.valueOf(rs.getString("status"))),
+                authorizationId).stream().findFirst();
+    }
+
+    /**
+     * Applies the entries and moves the checkpoint in one transaction, so each entry is applied exactly once.
+     *
+     * @param entries    - consecutive ledger entries, oldest first
+     * @param checkpoint - sequence of the last entry
+     */
+    @Transactional
+    public void write(List<LedgerEntry> entries, long checkpoint) {
+        String auditor = auditorAware.getCurrentAuditor().orElse(null);
+        List<Object[]> authorizations = new ArrayList<>();
+        List<Object[]> settlements = new ArrayList<>();
+        Map<Long, Integer> amountsUsed = new LinkedHashMap<>();
+        for (LedgerEntry entry : entries) {
+            Timestamp timestamp = timestamp(entry.timestamp());
+            switch (entry.type()) {
+                case AUTHORIZE -> {
+                    authorizations.add(new Object[]{entry.authorizationId(), entry.cardId(), entry.amount(),
+                            AuthorizationStatus.AUTHORIZED.name(), timestamp, auditor});
+                    amountsUsed.merge(entry.cardId(), entry.amount(), Integer::sum);
+                }
+                case CAPTURE -> settlements.add(new Object[]{AuthorizationStatus.CAPTURED.name(), timestamp, auditor,
+                        entry.authorizationId()});
+                case REVERSE -> {
+                    settlements.add(new Object[]{AuthorizationStatus.REVERSED.name(), timestamp, auditor,
+                            entry.authorizationId()});
+                    amountsUsed.merge(entry.cardId(), -entry.amount(), Integer::sum);
+                }
+                case NOOP -> {
+                }
+            }
+        }
+
+        jdbcTemplate.batchUpdate("insert into card_authorization (authorization_id, card_id, amount, status, "
+                + "created_at, created_by, version) values (?, ?, ?, ?, ?, ?, 0)", authorizations);
+        // after the inserts, since an authorization may be created and settled within one batch
+        jdbcTemplate.batchUpdate("update card_authorization set status = ?, updated_at = ?, updated_by = ?, "
+                + "version = version + 1 where authorization_id = ?", settlements);
+        amountsUsed.forEach((cardId, amountUsed) -> {
+            if (amountUsed != 0) {
+                cardBalanceRepository.adjust(cardId, amountUsed);
+            }
+        });
+        jdbcTemplate.update("update card_ledger_checkpoint set sequence = ? where id = ?", checkpoint, CHECKPOINT_ID);
+    }
+
+    private static Timestamp timestamp(long epochMillis) {
+        return Timestamp.valueOf(LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault()));
+    }
+}
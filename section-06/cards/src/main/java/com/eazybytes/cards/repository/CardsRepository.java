@@ -1,16 +1,45 @@
 package com.eazybytes.cards.repository;
 
+import com.eazybytes.cards.dto.CardsVersion;
+import com.eazybytes.cards.dto.CardsView;
 import com.eazybytes.cards.entity.Cards;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface CardsRepository extends JpaRepository<Cards, Long> {
+public interface CardsRepository extends NaturalIdRepository<Cards, Long> {
 
-    Optional<Cards> findByMobileNumber(String mobileNumber);
+    /**
+     * mobileNumber is the card's natural id, so repeated lookups are answered from the second-level cache.
+     */
+    default Optional<Cards> findByMobileNumber(String mobileNumber) {
+        return findBySimpleNaturalId(mobileNumber);
+    }
+
+    List<Cards> findByMobileNumberIn(Collection<String> mobileNumbers);
+
+    @Query("select new com.eazybytes.cards.dto.CardsVersion(c.cardId, c.version, coalesce(c.updatedAt, c.createdAt)) " +
+            "from Cards c where c.mobileNumber = :mobileNumber")
+    Optional<CardsVersion> findCardsVersionByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    /**
+     * Keyset page of cards whose id is greater than the given one, projected so nothing enters the
+     * persistence context.
+     */
+    @Query("select new com.eazybytes.cards.dto.CardsView(c.cardId, c.mobileNumber, c.cardNumber, c.cardType, " +
+            "c.totalLimit, c.amountUsed, c.availableAmount) " +
+            "from Cards c where c.cardId > :afterCardId order by c.cardId")
+    List<CardsView> findCardsAfter(@Param("afterCardId") Long afterCardId, Limit limit);
 
     Optional<Cards> findByCardNumber(String cardNumber);
 
+    @Query("select c.cardId from Cards c where c.cardNumber = :cardNumber")
+    Optional<Long> findCardIdByCardNumber(@Param("cardNumber") String cardNumber);
+
 }
@@ -0,0 +1,15 @@
+package com.eazybytes.cards.service;
+
+import com.eazybytes.cards.dto.AccountEventDto;
+
+import java.util.List;
+
+public interface IAccountEventsService {
+
+    /**
+     *
+     * @param accountEvents - Account lifecycle events, oldest first
+     */
+    void applyAccountEvents(List<AccountEventDto> accountEvents);
+
+}
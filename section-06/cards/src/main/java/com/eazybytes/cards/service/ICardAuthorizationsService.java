@@ -0,0 +1,43 @@
+package com.eazybytes.cards.service;
+
+import com.eazybytes.cards.dto.CardAuthorizationDto;
+
+import java.util.OptionalInt;
+
+public interface ICardAuthorizationsService {
+
+    /**
+     *
+     * @param cardNumber - Card Number to hold the amount against
+     * @param amount - Amount to hold
+     * @return the new authorization
+     */
+    CardAuthorizationDto authorize(String cardNumber, int amount);
+
+    /**
+     *
+     * @param authorizationId - Id of the authorization
+     * @return boolean indicating if the authorization is captured, false when it was reversed
+     */
+    boolean capture(Long authorizationId);
+
+    /**
+     *
+     * @param authorizationId - Id of the authorization
+     * @return boolean indicating if the authorization is reversed, false when it was captured
+     */
+    boolean reverse(Long authorizationId);
+
+    /**
+     * @return whether balances are kept outside of the cards table, so that only authorizations may change them
+     */
+    boolean keepsBalances();
+
+    /**
+     *
+     * @param cardId - Id of the card
+     * @return available amount of the card when it is kept outside of the cards table, empty when the table has it
+     */
+    OptionalInt availableAmount(long cardId);
+
+}
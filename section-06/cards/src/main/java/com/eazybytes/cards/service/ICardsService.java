@@ -1,6 +1,11 @@
 package com.eazybytes.cards.service;
 
+import com.eazybytes.cards.dto.BatchFetchResponseDto;
 import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.dto.CardsVersion;
+
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface ICardsService {
 
@@ -17,6 +22,33 @@ public interface ICardsService {
      */
     CardsDto fetchCard(String mobileNumber);
 
+    /**
+     *
+     * @param version - Version of the Card, as read by fetchCardVersion
+     * @return Card Details at that version or a later one
+     */
+    CardsDto fetchCard(CardsVersion version);
+
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return id, version and modification timestamp of the Card, without its details
+     */
+    CardsVersion fetchCardVersion(String mobileNumber);
+
+    /**
+     *
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Card Details keyed by mobileNumber, plus the mobileNumbers that were not found
+     */
+    BatchFetchResponseDto<CardsDto> fetchCards(List<String> mobileNumbers);
+
+    /**
+     *
+     * @param sink - Receives every Card Details, in cardId order
+     */
+    void exportCards(Consumer<CardsDto> sink);
+
     /**
      *
      * @param cardsDto - CardsDto Object
@@ -31,4 +63,12 @@ public interface ICardsService {
      */
     boolean deleteCard(String mobileNumber);
 
+    /**
+     *
+     * @param previousMobileNumber - Mobile Number the Card is registered with
+     * @param mobileNumber - New Mobile Number of the Customer
+     * @return boolean indicating if a card was moved to the new mobile number
+     */
+    boolean updateMobileNumber(String previousMobileNumber, String mobileNumber);
+
 }
@@ -0,0 +1,77 @@
+package com.eazybytes.cards.service.impl;
+
+import com.eazybytes.cards.dto.AccountEventDto;
+import com.eazybytes.cards.entity.AppliedAccountEvent;
+import com.eazybytes.cards.exception.CardAlreadyExistsException;
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.repository.AppliedAccountEventRepository;
+import com.eazybytes.cards.service.IAccountEventsService;
+import com.eazybytes.cards.service.ICardsService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class AccountEventsServiceImpl implements IAccountEventsService {
+
+    private ICardsService iCardsService;
+    private AppliedAccountEventRepository appliedAccountEventRepository;
+
+    /**
+     * Keeps a card per account: a new account gets a card, a deleted one loses it, and a changed mobile number
+     * moves the card along.
+     * <p>
+     * Events arrive at least once, and a redelivered batch may replay a create after the card already moved to
+     * a new mobile number. Applied event ids are therefore remembered and skipped. The id is stored only after
+     * the event took effect, each in its own transaction, so a failure in between replays one event whose
+     * effect is already there, which the card operations treat as a no-op.
+     *
+     * @param accountEvents - Account lifecycle events, oldest first
+     */
+    @Override
+    public void applyAccountEvents(List<AccountEventDto> accountEvents) {
+        for (AccountEventDto accountEvent : accountEvents) {
+            if (accountEvent.eventId() != null && appliedAccountEventRepository.existsById(accountEvent.eventId())) {
+                continue;
+            }
+            apply(accountEvent);
+            if (accountEvent.eventId() != null) {
+                appliedAccountEventRepository.save(new AppliedAccountEvent(accountEvent.eventId(), LocalDateTime.now()));
+            }
+        }
+    }
+
+    private void apply(AccountEventDto accountEvent) {
+        switch (accountEvent.eventType()) {
+            case AccountEventDto.ACCOUNT_CREATED -> provisionCard(accountEvent.mobileNumber());
+            case AccountEventDto.ACCOUNT_UPDATED -> {
+                if (accountEvent.previousMobileNumber() != null) {
+                    iCardsService.updateMobileNumber(accountEvent.previousMobileNumber(), accountEvent.mobileNumber());
+                }
+            }
+            case AccountEventDto.ACCOUNT_DELETED -> removeCard(accountEvent.mobileNumber());
+            default -> log.debug("Ignoring account event {} of type {}", accountEvent.eventId(), accountEvent.eventType());
+        }
+    }
+
+    private void provisionCard(String mobileNumber) {
+        try {
+            iCardsService.createCard(mobileNumber);
+        } catch (CardAlreadyExistsException e) {
+            // redelivered event, or the card was created through /api/create
+        }
+    }
+
+    private void removeCard(String mobileNumber) {
+        try {
+            iCardsService.deleteCard(mobileNumber);
+        } catch (ResourceNotFoundException e) {
+            // already gone
+        }
+    }
+}
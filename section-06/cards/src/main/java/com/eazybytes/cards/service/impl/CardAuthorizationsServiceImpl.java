@@ -0,0 +1,113 @@
+package com.eazybytes.cards.service.impl;
+
+import com.eazybytes.cards.dto.CardAuthorizationDto;
+import com.eazybytes.cards.entity.AuthorizationStatus;
+import com.eazybytes.cards.entity.CardAuthorization;
+import com.eazybytes.cards.exception.InsufficientFundsException;
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.repository.CardAuthorizationRepository;
+import com.eazybytes.cards.repository.CardBalanceRepository;
+import com.eazybytes.cards.repository.CardsRepository;
+import com.eazybytes.cards.sequence.BlockNumberAllocator;
+import com.eazybytes.cards.service.ICardAuthorizationsService;
+import lombok.AllArgsConstructor;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.OptionalInt;
+
+/**
+ * The card balance is only changed by the conditional updates of {@link CardBalanceRepository}, and always as the
+ * last statement of the transaction: the authorization row is written and flushed first, so the card row, which
+ * every authorization on the card competes for, stays locked for one statement and the commit.
+ * <p>
+ * Used with {@code cards.ledger.mode=database}, see CardAuthorizationsConfig.
+ */
+@AllArgsConstructor
+public class CardAuthorizationsServiceImpl implements ICardAuthorizationsService {
+
+    private CardsRepository cardsRepository;
+    private CardAuthorizationRepository cardAuthorizationRepository;
+    private CardBalanceRepository cardBalanceRepository;
+    private BlockNumberAllocator authorizationIdAllocator;
+
+    /**
+     * A declined authorization rolls back its authorization row.
+     *
+     * @param cardNumber - Card Number to hold the amount against
+     * @param amount - Amount to hold
+     * @return the new authorization
+     */
+    @Override
+    @Transactional
+    public CardAuthorizationDto authorize(String cardNumber, int amount) {
+        Long cardId = cardsRepository.findCardIdByCardNumber(cardNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Card", "CardNumber", cardNumber));
+        CardAuthorization authorization = cardAuthorizationRepository.saveAndFlush(
+                new CardAuthorization(authorizationIdAllocator.next(), cardId, amount, AuthorizationStatus.AUTHORIZED));
+        if (!cardBalanceRepository.hold(cardId, amount)) {
+            throw new InsufficientFundsException(cardNumber, amount);
+        }
+        return new CardAuthorizationDto(authorization.getAuthorizationId(), cardNumber, amount,
+                authorization.getStatus());
+    }
+
+    /**
+     * The amount is already accounted as used, so only the status changes. Capturing twice is a no-op.
+     *
+     * @param authorizationId - Id of the authorization
+     * @return boolean indicating if the authorization is captured, false when it was reversed
+     */
+    @Override
+    @Transactional
+    public boolean capture(Long authorizationId) {
+        CardAuthorization authorization = findAuthorization(authorizationId);
+        if (authorization.getStatus() == AuthorizationStatus.AUTHORIZED) {
+            // a concurrent reverse shows up as a version conflict at commit
+            authorization.setStatus(AuthorizationStatus.CAPTURED);
+        }
+        return authorization.getStatus() == AuthorizationStatus.CAPTURED;
+    }
+
+    /**
+     * Gives the held amount back to the card. Reversing twice is a no-op. A card that was deleted and then purged
+     * has no balance left to give the amount back to, and is reported as not found.
+     *
+     * @param authorizationId - Id of the authorization
+     * @return boolean indicating if the authorization is reversed, false when it was captured
+     */
+    @Override
+    @Transactional
+    public boolean reverse(Long authorizationId) {
+        CardAuthorization authorization = findAuthorization(authorizationId);
+        if (authorization.getStatus() != AuthorizationStatus.AUTHORIZED) {
+            return authorization.getStatus() == AuthorizationStatus.REVERSED;
+        }
+        authorization.setStatus(AuthorizationStatus.REVERSED);
+        // the version check runs here, so a concurrent capture or reverse fails before the amount is released
+        cardAuthorizationRepository.flush();
+        if (!cardBalanceRepository.release(authorization.getCardId(), authorization.getAmount())) {
+            if (!cardBalanceRepository.exists(authorization.getCardId())) {
+                throw new ResourceNotFoundException("Card", "cardId", String.valueOf(authorization.getCardId()));
+            }
+            throw new IllegalStateException("Card " + authorization.getCardId()
+                    + " no longer holds the amount of authorization " + authorizationId);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean keepsBalances() {
+        return false;
+    }
+
+    @Override
+    public OptionalInt availableAmount(long cardId) {
+        return OptionalInt.empty();
+    }
+
+    private CardAuthorization findAuthorization(Long authorizationId) {
+        return cardAuthorizationRepository.findById(authorizationId).orElseThrow(
+                () -> new ResourceNotFoundException("CardAuthorization", "authorizationId",
+                        String.valueOf(authorizationId)));
+    }
+}
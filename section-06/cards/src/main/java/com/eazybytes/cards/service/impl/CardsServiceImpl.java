@@ -1,35 +1,71 @@
 package com.eazybytes.cards.service.impl;
 
+import com.eazybytes.cards.bloom.MobileNumberFilter;
 import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.BatchFetchResponseDto;
 import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.dto.CardsVersion;
+import com.eazybytes.cards.dto.CardsView;
 import com.eazybytes.cards.entity.Cards;
 import com.eazybytes.cards.exception.CardAlreadyExistsException;
+import com.eazybytes.cards.exception.CardBalanceUpdateException;
 import com.eazybytes.cards.exception.ResourceNotFoundException;
 import com.eazybytes.cards.mapper.CardsMapper;
 import com.eazybytes.cards.repository.CardsRepository;
+import com.eazybytes.cards.sequence.BlockNumberAllocator;
+import com.eazybytes.cards.service.ICardAuthorizationsService;
 import com.eazybytes.cards.service.ICardsService;
+import jakarta.persistence.EntityManager;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.OptionalInt;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 @AllArgsConstructor
 public class CardsServiceImpl implements ICardsService {
 
     private CardsRepository cardsRepository;
+    private BlockNumberAllocator cardNumberAllocator;
+    private MobileNumberFilter mobileNumberFilter;
+    private ICardAuthorizationsService iCardAuthorizationsService;
+    private EntityManager entityManager;
 
     /**
+     * Duplicates are detected by the unique constraint on mobile_number rather than a read before the insert.
+     *
      * @param mobileNumber - Mobile Number of the Customer
      */
     @Override
+    @Transactional
     public void createCard(String mobileNumber) {
-        Optional<Cards> optionalCards= cardsRepository.findByMobileNumber(mobileNumber);
-        if(optionalCards.isPresent()){
-            throw new CardAlreadyExistsException("Card already registered with given mobileNumber "+mobileNumber);
+        mobileNumberFilter.add(mobileNumber);
+        try {
+            // flush now so the violation surfaces here instead of at commit
+            cardsRepository.saveAndFlush(createNewCard(mobileNumber));
+        } catch (DataIntegrityViolationException e) {
+            if (isViolationOf(e, CardsConstants.UK_CARDS_MOBILE_NUMBER)) {
+                throw new CardAlreadyExistsException("Card already registered with given mobileNumber "+mobileNumber);
+            }
+            throw e;
         }
-        cardsRepository.save(createNewCard(mobileNumber));
+    }
+
+    private static boolean isViolationOf(DataIntegrityViolationException e, String constraintName) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(constraintName);
     }
 
     /**
@@ -38,8 +74,7 @@ public class CardsServiceImpl implements ICardsService {
      */
     private Cards createNewCard(String mobileNumber) {
         Cards newCard = new Cards();
-        long randomCardNumber = 100000000000L + new Random().nextInt(900000000);
-        newCard.setCardNumber(Long.toString(randomCardNumber));
+        newCard.setCardNumber(Long.toString(cardNumberAllocator.next()));
         newCard.setMobileNumber(mobileNumber);
         newCard.setCardType(CardsConstants.CREDIT_CARD);
         newCard.setTotalLimit(CardsConstants.NEW_CARD_LIMIT);
@@ -54,39 +89,194 @@ public class CardsServiceImpl implements ICardsService {
      * @return Card Details based on a given mobileNumber
      */
     @Override
+    @Transactional(readOnly = true)
     public CardsDto fetchCard(String mobileNumber) {
-        Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        Cards cards = findIfMightExist(mobileNumber, cardsRepository::findByMobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
         );
-        return CardsMapper.mapToCardsDto(cards, new CardsDto());
+        return withLedgerBalance(cards.getCardId(), CardsMapper.mapToCardsDto(cards, new CardsDto()));
+    }
+
+    /**
+     * The card is loaded by its id from the second-level cache, which only the instance that changed a card
+     * evicts, and only once that change committed. A cached card older than the version is therefore reloaded
+     * from the row, so the body is never older than the ETag built from the version.
+     *
+     * @param version - Version of the Card, as read by fetchCardVersion
+     * @return Card Details at that version or a later one
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CardsDto fetchCard(CardsVersion version) {
+        Cards cards = cardsRepository.findById(version.cardId()).orElseThrow(
+                () -> new ResourceNotFoundException("Card", "cardId", version.cardId().toString())
+        );
+        if (cards.getVersion() < version.version()) {
+            entityManager.refresh(cards);
+        }
+        return withLedgerBalance(cards.getCardId(), CardsMapper.mapToCardsDto(cards, new CardsDto()));
     }
 
     /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return id, version and modification timestamp of the Card, without its details
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CardsVersion fetchCardVersion(String mobileNumber) {
+        CardsVersion version = findIfMightExist(mobileNumber, cardsRepository::findCardsVersionByMobileNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
+        );
+        OptionalInt availableAmount = iCardAuthorizationsService.availableAmount(version.cardId());
+        return availableAmount.isPresent() ? version.withLedgerAvailableAmount(availableAmount.getAsInt()) : version;
+    }
+
+    /**
+     * Resolves the mobileNumbers with IN queries, chunked to stay below the database parameter limits. Those the
+     * MobileNumberFilter rules out are not queried.
+     *
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Card Details keyed by mobileNumber, plus the mobileNumbers that were not found
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BatchFetchResponseDto<CardsDto> fetchCards(List<String> mobileNumbers) {
+        List<String> distinctMobileNumbers = new ArrayList<>(new LinkedHashSet<>(mobileNumbers));
+        List<String> candidates = distinctMobileNumbers.stream().filter(mobileNumberFilter::mightExist).toList();
+        Map<String, CardsDto> results = new HashMap<>();
+        for (int from = 0; from < candidates.size(); from += CardsConstants.FETCH_CHUNK_SIZE) {
+            List<String> chunk = candidates.subList(from,
+                    Math.min(from + CardsConstants.FETCH_CHUNK_SIZE, candidates.size()));
+            cardsRepository.findByMobileNumberIn(chunk).forEach(cards ->
+                    results.put(cards.getMobileNumber(),
+                            withLedgerBalance(cards.getCardId(), CardsMapper.mapToCardsDto(cards, new CardsDto()))));
+        }
+        candidates.stream()
+                .filter(mobileNumber -> !results.containsKey(mobileNumber))
+                .forEach(mobileNumber -> mobileNumberFilter.recordFalsePositive());
+
+        List<String> missing = distinctMobileNumbers.stream()
+                .filter(mobileNumber -> !results.containsKey(mobileNumber))
+                .toList();
+        return new BatchFetchResponseDto<>(results, missing);
+    }
+
+    /**
+     * Walks the cards table with keyset pagination. Rows are projected straight into DTOs and handed to the
+     * sink page by page, so memory stays flat regardless of table size. Each page is its own read-only
+     * repository transaction, so no connection is held while the sink writes.
+     *
+     * @param sink - Receives every Card Details, in cardId order
+     */
+    @Override
+    public void exportCards(Consumer<CardsDto> sink) {
+        long afterCardId = 0L;
+        List<CardsView> page;
+        do {
+            page = cardsRepository.findCardsAfter(afterCardId, Limit.of(CardsConstants.EXPORT_PAGE_SIZE));
+            for (CardsView cardsView : page) {
+                sink.accept(withLedgerBalance(cardsView.cardId(), CardsMapper.mapToCardsDto(cardsView, new CardsDto())));
+                afterCardId = cardsView.cardId();
+            }
+        } while (page.size() == CardsConstants.EXPORT_PAGE_SIZE);
+    }
+
+    /**
+     * When the card ledger keeps the balances, the limit and amounts have to be sent as they are: the ledger would
+     * go on authorizing against its own balance, and its next flush would apply its changes on top of the new one.
      *
      * @param cardsDto - CardsDto Object
      * @return boolean indicating if the update of card details is successful or not
      */
     @Override
+    @Transactional
     public boolean updateCard(CardsDto cardsDto) {
         Cards cards = cardsRepository.findByCardNumber(cardsDto.getCardNumber()).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "CardNumber", cardsDto.getCardNumber()));
-        CardsMapper.mapToCards(cardsDto, cards);
-        cardsRepository.save(cards);
+        if (iCardAuthorizationsService.keepsBalances()) {
+            CardsDto current = withLedgerBalance(cards.getCardId(), CardsMapper.mapToCardsDto(cards, new CardsDto()));
+            if (current.getTotalLimit() != cardsDto.getTotalLimit() || current.getAmountUsed() != cardsDto.getAmountUsed()
+                    || current.getAvailableAmount() != cardsDto.getAvailableAmount()) {
+                throw new CardBalanceUpdateException(cardsDto.getCardNumber());
+            }
+        }
+        if (!cards.getMobileNumber().equals(cardsDto.getMobileNumber())) {
+            mobileNumberFilter.add(cardsDto.getMobileNumber());
+        }
+        // written by dirty checking at commit; the version column turns a concurrent update into a conflict, also
+        // with a ledger flush, which bumps it
+        if (iCardAuthorizationsService.keepsBalances()) {
+            CardsMapper.mapToCardsExceptBalances(cardsDto, cards);
+        } else {
+            CardsMapper.mapToCards(cardsDto, cards);
+        }
         return  true;
     }
 
     /**
+     * The card is only flagged as deleted here; the row is removed later by the TombstonePurger.
+     *
      * @param mobileNumber - Input MobileNumber
      * @return boolean indicating if the delete of card details is successful or not
      */
     @Override
+    @Transactional
     public boolean deleteCard(String mobileNumber) {
-        Cards cards = cardsRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        Cards cards = findIfMightExist(mobileNumber, cardsRepository::findByMobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Card", "mobileNumber", mobileNumber)
         );
-        cardsRepository.deleteById(cards.getCardId());
+        cardsRepository.delete(cards);
         return true;
     }
 
+    /**
+     * Nothing is moved when a card is already registered with the new mobile number, which is also the case
+     * when the same change is applied twice.
+     *
+     * @param previousMobileNumber - Mobile Number the Card is registered with
+     * @param mobileNumber - New Mobile Number of the Customer
+     * @return boolean indicating if a card was moved to the new mobile number
+     */
+    @Override
+    @Transactional
+    public boolean updateMobileNumber(String previousMobileNumber, String mobileNumber) {
+        if (findIfMightExist(mobileNumber, cardsRepository::findByMobileNumber).isPresent()) {
+            return false;
+        }
+        return findIfMightExist(previousMobileNumber, cardsRepository::findByMobileNumber)
+                .map(cards -> {
+                    mobileNumberFilter.add(mobileNumber);
+                    cards.setMobileNumber(mobileNumber);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    /**
+     * The card ledger holds the available amount of the cards it authorized on, which the table only catches up
+     * with on its next flush. Authorizations only move money between the available amount and the amount used, so
+     * the sum of the two in the table is exact even when both are behind.
+     */
+    private CardsDto withLedgerBalance(Long cardId, CardsDto cardsDto) {
+        iCardAuthorizationsService.availableAmount(cardId).ifPresent(availableAmount -> {
+            cardsDto.setAmountUsed(cardsDto.getAmountUsed() + cardsDto.getAvailableAmount() - availableAmount);
+            cardsDto.setAvailableAmount(availableAmount);
+        });
+        return cardsDto;
+    }
 
+    /**
+     * @return the result of {@code lookup}, or empty without calling it when the mobile number is ruled out
+     */
+    private <T> Optional<T> findIfMightExist(String mobileNumber, Function<String, Optional<T>> lookup) {
+        if (!mobileNumberFilter.mightExist(mobileNumber)) {
+            return Optional.empty();
+        }
+        Optional<T> found = lookup.apply(mobileNumber);
+        if (found.isEmpty()) {
+            mobileNumberFilter.recordFalsePositive();
+        }
+        return found;
+    }
 }
@@ -0,0 +1,88 @@
+package com.eazybytes.cards.service.impl;
+
+import com.eazybytes.cards.dto.CardAuthorizationDto;
+import com.eazybytes.cards.entity.AuthorizationStatus;
+import com.eazybytes.cards.exception.InsufficientFundsException;
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.ledger.CardLedger;
+import com.eazybytes.cards.repository.CardsRepository;
+import com.eazybytes.cards.sequence.BlockNumberAllocator;
+import com.eazybytes.cards.service.ICardAuthorizationsService;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.util.OptionalInt;
+
+/**
+ * Authorizations against the in-memory {@link CardLedger}, used with {@code cards.ledger.mode=in-memory}. The only
+ * database access on these paths is the lookup of the card by its number, which is read-only and may be answered
+ * by the read replica; the cards table and card_authorization catch up on the next ledger flush.
+ */
+@AllArgsConstructor
+public class LedgerCardAuthorizationsServiceImpl implements ICardAuthorizationsService, AutoCloseable {
+
+    private CardsRepository cardsRepository;
+    private CardLedger cardLedger;
+    private BlockNumberAllocator authorizationIdAllocator;
+
+    /**
+     *
+     * @param cardNumber - Card Number to hold the amount against
+     * @param amount - Amount to hold
+     * @return the new authorization
+     */
+    @Override
+    public CardAuthorizationDto authorize(String cardNumber, int amount) {
+        Long cardId = cardsRepository.findCardIdByCardNumber(cardNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Card", "CardNumber", cardNumber));
+        long authorizationId = authorizationIdAllocator.next();
+        if (!cardLedger.authorize(authorizationId, cardId, amount)) {
+            throw new InsufficientFundsException(cardNumber, amount);
+        }
+        return new CardAuthorizationDto(authorizationId, cardNumber, amount, AuthorizationStatus.AUTHORIZED);
+    }
+
+    /**
+     *
+     * @param authorizationId - Id of the authorization
+     * @return boolean indicating if the authorization is captured, false when it was reversed
+     */
+    @Override
+    public boolean capture(Long authorizationId) {
+        return cardLedger.capture(authorizationId).orElseThrow(() -> notFound(authorizationId))
+                == AuthorizationStatus.CAPTURED;
+    }
+
+    /**
+     *
+     * @param authorizationId - Id of the authorization
+     * @return boolean indicating if the authorization is reversed, false when it was captured
+     */
+    @Override
+    public boolean reverse(Long authorizationId) {
+        return cardLedger.reverse(authorizationId).orElseThrow(() -> notFound(authorizationId))
+                == AuthorizationStatus.REVERSED;
+    }
+
+    @Override
+    public boolean keepsBalances() {
+        return true;
+    }
+
+    /**
+     * The cards table misses what was authorized or reversed since the last flush.
+     */
+    @Override
+    public OptionalInt availableAmount(long cardId) {
+        return cardLedger.loadedAvailableAmount(cardId);
+    }
+
+    @Override
+    public void close() throws IOException {
+        cardLedger.close();
+    }
+
+    private static ResourceNotFoundException notFound(Long authorizationId) {
+        return new ResourceNotFoundException("CardAuthorization", "authorizationId", String.valueOf(authorizationId));
+    }
+}
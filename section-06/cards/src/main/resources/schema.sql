@@ -1,3 +1,6 @@
+CREATE SEQUENCE IF NOT EXISTS `card_number_block_seq` START WITH 0 MINVALUE 0;
+CREATE SEQUENCE IF NOT EXISTS `card_authorization_id_block_seq` START WITH 0 MINVALUE 0;
+
 CREATE TABLE IF NOT EXISTS `cards` (
   `card_id` int NOT NULL AUTO_INCREMENT,
   `mobile_number` varchar(15) NOT NULL,
@@ -6,9 +9,58 @@ CREATE TABLE IF NOT EXISTS `cards` (
   `total_limit` int NOT NULL,
   `amount_used` int NOT NULL,
   `available_amount` int NOT NULL,
-  `created_at` date NOT NULL,
+  `created_at` timestamp NOT NULL,
   `created_by` varchar(20) NOT NULL,
-  `updated_at` date DEFAULT NULL,
+  `updated_at` timestamp DEFAULT NULL,
   `updated_by` varchar(20) DEFAULT NULL,
-  PRIMARY KEY (`card_id`)
-);
\ No newline at end of file
+  `version` bigint NOT NULL DEFAULT 0,
+  `deleted` boolean NOT NULL DEFAULT false,
+  `live_mobile_number` varchar(15) GENERATED ALWAYS AS (CASE WHEN `deleted` THEN NULL ELSE `mobile_number` END),
+  PRIMARY KEY (`card_id`),
+  CONSTRAINT `uk_cards_mobile_number` UNIQUE (`live_mobile_number`),
+  CONSTRAINT `uk_cards_card_number` UNIQUE (`card_number`)
+);
+
+CREATE INDEX IF NOT EXISTS `idx_cards_deleted` ON `cards` (`deleted`);
+
+-- lookups filter on mobile_number and deleted = false; the unique constraint is on live_mobile_number
+CREATE INDEX IF NOT EXISTS `idx_cards_mobile_number` ON `cards` (`mobile_number`, `deleted`);
+
+-- the mobile number filter reads the rows written since its previous refresh
+CREATE INDEX IF NOT EXISTS `idx_cards_created_at` ON `cards` (`created_at`);
+CREATE INDEX IF NOT EXISTS `idx_cards_updated_at` ON `cards` (`updated_at`);
+
+CREATE TABLE IF NOT EXISTS `card_authorization` (
+  `authorization_id` bigint NOT NULL,
+  `card_id` int NOT NULL,
+  `amount` int NOT NULL,
+  `status` varchar(20) NOT NULL,
+  `created_at` timestamp NOT NULL,
+  `created_by` varchar(20) NOT NULL,
+  `updated_at` timestamp DEFAULT NULL,
+  `updated_by` varchar(20) DEFAULT NULL,
+  `version` bigint NOT NULL DEFAULT 0,
+  PRIMARY KEY (`authorization_id`)
+);
+
+CREATE INDEX IF NOT EXISTS `idx_card_authorization_card_id` ON `card_authorization` (`card_id`);
+
+-- sequence of the last card ledger entry written to the tables, see CardLedger
+CREATE TABLE IF NOT EXISTS `card_ledger_checkpoint` (
+  `id` int PRIMARY KEY,
+  `sequence` bigint NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS `applied_account_event` (
+  `event_id` bigint NOT NULL,
+  `applied_at` timestamp NOT NULL,
+  PRIMARY KEY (`event_id`)
+);
+
+CREATE INDEX IF NOT EXISTS `idx_applied_account_event_applied_at` ON `applied_account_event` (`applied_at`);
+
+-- written on the primary and read back from the read replica by ReplicaLagMonitor to measure replication lag
+CREATE TABLE IF NOT EXISTS `replica_heartbeat` (
+  `id` int PRIMARY KEY,
+  `beat_at` timestamp NOT NULL
+);
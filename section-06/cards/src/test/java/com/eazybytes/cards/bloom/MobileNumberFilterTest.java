@@ -0,0 +1,89 @@
+package com.eazybytes.cards.bloom;
+
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.service.ICardsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class MobileNumberFilterTest {
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private MobileNumberFilter mobileNumberFilter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void fetchCard_shouldBeAnsweredByTheFilter_whenNoCardHasTheMobileNumber() {
+        // the context, and with it the registry, is shared with other test classes, so compare counts
+        double absent = checks("absent");
+
+        assertThatThrownBy(() -> iCardsService.fetchCard("6300000001")).isInstanceOf(ResourceNotFoundException.class);
+        assertThat(checks("absent")).isEqualTo(absent + 1);
+
+        iCardsService.createCard("6300000001");
+        assertThat(mobileNumberFilter.mightExist("6300000001")).isTrue();
+        assertThat(iCardsService.fetchCard("6300000001").getMobileNumber()).isEqualTo("6300000001");
+        assertThat(meterRegistry.get("mobile.filter.memory").tag("table", "cards").gauge().value()).isPositive();
+    }
+
+    @Test
+    void updateMobileNumber_shouldAddTheNewMobileNumber() {
+        iCardsService.createCard("6300000002");
+
+        assertThat(iCardsService.updateMobileNumber("6300000002", "6300000003")).isTrue();
+
+        assertThat(mobileNumberFilter.mightExist("6300000003")).isTrue();
+        assertThat(iCardsService.fetchCard("6300000003").getMobileNumber()).isEqualTo("6300000003");
+    }
+
+    @Test
+    void rebuild_shouldPickUpRowsWrittenElsewhereAndDropDeletedCards() {
+        iCardsService.createCard("6300000004");
+        iCardsService.deleteCard("6300000004");
+        jdbcTemplate.update("insert into cards (mobile_number, card_number, card_type, total_limit, amount_used, "
+                + "available_amount, created_at, created_by) values ('6300000005', '999930000005', 'Credit Card', "
+                + "100000, 0, 100000, current_timestamp, 'TEST')");
+        assertThat(mobileNumberFilter.mightExist("6300000004")).isTrue();
+
+        mobileNumberFilter.rebuild();
+
+        assertThat(mobileNumberFilter.mightExist("6300000004")).isFalse();
+        assertThat(iCardsService.fetchCard("6300000005").getCardNumber()).isEqualTo("999930000005");
+    }
+
+    @Test
+    void refresh_shouldPickUpRowsWrittenByOtherInstances() {
+        jdbcTemplate.update("insert into cards (mobile_number, card_number, card_type, total_limit, amount_used, "
+                + "available_amount, created_at, created_by) values ('6300000007', '999930000007', 'Credit Card', "
+                + "100000, 0, 100000, current_timestamp, 'TEST')");
+
+        mobileNumberFilter.refresh();
+
+        assertThat(mobileNumberFilter.mightExist("6300000007")).isTrue();
+        assertThat(iCardsService.fetchCard("6300000007").getCardNumber()).isEqualTo("999930000007");
+    }
+
+    @Test
+    void add_shouldBeRefused_outsideOfATransaction() {
+        assertThatThrownBy(() -> mobileNumberFilter.add("6300000006")).isInstanceOf(IllegalStateException.class);
+    }
+
+    private double checks(String result) {
+        return meterRegistry.get(MobileNumberFilter.CHECKS_COUNTER).tag("table", "cards").tag("result", result)
+                .counter().count();
+    }
+}
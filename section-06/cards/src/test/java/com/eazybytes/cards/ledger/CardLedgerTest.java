@@ -0,0 +1,200 @@
+package com.eazybytes.cards.ledger;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.entity.AuthorizationStatus;
+import com.eazybytes.cards.repository.CardLedgerRepository;
+import com.eazybytes.cards.repository.CardsRepository;
+import com.eazybytes.cards.sequence.BlockNumberAllocator;
+import com.eazybytes.cards.service.ICardsService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.AdditionalAnswers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest
+public class CardLedgerTest {
+
+    private static final int WAL_CAPACITY = 8192;
+    private static final int THREADS = 32;
+    private static final int AUTHORIZATIONS = 4_000;
+    private static final int AMOUNT = 50;
+
+    @TempDir
+    Path walDirectory;
+
+    @Autowired
+    private CardLedgerRepository cardLedgerRepository;
+
+    @Autowired
+    private CardsRepository cardsRepository;
+
+    @Autowired
+    private BlockNumberAllocator authorizationIdAllocator;
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void authorize_shouldNeverOverdraw_whenThousandsRaceOnOneCard() throws Exception {
+        long cardId = newCard("6200000001");
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        long elapsed;
+        try (CardLedger cardLedger = newLedger(); ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            Callable<Boolean> authorization = () -> {
+                start.await();
+                return cardLedger.authorize(authorizationIdAllocator.next(), cardId, AMOUNT);
+            };
+            for (int i = 0; i < AUTHORIZATIONS; i++) {
+                results.add(executor.submit(authorization));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+            elapsed = System.nanoTime() - begin;
+
+            assertThat(cardLedger.unflushed()).isEqualTo(CardsConstants.NEW_CARD_LIMIT / AMOUNT);
+        }
+
+        int approved = 0;
+        for (Future<Boolean> result : results) {
+            approved += result.get() ? 1 : 0;
+        }
+        System.out.printf("%d ledger authorizations on one card from %d threads: %d approved, %.0f authorizations/s%n",
+                AUTHORIZATIONS, THREADS, approved, AUTHORIZATIONS / (elapsed / 1e9));
+
+        assertThat(approved).isEqualTo(CardsConstants.NEW_CARD_LIMIT / AMOUNT);
+        CardsDto card = iCardsService.fetchCard("6200000001");
+        assertThat(card.getAvailableAmount()).isZero();
+        assertThat(card.getAmountUsed()).isEqualTo(CardsConstants.NEW_CARD_LIMIT);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from card_authorization where card_id = ?",
+                Long.class, cardId)).isEqualTo(approved);
+    }
+
+    @Test
+    void restart_shouldRebuildBalancesFromTableAndLogTail() throws Exception {
+        long cardId = newCard("6200000002");
+        long captured = authorizationIdAllocator.next();
+        long reversed = authorizationIdAllocator.next();
+        long flushed = authorizationIdAllocator.next();
+        long unflushed = authorizationIdAllocator.next();
+
+        CardLedger crashed = newLedger();
+        assertThat(crashed.authorize(captured, cardId, 1_000)).isTrue();
+        assertThat(crashed.authorize(reversed, cardId, 2_000)).isTrue();
+        assertThat(crashed.authorize(flushed, cardId, 3_000)).isTrue();
+        crashed.flush();
+        assertThat(crashed.authorize(unflushed, cardId, 4_000)).isTrue();
+        assertThat(crashed.capture(captured)).contains(AuthorizationStatus.CAPTURED);
+        assertThat(crashed.reverse(reversed)).contains(AuthorizationStatus.REVERSED);
+        // no close: the last three entries only exist in the log
+
+        int available = CardsConstants.NEW_CARD_LIMIT - 1_000 - 3_000 - 4_000;
+        try (CardLedger restarted = newLedger()) {
+            assertThat(restarted.unflushed()).isEqualTo(3);
+            assertThat(restarted.reverse(captured)).contains(AuthorizationStatus.CAPTURED);
+            assertThat(restarted.capture(reversed)).contains(AuthorizationStatus.REVERSED);
+            assertThat(restarted.authorize(authorizationIdAllocator.next(), cardId, available + 1)).isFalse();
+            assertThat(restarted.authorize(authorizationIdAllocator.next(), cardId, available)).isTrue();
+        }
+
+        CardsDto card = iCardsService.fetchCard("6200000002");
+        assertThat(card.getAvailableAmount()).isZero();
+        assertThat(card.getAmountUsed()).isEqualTo(CardsConstants.NEW_CARD_LIMIT);
+        assertThat(status(captured)).isEqualTo("CAPTURED");
+        assertThat(status(reversed)).isEqualTo("REVERSED");
+        assertThat(status(unflushed)).isEqualTo("AUTHORIZED");
+    }
+
+    @Test
+    void reverse_shouldSettleAuthorizationsAlreadyInTheDatabase() throws Exception {
+        long cardId = newCard("6200000003");
+        long authorizationId = authorizationIdAllocator.next();
+        try (CardLedger cardLedger = newLedger()) {
+            cardLedger.authorize(authorizationId, cardId, 5_000);
+        }
+
+        try (CardLedger cardLedger = newLedger()) {
+            assertThat(cardLedger.reverse(authorizationId)).contains(AuthorizationStatus.REVERSED);
+            assertThat(cardLedger.reverse(authorizationId)).contains(AuthorizationStatus.REVERSED);
+            assertThat(cardLedger.capture(authorizationId)).contains(AuthorizationStatus.REVERSED);
+            assertThat(cardLedger.capture(Long.MAX_VALUE)).isEqualTo(Optional.empty());
+        }
+
+        assertThat(iCardsService.fetchCard("6200000003").getAvailableAmount())
+                .isEqualTo(CardsConstants.NEW_CARD_LIMIT);
+    }
+
+    @Test
+    void reverse_shouldLeaveNoTrace_whenTheBalanceCannotBeLoaded() throws Exception {
+        long cardId = newCard("6200000004");
+        long authorizationId = authorizationIdAllocator.next();
+        try (CardLedger cardLedger = newLedger()) {
+            cardLedger.authorize(authorizationId, cardId, 5_000);
+        }
+
+        CardLedgerRepository failingRepository =
+                mock(CardLedgerRepository.class, AdditionalAnswers.delegatesTo(cardLedgerRepository));
+        doThrow(new DataAccessResourceFailureException("database down"))
+                .when(failingRepository).findAvailableAmount(cardId);
+        try (CardLedger cardLedger = newLedger(failingRepository)) {
+            assertThatThrownBy(() -> cardLedger.reverse(authorizationId))
+                    .isInstanceOf(DataAccessResourceFailureException.class);
+            assertThat(cardLedger.unflushed()).isZero();
+
+            doAnswer(AdditionalAnswers.delegatesTo(cardLedgerRepository))
+                    .when(failingRepository).findAvailableAmount(cardId);
+            assertThat(cardLedger.reverse(authorizationId)).contains(AuthorizationStatus.REVERSED);
+            assertThat(cardLedger.flush()).isEqualTo(1);
+        }
+
+        assertThat(iCardsService.fetchCard("6200000004").getAvailableAmount())
+                .isEqualTo(CardsConstants.NEW_CARD_LIMIT);
+        assertThat(status(authorizationId)).isEqualTo("REVERSED");
+    }
+
+    private CardLedger newLedger() throws Exception {
+        return newLedger(cardLedgerRepository);
+    }
+
+    private CardLedger newLedger(CardLedgerRepository repository) throws Exception {
+        return new CardLedger(new WriteAheadLog(walDirectory.resolve("cards-ledger.wal"), WAL_CAPACITY),
+                repository, 1_000, true);
+    }
+
+    private long newCard(String mobileNumber) {
+        iCardsService.createCard(mobileNumber);
+        return cardsRepository.findCardIdByCardNumber(iCardsService.fetchCard(mobileNumber).getCardNumber())
+                .orElseThrow();
+    }
+
+    private String status(long authorizationId) {
+        return jdbcTemplate.queryForObject("select status from card_authorization where authorization_id = ?",
+                String.class, authorizationId);
+    }
+}
@@ -0,0 +1,24 @@
+package com.eazybytes.cards.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+public class CardsRepositoryTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void lookupsByMobileNumber_shouldUseTheMobileNumberIndex() {
+        String plan = jdbcTemplate.queryForObject(
+                "explain select card_id from cards where mobile_number = '1234567890' and deleted = false",
+                String.class);
+
+        assertThat(plan).containsIgnoringCase("idx_cards_mobile_number");
+    }
+}
@@ -0,0 +1,92 @@
+package com.eazybytes.cards.service.impl;
+
+import com.eazybytes.cards.dto.AccountEventDto;
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.repository.AppliedAccountEventRepository;
+import com.eazybytes.cards.service.IAccountEventsService;
+import com.eazybytes.cards.service.ICardsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class AccountEventsServiceImplTest {
+
+    @Autowired
+    private IAccountEventsService iAccountEventsService;
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private AppliedAccountEventRepository appliedAccountEventRepository;
+
+    @Test
+    void applyAccountEvents_shouldSkipRedeliveredEvents() {
+        iAccountEventsService.applyAccountEvents(List.of(created(640_001L, "6400000001")));
+        iCardsService.deleteCard("6400000001");
+
+        iAccountEventsService.applyAccountEvents(List.of(created(640_001L, "6400000001")));
+
+        assertThatThrownBy(() -> iCardsService.fetchCard("6400000001"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void applyAccountEvents_shouldNotProvisionTheOldMobileNumber_whenCreateIsReplayedAfterRename() {
+        AccountEventDto created = created(640_002L, "6400000002");
+        AccountEventDto renamed = event(640_003L, AccountEventDto.ACCOUNT_UPDATED, "6400000003", "6400000002");
+        iAccountEventsService.applyAccountEvents(List.of(created, renamed));
+
+        iAccountEventsService.applyAccountEvents(List.of(created, renamed));
+
+        assertThat(iCardsService.fetchCard("6400000003").getMobileNumber()).isEqualTo("6400000003");
+        assertThatThrownBy(() -> iCardsService.fetchCard("6400000002"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void applyAccountEvents_shouldKeepTheExistingCard_whenCreatedForANumberThatHasOne() {
+        iCardsService.createCard("6400000004");
+        String cardNumber = iCardsService.fetchCard("6400000004").getCardNumber();
+
+        iAccountEventsService.applyAccountEvents(List.of(created(640_004L, "6400000004")));
+
+        assertThat(iCardsService.fetchCard("6400000004").getCardNumber()).isEqualTo(cardNumber);
+        assertThat(appliedAccountEventRepository.existsById(640_004L)).isTrue();
+    }
+
+    @Test
+    void applyAccountEvents_shouldAcceptTheDeleteOfAMissingCard() {
+        iAccountEventsService.applyAccountEvents(List.of(
+                event(640_005L, AccountEventDto.ACCOUNT_DELETED, "6400000005", null)));
+
+        assertThat(appliedAccountEventRepository.existsById(640_005L)).isTrue();
+    }
+
+    @Test
+    void applyAccountEvents_shouldIgnoreUnknownEventTypes() {
+        iAccountEventsService.applyAccountEvents(List.of(
+                event(640_006L, "ACCOUNT_FROZEN", "6400000006", null)));
+
+        assertThat(appliedAccountEventRepository.existsById(640_006L)).isTrue();
+        assertThatThrownBy(() -> iCardsService.fetchCard("6400000006"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private static AccountEventDto created(long eventId, String mobileNumber) {
+        return event(eventId, AccountEventDto.ACCOUNT_CREATED, mobileNumber, null);
+    }
+
+    private static AccountEventDto event(long eventId, String eventType, String mobileNumber,
+                                         String previousMobileNumber) {
+        return new AccountEventDto(eventId, eventType, 1L, mobileNumber, previousMobileNumber, 1_000_000_001L,
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,161 @@
+package com.eazybytes.cards.service.impl;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardAuthorizationDto;
+import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.dto.CardsVersion;
+import com.eazybytes.cards.exception.InsufficientFundsException;
+import com.eazybytes.cards.exception.ResourceNotFoundException;
+import com.eazybytes.cards.service.ICardAuthorizationsService;
+import com.eazybytes.cards.service.ICardsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class CardAuthorizationsServiceImplTest {
+
+    private static final int THREADS = 32;
+    private static final int AUTHORIZATIONS = 4_000;
+    private static final int AMOUNT = 50;
+
+    @Autowired
+    private ICardAuthorizationsService iCardAuthorizationsService;
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void authorize_shouldNeverOverdraw_whenThousandsRaceOnOneCard() throws Exception {
+        String cardNumber = newCard("6100000001");
+        // twice what the card can cover, so half of the authorizations have to be declined
+        assertThat(AUTHORIZATIONS * AMOUNT).isEqualTo(2 * CardsConstants.NEW_CARD_LIMIT);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        long elapsed;
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            Callable<Boolean> authorization = () -> {
+                start.await();
+                try {
+                    iCardAuthorizationsService.authorize(cardNumber, AMOUNT);
+                    return true;
+                } catch (InsufficientFundsException e) {
+                    return false;
+                }
+            };
+            for (int i = 0; i < AUTHORIZATIONS; i++) {
+                results.add(executor.submit(authorization));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.MINUTES)).isTrue();
+            elapsed = System.nanoTime() - begin;
+        }
+
+        int approved = 0;
+        for (Future<Boolean> result : results) {
+            approved += result.get() ? 1 : 0;
+        }
+        System.out.printf("%d authorizations on one card from %d threads: %d approved, %.0f authorizations/s%n",
+                AUTHORIZATIONS, THREADS, approved, AUTHORIZATIONS / (elapsed / 1e9));
+
+        assertThat(approved).isEqualTo(CardsConstants.NEW_CARD_LIMIT / AMOUNT);
+        CardsDto card = iCardsService.fetchCard("6100000001");
+        assertThat(card.getAvailableAmount()).isZero();
+        assertThat(card.getAmountUsed()).isEqualTo(CardsConstants.NEW_CARD_LIMIT);
+        assertThat(jdbcTemplate.queryForObject("select sum(a.amount) from card_authorization a "
+                + "join cards c on c.card_id = a.card_id where c.card_number = ?", Long.class, cardNumber))
+                .isEqualTo(CardsConstants.NEW_CARD_LIMIT);
+    }
+
+    @Test
+    void authorize_shouldBeVisibleToCachedReads() {
+        String cardNumber = newCard("6100000002");
+        iCardsService.fetchCard("6100000002");
+
+        iCardAuthorizationsService.authorize(cardNumber, 1_000);
+
+        CardsDto card = iCardsService.fetchCard("6100000002");
+        assertThat(card.getAmountUsed()).isEqualTo(1_000);
+        assertThat(card.getAvailableAmount()).isEqualTo(CardsConstants.NEW_CARD_LIMIT - 1_000);
+    }
+
+    @Test
+    void reverse_shouldReleaseTheAmountOnce() {
+        String cardNumber = newCard("6100000003");
+        CardAuthorizationDto authorization = iCardAuthorizationsService.authorize(cardNumber, 2_500);
+
+        assertThat(iCardAuthorizationsService.reverse(authorization.getAuthorizationId())).isTrue();
+        assertThat(iCardAuthorizationsService.reverse(authorization.getAuthorizationId())).isTrue();
+
+        CardsDto card = iCardsService.fetchCard("6100000003");
+        assertThat(card.getAmountUsed()).isZero();
+        assertThat(card.getAvailableAmount()).isEqualTo(CardsConstants.NEW_CARD_LIMIT);
+        assertThat(iCardAuthorizationsService.capture(authorization.getAuthorizationId())).isFalse();
+    }
+
+    @Test
+    void capture_shouldKeepTheAmountUsed() {
+        String cardNumber = newCard("6100000004");
+        CardAuthorizationDto authorization = iCardAuthorizationsService.authorize(cardNumber, 700);
+
+        assertThat(iCardAuthorizationsService.capture(authorization.getAuthorizationId())).isTrue();
+        assertThat(iCardAuthorizationsService.reverse(authorization.getAuthorizationId())).isFalse();
+
+        assertThat(iCardsService.fetchCard("6100000004").getAmountUsed()).isEqualTo(700);
+        assertThatThrownBy(() -> iCardAuthorizationsService.authorize(cardNumber, CardsConstants.NEW_CARD_LIMIT))
+                .isInstanceOf(InsufficientFundsException.class);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from card_authorization a "
+                + "join cards c on c.card_id = a.card_id where c.card_number = ?", Long.class, cardNumber))
+                .isEqualTo(1L);
+    }
+
+    @Test
+    void reverse_shouldReportNotFound_whenTheCardWasPurged() {
+        String cardNumber = newCard("6100000006");
+        CardAuthorizationDto authorization = iCardAuthorizationsService.authorize(cardNumber, 400);
+        iCardsService.deleteCard("6100000006");
+        // what the TombstonePurger does to a deleted card
+        jdbcTemplate.update("delete from cards where card_number = ? and deleted = true", cardNumber);
+
+        assertThatThrownBy(() -> iCardAuthorizationsService.reverse(authorization.getAuthorizationId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void fetchCard_shouldNotServeACachedCardOlderThanItsVersion() {
+        String cardNumber = newCard("6100000005");
+        iCardsService.fetchCard(iCardsService.fetchCardVersion("6100000005"));
+
+        // what a hold on another instance leaves behind: the row moved on, this instance's cache did not
+        jdbcTemplate.update("update cards set amount_used = amount_used + 300, available_amount = available_amount - 300, "
+                + "version = version + 1 where card_number = ?", cardNumber);
+
+        CardsVersion version = iCardsService.fetchCardVersion("6100000005");
+        assertThat(iCardsService.fetchCard(version).getAmountUsed()).isEqualTo(300);
+        assertThat(iCardsService.fetchCard("6100000005").getAmountUsed()).isEqualTo(300);
+    }
+
+    private String newCard(String mobileNumber) {
+        iCardsService.createCard(mobileNumber);
+        return iCardsService.fetchCard(mobileNumber).getCardNumber();
+    }
+}
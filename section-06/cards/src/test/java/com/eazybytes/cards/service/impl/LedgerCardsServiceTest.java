@@ -0,0 +1,94 @@
+package com.eazybytes.cards.service.impl;
+
+import com.eazybytes.cards.constants.CardsConstants;
+import com.eazybytes.cards.dto.CardsDto;
+import com.eazybytes.cards.dto.CardsVersion;
+import com.eazybytes.cards.exception.CardBalanceUpdateException;
+import com.eazybytes.cards.service.ICardAuthorizationsService;
+import com.eazybytes.cards.service.ICardsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// its own database, as the ledger must be the only one on it, and no flush during the test
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:cards-ledger-mode",
+        "cards.ledger.mode=in-memory",
+        "cards.ledger.wal.path=target/ledger-cards-service-${random.uuid}.wal",
+        "cards.ledger.wal.capacity=1024",
+        "cards.ledger.flush-interval=1h"
+})
+public class LedgerCardsServiceTest {
+
+    @Autowired
+    private ICardsService iCardsService;
+
+    @Autowired
+    private ICardAuthorizationsService iCardAuthorizationsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void fetchCard_shouldReportTheLedgerBalance_beforeItIsFlushed() {
+        String cardNumber = newCard("6500000001");
+
+        iCardAuthorizationsService.authorize(cardNumber, 1_000);
+
+        CardsDto cardsDto = iCardsService.fetchCard("6500000001");
+        assertThat(cardsDto.getAvailableAmount()).isEqualTo(CardsConstants.NEW_CARD_LIMIT - 1_000);
+        assertThat(cardsDto.getAmountUsed()).isEqualTo(1_000);
+        assertThat(iCardsService.fetchCards(List.of("6500000001")).getResults().get("6500000001")
+                .getAvailableAmount()).isEqualTo(CardsConstants.NEW_CARD_LIMIT - 1_000);
+        assertThat(availableAmountInTable(cardNumber)).isEqualTo(CardsConstants.NEW_CARD_LIMIT);
+    }
+
+    @Test
+    void updateCard_shouldRefuseBalanceChanges_andKeepTheTableBalance() {
+        String cardNumber = newCard("6500000002");
+        iCardAuthorizationsService.authorize(cardNumber, 2_000);
+
+        CardsDto overwrite = iCardsService.fetchCard("6500000002");
+        overwrite.setAvailableAmount(CardsConstants.NEW_CARD_LIMIT);
+        overwrite.setAmountUsed(0);
+        assertThatThrownBy(() -> iCardsService.updateCard(overwrite)).isInstanceOf(CardBalanceUpdateException.class);
+
+        CardsDto rename = iCardsService.fetchCard("6500000002");
+        rename.setCardType("Debit Card");
+        assertThat(iCardsService.updateCard(rename)).isTrue();
+
+        assertThat(iCardsService.fetchCard("6500000002").getCardType()).isEqualTo("Debit Card");
+        assertThat(availableAmountInTable(cardNumber)).isEqualTo(CardsConstants.NEW_CARD_LIMIT);
+        assertThat(iCardsService.fetchCard("6500000002").getAvailableAmount())
+                .isEqualTo(CardsConstants.NEW_CARD_LIMIT - 2_000);
+    }
+
+    @Test
+    void fetchCardVersion_shouldChange_withTheLedgerBalance() {
+        String cardNumber = newCard("6500000003");
+        CardsVersion before = iCardsService.fetchCardVersion("6500000003");
+
+        iCardAuthorizationsService.authorize(cardNumber, 500);
+
+        CardsVersion after = iCardsService.fetchCardVersion("6500000003");
+        assertThat(after.eTag()).isNotEqualTo(before.eTag());
+        assertThat(after.lastModified()).isNull();
+        assertThat(iCardsService.fetchCard(after).getAvailableAmount()).isEqualTo(CardsConstants.NEW_CARD_LIMIT - 500);
+    }
+
+    private String newCard(String mobileNumber) {
+        iCardsService.createCard(mobileNumber);
+        return iCardsService.fetchCard(mobileNumber).getCardNumber();
+    }
+
+    private int availableAmountInTable(String cardNumber) {
+        return jdbcTemplate.queryForObject("select available_amount from cards where card_number = ?",
+                Integer.class, cardNumber);
+    }
+}
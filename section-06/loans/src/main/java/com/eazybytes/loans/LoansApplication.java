@@ -1,6 +1,8 @@
 package com.eazybytes.loans;
 
+import com.eazybytes.loans.config.NativeRuntimeHints;
 import com.eazybytes.loans.dto.LoansContactInfoDto;
+import com.eazybytes.loans.repository.SimpleNaturalIdRepository;
 import io.swagger.v3.oas.annotations.ExternalDocumentation;
 import io.swagger.v3.oas.annotations.OpenAPIDefinition;
 import io.swagger.v3.oas.annotations.info.Contact;
@@ -9,14 +11,20 @@ import io.swagger.v3.oas.annotations.info.License;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.ImportRuntimeHints;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 /*@ComponentScans({ @ComponentScan("com.eazybytes.loans.controller") })
 @EnableJpaRepositories("com.eazybytes.loans.repository")
 @EntityScan("com.eazybytes.loans.model")*/
 @EnableJpaAuditing(auditorAwareRef = "auditAwareImpl")
+@EnableJpaRepositories(repositoryBaseClass = SimpleNaturalIdRepository.class)
+@EnableScheduling
 @EnableConfigurationProperties(value = {LoansContactInfoDto.class})
+@ImportRuntimeHints(NativeRuntimeHints.class)
 @OpenAPIDefinition(
 		info = @Info(
 				title = "Loans microservice REST API Documentation",
@@ -0,0 +1,22 @@
+package com.eazybytes.loans.accrual;
+
+import java.time.Duration;
+import java.time.LocalDate;
+
+/**
+ * Outcome of one {@link InterestAccrualJob} run.
+ *
+ * @param accrualDate   - date interest was accrued through
+ * @param chunks        - chunks processed and committed by this run
+ * @param skippedChunks - chunks already committed for the date, by an earlier run or another instance
+ * @param rows          - loans interest was accrued on
+ * @param elapsed       - wall-clock time of the run
+ * @param complete      - false when the run was stopped before every chunk was done
+ */
+public record AccrualRun(LocalDate accrualDate, long chunks, long skippedChunks, long rows, Duration elapsed,
+                         boolean complete) {
+
+    public double rowsPerSecond() {
+        return elapsed.isZero() ? 0 : rows * 1e9 / elapsed.toNanos();
+    }
+}
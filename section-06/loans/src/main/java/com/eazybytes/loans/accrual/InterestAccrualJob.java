@@ -0,0 +1,278 @@
+package com.eazybytes.loans.accrual;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accrues daily interest on every open loan: {@code accrued_interest} grows by outstanding principal times the
+ * annual rate over 365 for every day after {@code accrued_through}, or after the day the loan was created, up to
+ * the accrual date. Both columns are left out of the Loans entity, so accruing neither bumps the row version nor
+ * touches the second-level cache, and concurrent updates through JPA never overwrite them. A repayment settles
+ * the accrued interest, as its scheduled interest covers the same days, see LoanRepaymentsServiceImpl.
+ * <p>
+ * The loans table is cut into chunks of {@code chunk-size} consecutive loan ids, processed by {@code threads}
+ * workers. A chunk is one transaction: its open loans are read with one streaming query into primitive arrays,
+ * locked so a repayment cannot change a balance between read and update, and written back with JDBC batches of
+ * {@code batch-size}. The chunk is recorded in interest_accrual_chunk in the same transaction, so running the
+ * same date again, after a crash or a stop, skips every committed chunk and resumes with the others. A loan the
+ * run never reached simply accrues more days in the next run. The recording row is inserted first, which also
+ * keeps two instances from accruing the same chunk twice.
+ * <p>
+ * Plain JDBC for the same reason as the TombstonePurger, and because loading millions of entities would take
+ * hours. Progress is published as {@code loans.accrual.*} metrics and logged with the rows per second.
+ */
+@Slf4j
+@Component
+public class InterestAccrualJob {
+
+    static final String ROWS_COUNTER = "loans.accrual.rows";
+    static final String CHUNK_TIMER = "loans.accrual.chunk";
+    static final String RATE_GAUGE = "loans.accrual.rows.per.second";
+
+    // interest is kept in ten-thousandths, so a day of interest on even a small balance is not rounded away
+    private static final int INTEREST_SCALE = 4;
+    private static final int DAYS_PER_YEAR = 365;
+
+    private static final String SELECT_CHUNK = "select loan_id, outstanding_amount, interest_rate_bps, "
+            + "coalesce(accrued_through, cast(created_at as date)) as accrued_from from loans "
+            + "where loan_id >= ? and loan_id < ? and deleted = false and outstanding_amount > 0 "
+            + "and coalesce(accrued_through, cast(created_at as date)) < ? for update";
+    private static final String UPDATE_LOAN = "update loans set accrued_interest = accrued_interest + ?, "
+            + "accrued_through = ? where loan_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int batchSize;
+    private final int threads;
+    private final Duration chunkRetention;
+    private final Counter accruedRows;
+    private final Timer chunkTimer;
+    private final AtomicBoolean stopping = new AtomicBoolean();
+    private volatile double lastRowsPerSecond;
+
+    public InterestAccrualJob(DataSource dataSource, PlatformTransactionManager transactionManager,
+                              MeterRegistry meterRegistry,
+                              @Value("${loans.accrual.chunk-size:10000}") int chunkSize,
+                              @Value("${loans.accrual.batch-size:1000}") int batchSize,
+                              @Value("${loans.accrual.threads:4}") int threads,
+                              @Value("${loans.accrual.chunk-retention:30d}") Duration chunkRetention) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(batchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+        this.threads = threads;
+        this.chunkRetention = chunkRetention;
+        this.accruedRows = Counter.builder(ROWS_COUNTER)
+                .description("Loans interest was accrued on")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder(CHUNK_TIMER)
+                .description("Time taken to accrue and commit one chunk of loans")
+                .register(meterRegistry);
+        Gauge.builder(RATE_GAUGE, this, job -> job.lastRowsPerSecond)
+                .description("Loans accrued per second by the last run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Accrues through yesterday, the last day that is over.
+     */
+    @Scheduled(cron = "${loans.accrual.cron:0 30 0 * * *}")
+    public void accrueNightly() {
+        AccrualRun run = accrueThrough(LocalDate.now().minusDays(1));
+        if (!run.complete()) {
+            log.warn("Interest accrual through {} stopped before it was done, the loans left accrue with the next run",
+                    run.accrualDate());
+        }
+    }
+
+    /**
+     * @param accrualDate - last day to accrue interest for
+     * @return what the run did; chunks already committed for the date are skipped
+     */
+    public AccrualRun accrueThrough(LocalDate accrualDate) {
+        long start = System.nanoTime();
+        jdbcTemplate.update("delete from interest_accrual_chunk where accrual_date < ?",
+                Date.valueOf(accrualDate.minusDays(chunkRetention.toDays())));
+        Map<String, Object> bounds = jdbcTemplate.queryForMap(
+                "select min(loan_id) as first_id, max(loan_id) as last_id from loans");
+        if (bounds.get("first_id") == null) {
+            return new AccrualRun(accrualDate, 0, 0, 0, Duration.ofNanos(System.nanoTime() - start), true);
+        }
+        long firstChunk = ((Number) bounds.get("first_id")).longValue() / chunkSize;
+        long lastChunk = ((Number) bounds.get("last_id")).longValue() / chunkSize;
+        Set<Long> committed = new HashSet<>(jdbcTemplate.queryForList(
+                "select first_loan_id from interest_accrual_chunk where accrual_date = ?", Long.class,
+                Date.valueOf(accrualDate)));
+
+        AtomicLong nextChunk = new AtomicLong(firstChunk);
+        AtomicLong chunks = new AtomicLong();
+        AtomicLong skippedChunks = new AtomicLong();
+        AtomicLong rows = new AtomicLong();
+        AtomicBoolean failed = new AtomicBoolean();
+        Runnable worker = () -> {
+            long chunk;
+            while (!stopping.get() && !failed.get() && (chunk = nextChunk.getAndIncrement()) <= lastChunk) {
+                long firstLoanId = chunk * chunkSize;
+                Integer accrued = committed.contains(firstLoanId) ? null : accrueChunk(accrualDate, firstLoanId);
+                if (accrued == null) {
+                    skippedChunks.incrementAndGet();
+                } else {
+                    chunks.incrementAndGet();
+                    rows.addAndGet(accrued);
+                }
+            }
+        };
+
+        List<Future<?>> workers = new ArrayList<>(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, workerThreadFactory());
+        try {
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    try {
+                        worker.run();
+                    } catch (RuntimeException e) {
+                        failed.set(true);
+                        throw e;
+                    }
+                }));
+            }
+            for (Future<?> future : workers) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopping.set(true);
+        } catch (ExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        } finally {
+            executor.shutdown();
+        }
+
+        AccrualRun run = new AccrualRun(accrualDate, chunks.get(), skippedChunks.get(), rows.get(),
+                Duration.ofNanos(System.nanoTime() - start), nextChunk.get() > lastChunk);
+        lastRowsPerSecond = run.rowsPerSecond();
+        log.info("Accrued interest through {} on {} loans in {} chunks ({} already done) in {} ms, {} rows/s",
+                accrualDate, run.rows(), run.chunks(), run.skippedChunks(), run.elapsed().toMillis(),
+                Math.round(run.rowsPerSecond()));
+        return run;
+    }
+
+    /**
+     * Lets the running chunks commit and starts no new ones.
+     */
+    @PreDestroy
+    public void stop() {
+        stopping.set(true);
+    }
+
+    /**
+     * @return loans accrued, or null when another run committed the chunk first
+     */
+    private Integer accrueChunk(LocalDate accrualDate, long firstLoanId) {
+        try {
+            int accrued = chunkTimer.record(() -> transactionTemplate.execute(status -> {
+                Date date = Date.valueOf(accrualDate);
+                jdbcTemplate.update("insert into interest_accrual_chunk (accrual_date, first_loan_id, rows_accrued, "
+                        + "committed_at) values (?, ?, 0, current_timestamp)", date, firstLoanId);
+
+                AccrualBatch batch = new AccrualBatch();
+                jdbcTemplate.query(SELECT_CHUNK, resultSet -> {
+                    long days = ChronoUnit.DAYS.between(resultSet.getDate(4).toLocalDate(), accrualDate);
+                    long interest = (resultSet.getLong(2) * resultSet.getInt(3) * days + DAYS_PER_YEAR / 2)
+                            / DAYS_PER_YEAR;
+                    batch.add(resultSet.getLong(1), interest);
+                }, firstLoanId, firstLoanId + chunkSize, date);
+
+                for (int from = 0; from < batch.size; from += batchSize) {
+                    int offset = from;
+                    jdbcTemplate.batchUpdate(UPDATE_LOAN, new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            ps.setBigDecimal(1, BigDecimal.valueOf(batch.interest[offset + i], INTEREST_SCALE));
+                            ps.setDate(2, date);
+                            ps.setLong(3, batch.loanIds[offset + i]);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return Math.min(batchSize, batch.size - offset);
+                        }
+                    });
+                }
+                jdbcTemplate.update("update interest_accrual_chunk set rows_accrued = ? "
+                        + "where accrual_date = ? and first_loan_id = ?", batch.size, date, firstLoanId);
+                return batch.size;
+            }));
+            accruedRows.increment(accrued);
+            return accrued;
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger sequence = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "interest-accrual-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Accruals of one chunk, grown as rows stream in.
+     */
+    private static final class AccrualBatch {
+
+        private long[] loanIds = new long[64];
+        private long[] interest = new long[64];
+        private int size;
+
+        void add(long loanId, long accrued) {
+            if (size == loanIds.length) {
+                loanIds = Arrays.copyOf(loanIds, size * 2);
+                interest = Arrays.copyOf(interest, size * 2);
+            }
+            loanIds[size] = loanId;
+            interest[size] = accrued;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.eazybytes.loans.amortization;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-installment amortization with monthly periods, in whole currency units like the loans table.
+ * <p>
+ * Each period the interest is the outstanding principal times a twelfth of the annual rate, rounded half up, and
+ * the rest of the installment repays principal. The installment is fixed when the loan is created and rounded up,
+ * so the last installment is the smaller one. A payment other than the installment changes the outstanding
+ * principal, and with it the number of installments left; the installment itself stays the same.
+ */
+public final class AmortizationEngine {
+
+    private static final int BPS_PER_MONTH = 12 * 10_000;
+
+    private AmortizationEngine() {
+        // restrict instantiation
+    }
+
+    /**
+     * @param principal - amount borrowed
+     * @param rateBps   - annual interest rate in basis points
+     * @param months    - term of the loan
+     * @return the monthly installment that repays the principal in {@code months} installments
+     */
+    public static int installment(int principal, int rateBps, int months) {
+        if (months < 1) {
+            throw new IllegalArgumentException("months must be at least 1");
+        }
+        if (rateBps == 0) {
+            return (int) ((principal + (long) months - 1) / months);
+        }
+        double monthlyRate = (double) rateBps / BPS_PER_MONTH;
+        return (int) Math.ceil(principal * monthlyRate / (1 - Math.pow(1 + monthlyRate, -months)));
+    }
+
+    /**
+     * @return interest of one month on {@code balance}
+     */
+    public static int interest(int balance, int rateBps) {
+        return (int) (((long) balance * rateBps + BPS_PER_MONTH / 2) / BPS_PER_MONTH);
+    }
+
+    /**
+     * @param balance     - outstanding principal
+     * @param rateBps     - annual interest rate in basis points
+     * @param installment - monthly installment
+     * @param firstNumber - number of the next installment
+     * @return every installment until the principal is repaid
+     */
+    public static AmortizationSchedule schedule(int balance, int rateBps, int installment, int firstNumber) {
+        int capacity = estimateInstallments(balance, rateBps, installment);
+        int[] principal = new int[capacity];
+        int[] interest = new int[capacity];
+        int[] closing = new int[capacity];
+        int rows = 0;
+        int remaining = balance;
+        while (remaining > 0) {
+            int periodInterest = interest(remaining, rateBps);
+            if (installment <= periodInterest) {
+                throw new IllegalArgumentException("An installment of " + installment
+                        + " does not cover the interest on " + remaining);
+            }
+            if (rows == capacity) {
+                capacity += capacity / 2 + 1;
+                principal = Arrays.copyOf(principal, capacity);
+                interest = Arrays.copyOf(interest, capacity);
+                closing = Arrays.copyOf(closing, capacity);
+            }
+            int periodPrincipal = Math.min(installment - periodInterest, remaining);
+            remaining -= periodPrincipal;
+            principal[rows] = periodPrincipal;
+            interest[rows] = periodInterest;
+            closing[rows] = remaining;
+            rows++;
+        }
+        return new AmortizationSchedule(rateBps, installment, firstNumber, balance, principal, interest, closing,
+                rows, 0);
+    }
+
+    /**
+     * Posts {@code amount} to the next installment: interest of the period first, the rest to principal.
+     * <p>
+     * When the amount is the scheduled payment, the installments left are those of {@code schedule} after the
+     * first, and are reused as they are. Otherwise only the installments left are computed again, from the new
+     * outstanding principal.
+     *
+     * @param amount - between {@link #minimumPayment} and {@link #payoffAmount} of the schedule
+     */
+    public static Repayment repay(AmortizationSchedule schedule, int amount) {
+        if (amount < minimumPayment(schedule) || amount > payoffAmount(schedule)) {
+            throw new IllegalArgumentException("Payment of " + amount + " is outside of ["
+                    + minimumPayment(schedule) + ", " + payoffAmount(schedule) + "]");
+        }
+        int interest = schedule.interest(0);
+        int principal = amount - interest;
+        AmortizationSchedule remaining = principal == schedule.principal(0)
+                ? schedule.advance()
+                : schedule(schedule.openingBalance() - principal, schedule.rateBps(), schedule.installment(),
+                        schedule.nextNumber() + 1);
+        return new Repayment(schedule.nextNumber(), amount, principal, interest, remaining);
+    }
+
+    /**
+     * @return interest due on the next installment, the least a payment has to cover
+     */
+    public static int minimumPayment(AmortizationSchedule schedule) {
+        return schedule.isEmpty() ? 0 : schedule.interest(0);
+    }
+
+    /**
+     * @return amount that repays the loan with the next installment
+     */
+    public static int payoffAmount(AmortizationSchedule schedule) {
+        return schedule.isEmpty() ? 0 : schedule.openingBalance() + schedule.interest(0);
+    }
+
+    /**
+     * Closed-form number of installments, so the arrays are sized once in the common case.
+     */
+    private static int estimateInstallments(int balance, int rateBps, int installment) {
+        if (balance <= 0) {
+            return 0;
+        }
+        if (rateBps == 0) {
+            return (int) ((balance + (long) installment - 1) / installment);
+        }
+        double monthlyRate = (double) rateBps / BPS_PER_MONTH;
+        double coverage = 1 - balance * monthlyRate / installment;
+        if (coverage <= 0) {
+            return 16;
+        }
+        return (int) Math.ceil(-Math.log(coverage) / Math.log1p(monthlyRate)) + 1;
+    }
+}
@@ -0,0 +1,114 @@
+package com.eazybytes.loans.amortization;
+
+/**
+ * The installments still to be paid on a loan, all amounts in whole currency units. Immutable, so one instance can
+ * be shared by every request for the loan.
+ * <p>
+ * Rows live in primitive arrays that successive schedules of the same loan share: paying exactly the scheduled
+ * installment only moves {@code offset} past the paid row, see {@link AmortizationEngine#repay}.
+ */
+public final class AmortizationSchedule {
+
+    private final int rateBps;
+    private final int installment;
+    private final int firstNumber;
+    private final int initialBalance;
+    private final int[] principal;
+    private final int[] interest;
+    private final int[] balance;
+    private final int rows;
+    private final int offset;
+
+    AmortizationSchedule(int rateBps, int installment, int firstNumber, int initialBalance,
+                         int[] principal, int[] interest, int[] balance, int rows, int offset) {
+        this.rateBps = rateBps;
+        this.installment = installment;
+        this.firstNumber = firstNumber;
+        this.initialBalance = initialBalance;
+        this.principal = principal;
+        this.interest = interest;
+        this.balance = balance;
+        this.rows = rows;
+        this.offset = offset;
+    }
+
+    /**
+     * @return annual interest rate in basis points
+     */
+    public int rateBps() {
+        return rateBps;
+    }
+
+    /**
+     * @return the regular monthly payment; the last one may be smaller
+     */
+    public int installment() {
+        return installment;
+    }
+
+    /**
+     * @return number of installments left
+     */
+    public int size() {
+        return rows - offset;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return number of the next installment, counted from 1 over the life of the loan
+     */
+    public int nextNumber() {
+        return firstNumber + offset;
+    }
+
+    /**
+     * @return outstanding principal before the next installment
+     */
+    public int openingBalance() {
+        return offset == 0 ? initialBalance : balance[offset - 1];
+    }
+
+    /**
+     * @param index - 0 for the next installment
+     */
+    public int number(int index) {
+        return nextNumber() + index;
+    }
+
+    public int payment(int index) {
+        return principal(index) + interest(index);
+    }
+
+    public int principal(int index) {
+        return principal[row(index)];
+    }
+
+    public int interest(int index) {
+        return interest[row(index)];
+    }
+
+    /**
+     * @return outstanding principal after the installment
+     */
+    public int balance(int index) {
+        return balance[row(index)];
+    }
+
+    /**
+     * @return the schedule once the next installment is paid as scheduled
+     */
+    AmortizationSchedule advance() {
+        return new AmortizationSchedule(rateBps, installment, firstNumber, initialBalance,
+                principal, interest, balance, rows, offset + 1);
+    }
+
+    private int row(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Installment " + index + " of " + size());
+        }
+        return offset + index;
+    }
+}
@@ -0,0 +1,14 @@
+package com.eazybytes.loans.amortization;
+
+/**
+ * A payment posted against the next installment of a loan.
+ *
+ * @param installmentNumber - installment the payment was posted to
+ * @param amount            - amount paid
+ * @param principal         - part of the amount that reduced the outstanding principal
+ * @param interest          - part of the amount that paid the interest of the period
+ * @param remaining         - installments left afterwards
+ */
+public record Repayment(int installmentNumber, int amount, int principal, int interest,
+                        AmortizationSchedule remaining) {
+}
@@ -0,0 +1,70 @@
+package com.eazybytes.loans.amortization;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Schedules of recently used loans, keyed by loan id and tagged with the version of the loan row they were
+ * computed from. A schedule is only handed out for the version it was computed from, so any other change to the
+ * loan, from any instance, makes it unused rather than wrong.
+ * <p>
+ * Kept out of the Hibernate second-level cache: a 30-year schedule is a few KB, and it is derived data that is
+ * cheaper to recompute than to replicate. Hit rate and size are published as {@code cache.*} metrics tagged
+ * {@code cache=loans.schedules}.
+ */
+@Component
+public class ScheduleCache {
+
+    static final String CACHE_NAME = "loans.schedules";
+
+    private final Cache<Long, VersionedSchedule> cache;
+
+    public ScheduleCache(MeterRegistry meterRegistry,
+                         @Value("${loans.schedule-cache.maximum-size:5000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * @return the schedule of the loan at {@code version}, or null when it is not cached
+     */
+    public AmortizationSchedule get(Long loanId, Long version) {
+        VersionedSchedule cached = cache.getIfPresent(loanId);
+        return cached != null && cached.version() == version ? cached.schedule() : null;
+    }
+
+    /**
+     * Caches the schedule once the current transaction commits, so a rolled back repayment is never seen. An
+     * older version never replaces a newer one.
+     */
+    public void put(Long loanId, Long version, AmortizationSchedule schedule) {
+        VersionedSchedule versioned = new VersionedSchedule(version, schedule);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            merge(loanId, versioned);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                merge(loanId, versioned);
+            }
+        });
+    }
+
+    private void merge(Long loanId, VersionedSchedule versioned) {
+        cache.asMap().merge(loanId, versioned,
+                (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+    }
+
+    private record VersionedSchedule(long version, AmortizationSchedule schedule) {
+    }
+}
@@ -0,0 +1,43 @@
+package com.eazybytes.loans.config;
+
+import com.eazybytes.loans.dto.AccountEventDto;
+import com.eazybytes.loans.dto.BatchFetchResponseDto;
+import com.eazybytes.loans.dto.LoansDto;
+import com.eazybytes.loans.dto.LoansVersion;
+import com.eazybytes.loans.dto.LoansView;
+import com.eazybytes.loans.dto.ErrorResponseDto;
+import com.eazybytes.loans.dto.ResponseDto;
+import com.eazybytes.loans.repository.SimpleNaturalIdRepository;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * What a native image of this service cannot find out by itself: classes that are only ever reached by name or
+ * by reflection, and resources read by libraries rather than by Spring. Entities, controller payloads and
+ * Spring-managed configuration files are covered by Spring AOT; H2 and springdoc bring their own metadata.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // cache region sizes for the Caffeine JCache provider
+        hints.resources().registerPattern("application.conf");
+
+        // hibernate.session.events.auto and @EnableJpaRepositories(repositoryBaseClass) name these classes
+        hints.reflection().registerType(JdbcTimeRecorder.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        hints.reflection().registerType(SimpleNaturalIdRepository.class,
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        // built by Hibernate from "select new ..." queries
+        hints.reflection().registerType(LoansView.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+        hints.reflection().registerType(LoansVersion.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+
+        // (de)serialized by Jackson outside of plain @RequestBody / @ResponseBody types: exception handler bodies,
+        // generic and list payloads
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                ErrorResponseDto.class, ResponseDto.class, BatchFetchResponseDto.class, LoansDto.class,
+                AccountEventDto.class);
+    }
+}
@@ -0,0 +1,47 @@
+package com.eazybytes.loans.config;
+
+import com.eazybytes.loans.sequence.BlockNumberAllocator;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+@Configuration
+public class NumberAllocatorConfig {
+
+    // Random loan numbers used to be drawn from [100_000_000_000, 100_900_000_000), so allocated
+    // numbers start above that range and stay 12 digits long.
+    private static final long LOAN_NUMBER_BASE = 101_000_000_000L;
+    private static final long LOAN_NUMBER_MAX = 999_999_999_999L;
+
+    // Not a bean: any Executor bean makes Boot back off from creating applicationTaskExecutor,
+    // which @Async and MVC async rely on.
+    private final ExecutorService numberBlockRefillExecutor;
+
+    public NumberAllocatorConfig(Environment environment) {
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? Thread.ofVirtual().name("number-block-refill").factory()
+                : Thread.ofPlatform().name("number-block-refill").daemon().factory();
+        this.numberBlockRefillExecutor = Executors.newSingleThreadExecutor(threadFactory);
+    }
+
+    @PreDestroy
+    public void shutdownNumberBlockRefillExecutor() {
+        numberBlockRefillExecutor.shutdown();
+    }
+
+    @Bean
+    public BlockNumberAllocator loanNumberAllocator(JdbcTemplate jdbcTemplate,
+                                                    @Value("${loans.number-block-size:100}") long blockSize) {
+        return new BlockNumberAllocator(
+                () -> jdbcTemplate.queryForObject("select next value for loan_number_block_seq", Long.class),
+                numberBlockRefillExecutor, LOAN_NUMBER_BASE, blockSize, LOAN_NUMBER_MAX);
+    }
+}
@@ -0,0 +1,36 @@
+package com.eazybytes.loans.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * With virtual threads requests are no longer capped by Tomcat's workers, and a slow database would park
+ * thousands of them waiting for a pooled connection. While virtual threads are enabled, every Hikari pool waits
+ * at most {@code loans.virtual-threads.connection-timeout} for a connection, so such an episode sheds load
+ * instead. With platform threads the pools keep Hikari's own timeout.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConnectionTimeout implements BeanPostProcessor {
+
+    private final Duration connectionTimeout;
+
+    public VirtualThreadConnectionTimeout(
+            @Value("${loans.virtual-threads.connection-timeout:2s}") Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+        }
+        return bean;
+    }
+}
@@ -8,6 +8,8 @@ public final class LoansConstants {
 
     public static final String  HOME_LOAN = "Home Loan";
     public static final int  NEW_LOAN_LIMIT = 1_00_000;
+    public static final int  NEW_LOAN_INTEREST_RATE_BPS = 850;
+    public static final int  NEW_LOAN_TERM_MONTHS = 360;
     public static final String  STATUS_201 = "201";
     public static final String  MESSAGE_201 = "Loan created successfully";
     public static final String  STATUS_200 = "200";
@@ -15,6 +17,12 @@ public final class LoansConstants {
     public static final String  STATUS_417 = "417";
     public static final String  MESSAGE_417_UPDATE= "Update operation failed. Please try again or contact Dev team";
     public static final String  MESSAGE_417_DELETE= "Delete operation failed. Please try again or contact Dev team";
+    public static final String  MESSAGE_409_CONCURRENT_UPDATE = "The record was changed by another request. Please fetch it again and retry";
+    public static final int  MAX_BATCH_SIZE = 1000;
+    public static final int  FETCH_CHUNK_SIZE = 500;
+    public static final int  EXPORT_PAGE_SIZE = 500;
+    public static final String  APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    public static final String  UK_LOANS_MOBILE_NUMBER = "uk_loans_mobile_number";
     // public static final String  STATUS_500 = "500";
     // public static final String  MESSAGE_500 = "An error occurred. Please try again or contact Dev team";
 
@@ -0,0 +1,63 @@
+package com.eazybytes.loans.controller;
+
+import com.eazybytes.loans.constants.LoansConstants;
+import com.eazybytes.loans.dto.AccountEventDto;
+import com.eazybytes.loans.dto.ErrorResponseDto;
+import com.eazybytes.loans.dto.ResponseDto;
+import com.eazybytes.loans.service.IAccountEventsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@Tag(
+        name = "Account events REST API for Loans in EazyBank",
+        description = "REST API the accounts service delivers account lifecycle events to"
+)
+@RestController
+@RequestMapping(path = "/api", produces = {MediaType.APPLICATION_JSON_VALUE})
+public class AccountEventsController {
+
+    private final IAccountEventsService iAccountEventsService;
+
+    public AccountEventsController(IAccountEventsService iAccountEventsService) {
+        this.iAccountEventsService = iAccountEventsService;
+    }
+
+    @Operation(
+            summary = "Receive Account Events REST API",
+            description = "REST API to create, move and delete loans following account lifecycle events"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping("/events")
+    public ResponseEntity<ResponseDto> receiveAccountEvents(@RequestBody List<AccountEventDto> accountEvents) {
+        iAccountEventsService.applyAccountEvents(accountEvents);
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(new ResponseDto(LoansConstants.STATUS_200, LoansConstants.MESSAGE_200));
+    }
+}
@@ -1,11 +1,22 @@
 package com.eazybytes.loans.controller;
 
 import com.eazybytes.loans.constants.LoansConstants;
+import com.eazybytes.loans.dto.AmortizationScheduleDto;
+import com.eazybytes.loans.dto.BatchFetchRequestDto;
+import com.eazybytes.loans.dto.BatchFetchResponseDto;
 import com.eazybytes.loans.dto.ErrorResponseDto;
 import com.eazybytes.loans.dto.LoansContactInfoDto;
 import com.eazybytes.loans.dto.LoansDto;
+import com.eazybytes.loans.dto.LoansVersion;
+import com.eazybytes.loans.dto.RepaymentDto;
+import com.eazybytes.loans.dto.RepaymentRequestDto;
 import com.eazybytes.loans.dto.ResponseDto;
+import com.eazybytes.loans.service.ILoanRepaymentsService;
 import com.eazybytes.loans.service.ILoansService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -23,6 +34,11 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 
 /**
  * @author Eazy Bytes
@@ -38,9 +54,11 @@ import org.springframework.web.bind.annotation.*;
 public class LoansController {
 
     private ILoansService iLoansService;
+    private ILoanRepaymentsService iLoanRepaymentsService;
 
-    public LoansController(ILoansService iLoansService) {
+    public LoansController(ILoansService iLoansService, ILoanRepaymentsService iLoanRepaymentsService) {
         this.iLoansService = iLoansService;
+        this.iLoanRepaymentsService = iLoanRepaymentsService;
     }
 
     @Value("${build.version}")
@@ -52,6 +70,9 @@ public class LoansController {
     @Autowired
     private LoansContactInfoDto loansContactInfoDto;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Operation(
             summary = "Create Loan REST API",
             description = "REST API to create new loan inside EazyBank"
@@ -89,6 +110,10 @@ public class LoansController {
                     responseCode = "200",
                     description = "HTTP Status OK"
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "HTTP Status Not Modified, when If-None-Match or If-Modified-Since still matches"
+            ),
             @ApiResponse(
                     responseCode = "500",
                     description = "HTTP Status Internal Server Error",
@@ -101,9 +126,49 @@ public class LoansController {
     @GetMapping("/fetch")
     public ResponseEntity<LoansDto> fetchLoanDetails(@RequestParam
                                                      @Pattern(regexp="(^$|[0-9]{10})",message = "Mobile number must be 10 digits")
-                                                     String mobileNumber) {
+                                                     String mobileNumber,
+                                                     WebRequest webRequest) {
+        // read the version first, so a concurrent update can only pair a newer body with an older ETag
+        LoansVersion version = iLoansService.fetchLoanVersion(mobileNumber);
+        if (webRequest.checkNotModified(version.eTag(), version.lastModified().toEpochMilli())) {
+            return null;
+        }
         LoansDto loansDto = iLoansService.fetchLoan(mobileNumber);
-        return ResponseEntity.status(HttpStatus.OK).body(loansDto);
+        return ResponseEntity.status(HttpStatus.OK)
+                .eTag(version.eTag())
+                .lastModified(version.lastModified())
+                .body(loansDto);
+    }
+
+    @Operation(
+            summary = "Batch Fetch Loan Details REST API",
+            description = "REST API to fetch loan details for many mobile numbers in one call"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping("/fetch/batch")
+    public ResponseEntity<BatchFetchResponseDto<LoansDto>> fetchLoanDetailsBatch(@Valid @RequestBody BatchFetchRequestDto batchFetchRequestDto) {
+        BatchFetchResponseDto<LoansDto> responseDto = iLoansService.fetchLoans(batchFetchRequestDto.getMobileNumbers());
+        return ResponseEntity.status(HttpStatus.OK).body(responseDto);
     }
 
     @Operation(
@@ -115,6 +180,13 @@ public class LoansController {
                     responseCode = "200",
                     description = "HTTP Status OK"
             ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "HTTP Status Conflict",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
             @ApiResponse(
                     responseCode = "417",
                     description = "Expectation Failed"
@@ -180,6 +252,112 @@ public class LoansController {
         }
     }
 
+    @Operation(
+            summary = "Loan Repayment REST API",
+            description = "REST API to pay the next installment of a loan, or more to repay principal early"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "HTTP Status Bad Request, when the amount is below the interest due or above the payoff amount",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "HTTP Status Conflict",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @PostMapping("/repay")
+    public ResponseEntity<RepaymentDto> repayLoan(@Valid @RequestBody RepaymentRequestDto repaymentRequestDto) {
+        RepaymentDto repaymentDto = iLoanRepaymentsService.repay(repaymentRequestDto.getLoanNumber(),
+                repaymentRequestDto.getAmount());
+        return ResponseEntity.status(HttpStatus.OK).body(repaymentDto);
+    }
+
+    @Operation(
+            summary = "Fetch Amortization Schedule REST API",
+            description = "REST API to fetch the installments left on a loan, with their principal and interest"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping("/schedule")
+    public ResponseEntity<AmortizationScheduleDto> fetchAmortizationSchedule(@RequestParam
+                                                                             @Pattern(regexp="(^$|[0-9]{12})",message = "LoanNumber must be 12 digits")
+                                                                             String loanNumber) {
+        return ResponseEntity.status(HttpStatus.OK).body(iLoanRepaymentsService.fetchSchedule(loanNumber));
+    }
+
+    @Operation(
+            summary = "Export Loan Details REST API",
+            description = "REST API to stream every loan as newline-delimited JSON"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "HTTP Status OK"
+            ),
+            @ApiResponse(
+                    responseCode = "500",
+                    description = "HTTP Status Internal Server Error",
+                    content = @Content(
+                            schema = @Schema(implementation = ErrorResponseDto.class)
+                    )
+            )
+    }
+    )
+    @GetMapping(value = "/export", produces = LoansConstants.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportLoanDetails() {
+        // rows are left in the generator buffer instead of being flushed one by one
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody responseBody = outputStream -> {
+            try (JsonGenerator generator = writer.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                iLoansService.exportLoans(loansDto -> writeLine(writer, generator, loansDto));
+            }
+        };
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(MediaType.parseMediaType(LoansConstants.APPLICATION_NDJSON_VALUE))
+                .body(responseBody);
+    }
+
+    private void writeLine(ObjectWriter writer, JsonGenerator generator, Object value) {
+        try {
+            writer.writeValue(generator, value);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Operation(
             summary = "Get Build information",
             description = "Get Build information that is deployed into cards microservice"
@@ -0,0 +1,23 @@
+package com.eazybytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+/**
+ * Account lifecycle event published by the accounts service. The type is kept as a string so that event types
+ * this service does not know yet are ignored rather than rejected.
+ *
+ * @param eventType            ACCOUNT_CREATED, ACCOUNT_UPDATED or ACCOUNT_DELETED
+ * @param previousMobileNumber the mobile number before an update changed it, otherwise null
+ */
+@Schema(name = "AccountEvent",
+        description = "Schema to hold an account lifecycle event of the accounts service"
+)
+public record AccountEventDto(Long eventId, String eventType, Long customerId, String mobileNumber,
+                              String previousMobileNumber, Long accountNumber, LocalDateTime occurredAt) {
+
+    public static final String ACCOUNT_CREATED = "ACCOUNT_CREATED";
+    public static final String ACCOUNT_UPDATED = "ACCOUNT_UPDATED";
+    public static final String ACCOUNT_DELETED = "ACCOUNT_DELETED";
+}
@@ -0,0 +1,41 @@
+package com.eazybytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(name = "AmortizationSchedule",
+        description = "Schema to hold the installments left on a loan"
+)
+@Data @AllArgsConstructor @NoArgsConstructor
+public class AmortizationScheduleDto {
+
+    @Schema(
+            description = "Loan Number of the customer", example = "548732457654"
+    )
+    private String loanNumber;
+
+    @Schema(
+            description = "Annual interest rate in basis points", example = "850"
+    )
+    private int interestRateBps;
+
+    @Schema(
+            description = "Regular monthly installment", example = "769"
+    )
+    private int installment;
+
+    @Schema(
+            description = "Principal still outstanding", example = "100000"
+    )
+    private int outstandingAmount;
+
+    @Schema(
+            description = "Installments left, the next one first"
+    )
+    private List<InstallmentDto> installments;
+
+}
@@ -0,0 +1,29 @@
+package com.eazybytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(name = "BatchFetchResponse",
+        description = "Schema to hold the results of a batch fetch keyed by mobile number"
+)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchFetchResponseDto<T> {
+
+    @Schema(
+            description = "Details found, keyed by mobile number"
+    )
+    private Map<String, T> results;
+
+    @Schema(
+            description = "Requested mobile numbers for which nothing was found"
+    )
+    private List<String> missing;
+
+}
@@ -0,0 +1,46 @@
+package com.eazybytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Schema(name = "Installment",
+        description = "Schema to hold one monthly installment of a loan"
+)
+@Data @AllArgsConstructor @NoArgsConstructor
+public class InstallmentDto {
+
+    @Schema(
+            description = "Number of the installment, counted from 1", example = "1"
+    )
+    private int number;
+
+    @Schema(
+            description = "Date the installment is due", example = "2025-08-01"
+    )
+    private LocalDate dueDate;
+
+    @Schema(
+            description = "Amount due", example = "769"
+    )
+    private int payment;
+
+    @Schema(
+            description = "Part of the payment that repays principal", example = "61"
+    )
+    private int principal;
+
+    @Schema(
+            description = "Part of the payment that pays interest", example = "708"
+    )
+    private int interest;
+
+    @Schema(
+            description = "Principal outstanding after the installment", example = "99939"
+    )
+    private int balance;
+
+}
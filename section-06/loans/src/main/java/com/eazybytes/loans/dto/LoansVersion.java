@@ -0,0 +1,21 @@
+package com.eazybytes.loans.dto;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Id and last modification time of a loan, read without loading the row; used as the validator for
+ * conditional GET /api/fetch requests.
+ */
+public record LoansVersion(Long loanId, LocalDateTime modifiedAt) {
+
+    public String eTag() {
+        return "\"" + Long.toHexString(loanId) + "-" + Long.toHexString(ChronoUnit.MICROS.between(Instant.EPOCH, lastModified())) + "\"";
+    }
+
+    public Instant lastModified() {
+        return modifiedAt.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
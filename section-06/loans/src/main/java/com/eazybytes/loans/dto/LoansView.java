@@ -0,0 +1,8 @@
+package com.eazybytes.loans.dto;
+
+/**
+ * Read-only projection of a loan row, populated directly by the repository query without loading
+ * managed entities.
+ */
+public record LoansView(Long loanId, String mobileNumber, String loanNumber, String loanType, int totalLoan, int amountPaid, int outstandingAmount) {
+}
@@ -0,0 +1,49 @@
+package com.eazybytes.loans.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Schema(name = "Repayment",
+        description = "Schema to hold how a payment was split and what is left on the loan"
+)
+@Data @AllArgsConstructor @NoArgsConstructor
+public class RepaymentDto {
+
+    @Schema(
+            description = "Loan Number of the customer", example = "548732457654"
+    )
+    private String loanNumber;
+
+    @Schema(
+            description = "Installment the payment was posted to", example = "1"
+    )
+    private int installmentNumber;
+
+    @Schema(
+            description = "Amount paid", example = "769"
+    )
+    private int amount;
+
+    @Schema(
+            description = "Part of the amount that repaid principal", example = "61"
+    )
+    private int principal;
+
+    @Schema(
+            description = "Part of the amount that paid interest", example = "708"
+    )
+    private int interest;
+
+    @Schema(
+            description = "Principal still outstanding", example = "99939"
+    )
+    private int outstandingAmount;
+
+    @Schema(
+            description = "Installments left", example = "359"
+    )
+    private int installmentsLeft;
+
+}
@@ -2,8 +2,18 @@ package com.eazybytes.loans.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.annotations.SoftDelete;
 
 @Entity
+@DynamicUpdate
+@SoftDelete
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "loans")
+@NaturalIdCache(region = "loans-by-mobile-number")
 @Getter @Setter @ToString @AllArgsConstructor @NoArgsConstructor
 public class Loans extends BaseEntity {
 
@@ -11,6 +21,8 @@ public class Loans extends BaseEntity {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long loanId;
 
+	// mutable: updateLoan maps the mobile number from the request onto the loan
+	@NaturalId(mutable = true)
 	private String mobileNumber;
 
 	private String loanNumber;
@@ -22,5 +34,15 @@ public class Loans extends BaseEntity {
 	private int amountPaid;
 
 	private int outstandingAmount;
-	
+
+	// annual rate in basis points and term in months; they fix the monthly installment of the loan
+	private int interestRateBps;
+
+	private int termMonths;
+
+	private int installmentsPaid;
+
+	// amountPaid only counts repaid principal
+	private int interestPaid;
+
 }
@@ -0,0 +1,14 @@
+package com.eazybytes.loans.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST)
+public class InvalidRepaymentException extends RuntimeException {
+
+    public InvalidRepaymentException(String loanNumber, int amount, int minimum, int maximum){
+        super("Repayment of " + amount + " on loan " + loanNumber + " must be between " + minimum + " and "
+                + maximum, null, false, false);
+    }
+
+}
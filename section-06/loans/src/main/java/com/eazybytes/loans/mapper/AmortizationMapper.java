@@ -0,0 +1,35 @@
+package com.eazybytes.loans.mapper;
+
+import com.eazybytes.loans.amortization.AmortizationSchedule;
+import com.eazybytes.loans.amortization.Repayment;
+import com.eazybytes.loans.dto.AmortizationScheduleDto;
+import com.eazybytes.loans.dto.InstallmentDto;
+import com.eazybytes.loans.dto.RepaymentDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class AmortizationMapper {
+
+    /**
+     * @param firstDueDate - due date of installment number 1; installment n is due n - 1 months later
+     */
+    public static AmortizationScheduleDto mapToAmortizationScheduleDto(String loanNumber, LocalDate firstDueDate,
+                                                                       AmortizationSchedule schedule) {
+        List<InstallmentDto> installments = new ArrayList<>(schedule.size());
+        for (int i = 0; i < schedule.size(); i++) {
+            installments.add(new InstallmentDto(schedule.number(i), firstDueDate.plusMonths(schedule.number(i) - 1),
+                    schedule.payment(i), schedule.principal(i), schedule.interest(i), schedule.balance(i)));
+        }
+        return new AmortizationScheduleDto(loanNumber, schedule.rateBps(), schedule.installment(),
+                schedule.openingBalance(), installments);
+    }
+
+    public static RepaymentDto mapToRepaymentDto(String loanNumber, Repayment repayment) {
+        return new RepaymentDto(loanNumber, repayment.installmentNumber(), repayment.amount(),
+                repayment.principal(), repayment.interest(), repayment.remaining().openingBalance(),
+                repayment.remaining().size());
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.eazybytes.loans.mapper;
 
 import com.eazybytes.loans.dto.LoansDto;
+import com.eazybytes.loans.dto.LoansView;
 import com.eazybytes.loans.entity.Loans;
 
 public class LoansMapper {
@@ -15,6 +16,16 @@ public class LoansMapper {
         return loansDto;
     }
 
+    public static LoansDto mapToLoansDto(LoansView loansView, LoansDto loansDto) {
+        loansDto.setLoanNumber(loansView.loanNumber());
+        loansDto.setLoanType(loansView.loanType());
+        loansDto.setMobileNumber(loansView.mobileNumber());
+        loansDto.setTotalLoan(loansView.totalLoan());
+        loansDto.setAmountPaid(loansView.amountPaid());
+        loansDto.setOutstandingAmount(loansView.outstandingAmount());
+        return loansDto;
+    }
+
     public static Loans mapToLoans(LoansDto loansDto, Loans loans) {
         loans.setLoanNumber(loansDto.getLoanNumber());
         loans.setLoanType(loansDto.getLoanType());
@@ -0,0 +1,89 @@
+package com.eazybytes.loans.replica;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how far the read replica is behind the primary and decides whether reads may go to it.
+ * <p>
+ * Every {@code check-interval} the current time is written to the single replica_heartbeat row on the primary
+ * and the row is read back from the replica; the difference is the replication lag, give or take one interval.
+ * The replica is used while the lag stays within {@code max-lag}. A replica that is too far behind, or cannot be
+ * queried at all, is not used until a later check finds it caught up, and reads fall back to the primary. Until
+ * the first successful check the replica is not used.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    static final String LAG_GAUGE = "datasource.replica.lag";
+    static final String USABLE_GAUGE = "datasource.replica.usable";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration maxLag;
+
+    private volatile boolean replicaUsable;
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLag = maxLag;
+        TimeGauge.builder(LAG_GAUGE, this, TimeUnit.MILLISECONDS, monitor -> monitor.lagMillis)
+                .description("Replication lag of the read replica at the last check, -1 if it could not be read")
+                .register(meterRegistry);
+        Gauge.builder(USABLE_GAUGE, this, monitor -> monitor.replicaUsable ? 1 : 0)
+                .description("1 while read-only transactions are sent to the read replica, 0 while they fall back to the primary")
+                .register(meterRegistry);
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(fixedDelayString = "${loans.datasource.replica-lag.check-interval:1s}")
+    public void check() {
+        LocalDateTime beat = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        boolean usable;
+        try {
+            writeHeartbeat(beat);
+            LocalDateTime replicated = replica.queryForObject(
+                    "select beat_at from replica_heartbeat where id = 1", LocalDateTime.class);
+            lagMillis = Math.max(0, Duration.between(replicated, beat).toMillis());
+            usable = lagMillis <= maxLag.toMillis();
+        } catch (DataAccessException e) {
+            lagMillis = -1;
+            usable = false;
+        }
+        if (usable != replicaUsable) {
+            if (usable) {
+                log.info("Read replica caught up (lag {} ms), sending read-only transactions to it", lagMillis);
+            } else {
+                log.warn("Read replica unavailable or lagging (lag {} ms), reading from the primary", lagMillis);
+            }
+        }
+        replicaUsable = usable;
+    }
+
+    private void writeHeartbeat(LocalDateTime beat) {
+        if (primary.update("update replica_heartbeat set beat_at = ? where id = 1", beat) == 0) {
+            try {
+                primary.update("insert into replica_heartbeat (id, beat_at) values (1, ?)", beat);
+            } catch (DataIntegrityViolationException e) {
+                // another instance inserted the row first
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.eazybytes.loans.repository;
+
+import com.eazybytes.loans.entity.AppliedAccountEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface AppliedAccountEventRepository extends JpaRepository<AppliedAccountEvent, Long> {
+
+    /**
+     * Read-write so that it is answered by the primary; a lagging read replica would miss recent markers.
+     */
+    @Override
+    @Transactional
+    boolean existsById(Long eventId);
+}
@@ -1,15 +1,41 @@
 package com.eazybytes.loans.repository;
 
+import com.eazybytes.loans.dto.LoansVersion;
+import com.eazybytes.loans.dto.LoansView;
 import com.eazybytes.loans.entity.Loans;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface LoansRepository extends JpaRepository<Loans, Long> {
+public interface LoansRepository extends NaturalIdRepository<Loans, Long> {
 
-    Optional<Loans> findByMobileNumber(String mobileNumber);
+    /**
+     * mobileNumber is the loan's natural id, so repeated lookups are answered from the second-level cache.
+     */
+    default Optional<Loans> findByMobileNumber(String mobileNumber) {
+        return findBySimpleNaturalId(mobileNumber);
+    }
+
+    List<Loans> findByMobileNumberIn(Collection<String> mobileNumbers);
+
+    @Query("select new com.eazybytes.loans.dto.LoansVersion(l.loanId, coalesce(l.updatedAt, l.createdAt)) " +
+            "from Loans l where l.mobileNumber = :mobileNumber")
+    Optional<LoansVersion> findLoansVersionByMobileNumber(@Param("mobileNumber") String mobileNumber);
+
+    /**
+     * Keyset page of loans whose id is greater than the given one, projected so nothing enters the
+     * persistence context.
+     */
+    @Query("select new com.eazybytes.loans.dto.LoansView(l.loanId, l.mobileNumber, l.loanNumber, l.loanType, " +
+            "l.totalLoan, l.amountPaid, l.outstandingAmount) " +
+            "from Loans l where l.loanId > :afterLoanId order by l.loanId")
+    List<LoansView> findLoansAfter(@Param("afterLoanId") Long afterLoanId, Limit limit);
 
     Optional<Loans> findByLoanNumber(String loanNumber);
 
@@ -0,0 +1,114 @@
+package com.eazybytes.loans.sequence;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out unique numbers from blocks reserved in the database (hi/lo style).
+ * <p>
+ * Each block index obtained from {@code blockSource} is unique across all nodes, and covers
+ * {@code blockSize} consecutive numbers starting at {@code base + index * blockSize}. Request
+ * threads claim numbers from the current block with a single atomic increment, so there is no
+ * lock and no collision retry on the hot path. When half of a block is used, the next block is
+ * reserved in the background; the lock is only taken at the block boundary to swap blocks.
+ */
+public class BlockNumberAllocator {
+
+    private final LongSupplier blockSource;
+    private final Executor refillExecutor;
+    private final long base;
+    private final long blockSize;
+    private final long maxValue;
+
+    private final ReentrantLock swapLock = new ReentrantLock();
+    private final AtomicReference<CompletableFuture<Block>> prefetched = new AtomicReference<>();
+    private volatile Block current;
+
+    /**
+     * @param blockSource    - returns the next unused block index, e.g. from a database sequence
+     * @param refillExecutor - executor used to reserve the next block ahead of time
+     * @param base           - smallest number this allocator may return
+     * @param blockSize      - amount of numbers reserved per block
+     * @param maxValue       - largest number this allocator may return
+     */
+    public BlockNumberAllocator(LongSupplier blockSource, Executor refillExecutor,
+                                long base, long blockSize, long maxValue) {
+        if (blockSize < 2) {
+            throw new IllegalArgumentException("blockSize must be at least 2");
+        }
+        this.blockSource = blockSource;
+        this.refillExecutor = refillExecutor;
+        this.base = base;
+        this.blockSize = blockSize;
+        this.maxValue = maxValue;
+        // start exhausted, so that the first block is only reserved on first use
+        this.current = new Block(base, blockSize);
+    }
+
+    /**
+     * @return a number that has not been returned before by any allocator sharing the block source
+     */
+    public long next() {
+        while (true) {
+            Block block = current;
+            long offset = block.cursor.getAndIncrement();
+            if (offset < blockSize) {
+                if (offset == blockSize / 2) {
+                    prefetch();
+                }
+                return block.first + offset;
+            }
+            swap(block);
+        }
+    }
+
+    private void prefetch() {
+        CompletableFuture<Block> next = CompletableFuture.supplyAsync(this::reserveBlock, refillExecutor);
+        if (!prefetched.compareAndSet(null, next)) {
+            next.cancel(false);
+        }
+    }
+
+    private void swap(Block exhausted) {
+        swapLock.lock();
+        try {
+            if (current != exhausted) {
+                return; // another thread already installed a fresh block
+            }
+            CompletableFuture<Block> next = prefetched.getAndSet(null);
+            Block fresh = null;
+            if (next != null) {
+                try {
+                    fresh = next.join();
+                } catch (RuntimeException ex) {
+                    // background reservation failed or was cancelled, reserve synchronously below
+                }
+            }
+            current = fresh != null ? fresh : reserveBlock();
+        } finally {
+            swapLock.unlock();
+        }
+    }
+
+    private Block reserveBlock() {
+        long first = base + blockSource.getAsLong() * blockSize;
+        if (first < base || first + blockSize - 1 > maxValue) {
+            throw new IllegalStateException("Number range exhausted: no block left below " + maxValue);
+        }
+        return new Block(first, 0);
+    }
+
+    private static final class Block {
+        private final long first;
+        private final AtomicLong cursor;
+
+        private Block(long first, long cursor) {
+            this.first = first;
+            this.cursor = new AtomicLong(cursor);
+        }
+    }
+}
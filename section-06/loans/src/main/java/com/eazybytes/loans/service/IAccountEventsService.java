@@ -0,0 +1,15 @@
+package com.eazybytes.loans.service;
+
+import com.eazybytes.loans.dto.AccountEventDto;
+
+import java.util.List;
+
+public interface IAccountEventsService {
+
+    /**
+     *
+     * @param accountEvents - Account lifecycle events, oldest first
+     */
+    void applyAccountEvents(List<AccountEventDto> accountEvents);
+
+}
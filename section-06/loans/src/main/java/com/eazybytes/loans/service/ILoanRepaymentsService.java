@@ -0,0 +1,23 @@
+package com.eazybytes.loans.service;
+
+import com.eazybytes.loans.dto.AmortizationScheduleDto;
+import com.eazybytes.loans.dto.RepaymentDto;
+
+public interface ILoanRepaymentsService {
+
+    /**
+     *
+     * @param loanNumber - Loan Number to pay against
+     * @param amount - Amount paid
+     * @return how the amount was split between principal and interest, and what is left on the loan
+     */
+    RepaymentDto repay(String loanNumber, int amount);
+
+    /**
+     *
+     * @param loanNumber - Input Loan Number
+     * @return the installments left on the loan
+     */
+    AmortizationScheduleDto fetchSchedule(String loanNumber);
+
+}
@@ -1,6 +1,11 @@
 package com.eazybytes.loans.service;
 
+import com.eazybytes.loans.dto.BatchFetchResponseDto;
 import com.eazybytes.loans.dto.LoansDto;
+import com.eazybytes.loans.dto.LoansVersion;
+
+import java.util.List;
+import java.util.function.Consumer;
 
 public interface ILoansService {
 
@@ -17,6 +22,26 @@ public interface ILoansService {
      */
     LoansDto fetchLoan(String mobileNumber);
 
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return id and modification timestamp of the Loan, without its details
+     */
+    LoansVersion fetchLoanVersion(String mobileNumber);
+
+    /**
+     *
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Loan Details keyed by mobileNumber, plus the mobileNumbers that were not found
+     */
+    BatchFetchResponseDto<LoansDto> fetchLoans(List<String> mobileNumbers);
+
+    /**
+     *
+     * @param sink - Receives every Loan Details, in loanId order
+     */
+    void exportLoans(Consumer<LoansDto> sink);
+
     /**
      *
      * @param loansDto - LoansDto Object
@@ -31,4 +56,12 @@ public interface ILoansService {
      */
     boolean deleteLoan(String mobileNumber);
 
+    /**
+     *
+     * @param previousMobileNumber - Mobile Number the Loan is registered with
+     * @param mobileNumber - New Mobile Number of the Customer
+     * @return boolean indicating if a loan was moved to the new mobile number
+     */
+    boolean updateMobileNumber(String previousMobileNumber, String mobileNumber);
+
 }
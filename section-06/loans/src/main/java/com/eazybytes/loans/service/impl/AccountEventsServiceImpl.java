@@ -0,0 +1,77 @@
+package com.eazybytes.loans.service.impl;
+
+import com.eazybytes.loans.dto.AccountEventDto;
+import com.eazybytes.loans.entity.AppliedAccountEvent;
+import com.eazybytes.loans.exception.LoanAlreadyExistsException;
+import com.eazybytes.loans.exception.ResourceNotFoundException;
+import com.eazybytes.loans.repository.AppliedAccountEventRepository;
+import com.eazybytes.loans.service.IAccountEventsService;
+import com.eazybytes.loans.service.ILoansService;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@AllArgsConstructor
+public class AccountEventsServiceImpl implements IAccountEventsService {
+
+    private ILoansService iLoansService;
+    private AppliedAccountEventRepository appliedAccountEventRepository;
+
+    /**
+     * Keeps a loan per account: a new account gets a loan, a deleted one loses it, and a changed mobile number
+     * moves the loan along.
+     * <p>
+     * Events arrive at least once, and a redelivered batch may replay a create after the loan already moved to
+     * a new mobile number. Applied event ids are therefore remembered and skipped. The id is stored only after
+     * the event took effect, each in its own transaction, so a failure in between replays one event whose
+     * effect is already there, which the loan operations treat as a no-op.
+     *
+     * @param accountEvents - Account lifecycle events, oldest first
+     */
+    @Override
+    public void applyAccountEvents(List<AccountEventDto> accountEvents) {
+        for (AccountEventDto accountEvent : accountEvents) {
+            if (accountEvent.eventId() != null && appliedAccountEventRepository.existsById(accountEvent.eventId())) {
+                continue;
+            }
+            apply(accountEvent);
+            if (accountEvent.eventId() != null) {
+                appliedAccountEventRepository.save(new AppliedAccountEvent(accountEvent.eventId(), LocalDateTime.now()));
+            }
+        }
+    }
+
+    private void apply(AccountEventDto accountEvent) {
+        switch (accountEvent.eventType()) {
+            case AccountEventDto.ACCOUNT_CREATED -> provisionLoan(accountEvent.mobileNumber());
+            case AccountEventDto.ACCOUNT_UPDATED -> {
+                if (accountEvent.previousMobileNumber() != null) {
+                    iLoansService.updateMobileNumber(accountEvent.previousMobileNumber(), accountEvent.mobileNumber());
+                }
+            }
+            case AccountEventDto.ACCOUNT_DELETED -> removeLoan(accountEvent.mobileNumber());
+            default -> log.debug("Ignoring account event {} of type {}", accountEvent.eventId(), accountEvent.eventType());
+        }
+    }
+
+    private void provisionLoan(String mobileNumber) {
+        try {
+            iLoansService.createLoan(mobileNumber);
+        } catch (LoanAlreadyExistsException e) {
+            // redelivered event, or the loan was created through /api/create
+        }
+    }
+
+    private void removeLoan(String mobileNumber) {
+        try {
+            iLoansService.deleteLoan(mobileNumber);
+        } catch (ResourceNotFoundException e) {
+            // already gone
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.eazybytes.loans.service.impl;
+
+import com.eazybytes.loans.accrual.InterestAccrualJob;
+import com.eazybytes.loans.amortization.AmortizationEngine;
+import com.eazybytes.loans.amortization.AmortizationSchedule;
+import com.eazybytes.loans.amortization.Repayment;
+import com.eazybytes.loans.amortization.ScheduleCache;
+import com.eazybytes.loans.dto.AmortizationScheduleDto;
+import com.eazybytes.loans.dto.RepaymentDto;
+import com.eazybytes.loans.entity.Loans;
+import com.eazybytes.loans.exception.InvalidRepaymentException;
+import com.eazybytes.loans.exception.ResourceNotFoundException;
+import com.eazybytes.loans.mapper.AmortizationMapper;
+import com.eazybytes.loans.repository.LoansRepository;
+import com.eazybytes.loans.service.ILoanRepaymentsService;
+import lombok.AllArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * The schedule of a loan follows from its row: the installment from total, rate and term, the installments left
+ * from the outstanding principal. It is cached per loan version, and a repayment derives the next schedule from
+ * the cached one instead of starting over, see {@link AmortizationEngine#repay}.
+ * <p>
+ * The interest a repayment charges is the scheduled one. The daily accrual of the {@link InterestAccrualJob} is
+ * the bookkeeping view of that same interest between two installments, so a repayment settles it: accrued_interest
+ * goes back to zero and accrual restarts after the day of the payment.
+ */
+@Service
+@AllArgsConstructor
+public class LoanRepaymentsServiceImpl implements ILoanRepaymentsService {
+
+    // accrual never goes back over days a run has already covered, even when that run went past today
+    private static final String SETTLE_ACCRUED_INTEREST = "update loans set accrued_interest = 0, "
+            + "accrued_through = case when accrued_through is null or accrued_through < ? then ? "
+            + "else accrued_through end where loan_id = ?";
+
+    private LoansRepository loansRepository;
+    private ScheduleCache scheduleCache;
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * A concurrent repayment or update of the same loan shows up as a version conflict. The interest accrued
+     * since the last installment is settled by this one.
+     *
+     * @param loanNumber - Loan Number to pay against
+     * @param amount - Amount paid
+     * @return how the amount was split between principal and interest, and what is left on the loan
+     */
+    @Override
+    @Transactional
+    public RepaymentDto repay(String loanNumber, int amount) {
+        Loans loans = findLoan(loanNumber);
+        AmortizationSchedule schedule = schedule(loans);
+        int minimum = AmortizationEngine.minimumPayment(schedule);
+        int maximum = AmortizationEngine.payoffAmount(schedule);
+        if (schedule.isEmpty() || amount < minimum || amount > maximum) {
+            throw new InvalidRepaymentException(loanNumber, amount, minimum, maximum);
+        }
+
+        Repayment repayment = AmortizationEngine.repay(schedule, amount);
+        loans.setOutstandingAmount(repayment.remaining().openingBalance());
+        loans.setAmountPaid(loans.getAmountPaid() + repayment.principal());
+        loans.setInterestPaid(loans.getInterestPaid() + repayment.interest());
+        loans.setInstallmentsPaid(loans.getInstallmentsPaid() + 1);
+        // the new schedule is cached under the version this flush gives the row
+        loansRepository.flush();
+        scheduleCache.put(loans.getLoanId(), loans.getVersion(), repayment.remaining());
+        // plain JDBC, as the accrual columns are not mapped; the flush above already holds the row lock
+        Date today = Date.valueOf(LocalDate.now());
+        jdbcTemplate.update(SETTLE_ACCRUED_INTEREST, today, today, loans.getLoanId());
+        return AmortizationMapper.mapToRepaymentDto(loanNumber, repayment);
+    }
+
+    /**
+     *
+     * @param loanNumber - Input Loan Number
+     * @return the installments left on the loan
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public AmortizationScheduleDto fetchSchedule(String loanNumber) {
+        Loans loans = findLoan(loanNumber);
+        return AmortizationMapper.mapToAmortizationScheduleDto(loanNumber,
+                loans.getCreatedAt().toLocalDate().plusMonths(1), schedule(loans));
+    }
+
+    private Loans findLoan(String loanNumber) {
+        return loansRepository.findByLoanNumber(loanNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Loan", "LoanNumber", loanNumber));
+    }
+
+    private AmortizationSchedule schedule(Loans loans) {
+        AmortizationSchedule schedule = scheduleCache.get(loans.getLoanId(), loans.getVersion());
+        if (schedule == null) {
+            schedule = AmortizationEngine.schedule(loans.getOutstandingAmount(), loans.getInterestRateBps(),
+                    installment(loans), loans.getInstallmentsPaid() + 1);
+            scheduleCache.put(loans.getLoanId(), loans.getVersion(), schedule);
+        }
+        return schedule;
+    }
+
+    /**
+     * An update can raise the outstanding amount past what the installment of the original loan repays, so that
+     * it no longer even covers the interest. The installment is then worked out again from the outstanding
+     * amount over the months left of the term, and over one month once the term is used up.
+     */
+    private static int installment(Loans loans) {
+        int rateBps = loans.getInterestRateBps();
+        int installment = AmortizationEngine.installment(loans.getTotalLoan(), rateBps, loans.getTermMonths());
+        int interest = AmortizationEngine.interest(loans.getOutstandingAmount(), rateBps);
+        if (installment > interest) {
+            return installment;
+        }
+        int monthsLeft = Math.max(1, loans.getTermMonths() - loans.getInstallmentsPaid());
+        // rounding could leave a long term's installment level with the interest
+        return Math.max(AmortizationEngine.installment(loans.getOutstandingAmount(), rateBps, monthsLeft), interest + 1);
+    }
+}
@@ -1,35 +1,65 @@
 package com.eazybytes.loans.service.impl;
 
+import com.eazybytes.loans.bloom.MobileNumberFilter;
 import com.eazybytes.loans.constants.LoansConstants;
+import com.eazybytes.loans.dto.BatchFetchResponseDto;
 import com.eazybytes.loans.dto.LoansDto;
+import com.eazybytes.loans.dto.LoansVersion;
+import com.eazybytes.loans.dto.LoansView;
 import com.eazybytes.loans.entity.Loans;
 import com.eazybytes.loans.exception.LoanAlreadyExistsException;
 import com.eazybytes.loans.exception.ResourceNotFoundException;
 import com.eazybytes.loans.mapper.LoansMapper;
 import com.eazybytes.loans.repository.LoansRepository;
+import com.eazybytes.loans.sequence.BlockNumberAllocator;
 import com.eazybytes.loans.service.ILoansService;
 import lombok.AllArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 @AllArgsConstructor
 public class LoansServiceImpl implements ILoansService {
 
     private LoansRepository loansRepository;
+    private BlockNumberAllocator loanNumberAllocator;
+    private MobileNumberFilter mobileNumberFilter;
 
     /**
+     * Duplicates are detected by the unique constraint on mobile_number rather than a read before the insert.
+     *
      * @param mobileNumber - Mobile Number of the Customer
      */
     @Override
+    @Transactional
     public void createLoan(String mobileNumber) {
-        Optional<Loans> optionalLoans= loansRepository.findByMobileNumber(mobileNumber);
-        if(optionalLoans.isPresent()){
-            throw new LoanAlreadyExistsException("Loan already registered with given mobileNumber "+mobileNumber);
+        mobileNumberFilter.add(mobileNumber);
+        try {
+            // flush now so the violation surfaces here instead of at commit
+            loansRepository.saveAndFlush(createNewLoan(mobileNumber));
+        } catch (DataIntegrityViolationException e) {
+            if (isViolationOf(e, LoansConstants.UK_LOANS_MOBILE_NUMBER)) {
+                throw new LoanAlreadyExistsException("Loan already registered with given mobileNumber "+mobileNumber);
+            }
+            throw e;
         }
-        loansRepository.save(createNewLoan(mobileNumber));
+    }
+
+    private static boolean isViolationOf(DataIntegrityViolationException e, String constraintName) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(constraintName);
     }
 
     /**
@@ -38,13 +68,14 @@ public class LoansServiceImpl implements ILoansService {
      */
     private Loans createNewLoan(String mobileNumber) {
         Loans newLoan = new Loans();
-        long randomLoanNumber = 100000000000L + new Random().nextInt(900000000);
-        newLoan.setLoanNumber(Long.toString(randomLoanNumber));
+        newLoan.setLoanNumber(Long.toString(loanNumberAllocator.next()));
         newLoan.setMobileNumber(mobileNumber);
         newLoan.setLoanType(LoansConstants.HOME_LOAN);
         newLoan.setTotalLoan(LoansConstants.NEW_LOAN_LIMIT);
         newLoan.setAmountPaid(0);
         newLoan.setOutstandingAmount(LoansConstants.NEW_LOAN_LIMIT);
+        newLoan.setInterestRateBps(LoansConstants.NEW_LOAN_INTEREST_RATE_BPS);
+        newLoan.setTermMonths(LoansConstants.NEW_LOAN_TERM_MONTHS);
         return newLoan;
     }
 
@@ -54,39 +85,144 @@ public class LoansServiceImpl implements ILoansService {
      * @return Loan Details based on a given mobileNumber
      */
     @Override
+    @Transactional(readOnly = true)
     public LoansDto fetchLoan(String mobileNumber) {
-        Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        Loans loans = findIfMightExist(mobileNumber, loansRepository::findByMobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
         );
         return LoansMapper.mapToLoansDto(loans, new LoansDto());
     }
 
+    /**
+     *
+     * @param mobileNumber - Input mobile Number
+     * @return id and modification timestamp of the Loan, without its details
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public LoansVersion fetchLoanVersion(String mobileNumber) {
+        return findIfMightExist(mobileNumber, loansRepository::findLoansVersionByMobileNumber).orElseThrow(
+                () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
+        );
+    }
+
+    /**
+     * Resolves the mobileNumbers with IN queries, chunked to stay below the database parameter limits. Those the
+     * MobileNumberFilter rules out are not queried.
+     *
+     * @param mobileNumbers - Input mobile Numbers
+     * @return Loan Details keyed by mobileNumber, plus the mobileNumbers that were not found
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BatchFetchResponseDto<LoansDto> fetchLoans(List<String> mobileNumbers) {
+        List<String> distinctMobileNumbers = new ArrayList<>(new LinkedHashSet<>(mobileNumbers));
+        List<String> candidates = distinctMobileNumbers.stream().filter(mobileNumberFilter::mightExist).toList();
+        Map<String, LoansDto> results = new HashMap<>();
+        for (int from = 0; from < candidates.size(); from += LoansConstants.FETCH_CHUNK_SIZE) {
+            List<String> chunk = candidates.subList(from,
+                    Math.min(from + LoansConstants.FETCH_CHUNK_SIZE, candidates.size()));
+            loansRepository.findByMobileNumberIn(chunk).forEach(loans ->
+                    results.put(loans.getMobileNumber(), LoansMapper.mapToLoansDto(loans, new LoansDto())));
+        }
+        candidates.stream()
+                .filter(mobileNumber -> !results.containsKey(mobileNumber))
+                .forEach(mobileNumber -> mobileNumberFilter.recordFalsePositive());
+
+        List<String> missing = distinctMobileNumbers.stream()
+                .filter(mobileNumber -> !results.containsKey(mobileNumber))
+                .toList();
+        return new BatchFetchResponseDto<>(results, missing);
+    }
+
+    /**
+     * Walks the loans table with keyset pagination. Rows are projected straight into DTOs and handed to the
+     * sink page by page, so memory stays flat regardless of table size. Each page is its own read-only
+     * repository transaction, so no connection is held while the sink writes.
+     *
+     * @param sink - Receives every Loan Details, in loanId order
+     */
+    @Override
+    public void exportLoans(Consumer<LoansDto> sink) {
+        long afterLoanId = 0L;
+        List<LoansView> page;
+        do {
+            page = loansRepository.findLoansAfter(afterLoanId, Limit.of(LoansConstants.EXPORT_PAGE_SIZE));
+            for (LoansView loansView : page) {
+                sink.accept(LoansMapper.mapToLoansDto(loansView, new LoansDto()));
+                afterLoanId = loansView.loanId();
+            }
+        } while (page.size() == LoansConstants.EXPORT_PAGE_SIZE);
+    }
+
     /**
      *
      * @param loansDto - LoansDto Object
      * @return boolean indicating if the update of loan details is successful or not
      */
     @Override
+    @Transactional
     public boolean updateLoan(LoansDto loansDto) {
         Loans loans = loansRepository.findByLoanNumber(loansDto.getLoanNumber()).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "LoanNumber", loansDto.getLoanNumber()));
+        if (!loans.getMobileNumber().equals(loansDto.getMobileNumber())) {
+            mobileNumberFilter.add(loansDto.getMobileNumber());
+        }
+        // written by dirty checking at commit; the version column turns a concurrent update into a conflict
         LoansMapper.mapToLoans(loansDto, loans);
-        loansRepository.save(loans);
         return  true;
     }
 
     /**
+     * The loan is only flagged as deleted here; the row is removed later by the TombstonePurger.
+     *
      * @param mobileNumber - Input MobileNumber
      * @return boolean indicating if the delete of loan details is successful or not
      */
     @Override
+    @Transactional
     public boolean deleteLoan(String mobileNumber) {
-        Loans loans = loansRepository.findByMobileNumber(mobileNumber).orElseThrow(
+        Loans loans = findIfMightExist(mobileNumber, loansRepository::findByMobileNumber).orElseThrow(
                 () -> new ResourceNotFoundException("Loan", "mobileNumber", mobileNumber)
         );
-        loansRepository.deleteById(loans.getLoanId());
+        loansRepository.delete(loans);
         return true;
     }
 
+    /**
+     * Nothing is moved when a loan is already registered with the new mobile number, which is also the case
+     * when the same change is applied twice.
+     *
+     * @param previousMobileNumber - Mobile Number the Loan is registered with
+     * @param mobileNumber - New Mobile Number of the Customer
+     * @return boolean indicating if a loan was moved to the new mobile number
+     */
+    @Override
+    @Transactional
+    public boolean updateMobileNumber(String previousMobileNumber, String mobileNumber) {
+        if (findIfMightExist(mobileNumber, loansRepository::findByMobileNumber).isPresent()) {
+            return false;
+        }
+        return findIfMightExist(previousMobileNumber, loansRepository::findByMobileNumber)
+                .map(loans -> {
+                    mobileNumberFilter.add(mobileNumber);
+                    loans.setMobileNumber(mobileNumber);
+                    return true;
+                })
+                .orElse(false);
+    }
 
+    /**
+     * @return the result of {@code lookup}, or empty without calling it when the mobile number is ruled out
+     */
+    private <T> Optional<T> findIfMightExist(String mobileNumber, Function<String, Optional<T>> lookup) {
+        if (!mobileNumberFilter.mightExist(mobileNumber)) {
+            return Optional.empty();
+        }
+        Optional<T> found = lookup.apply(mobileNumber);
+        if (found.isEmpty()) {
+            mobileNumberFilter.recordFalsePositive();
+        }
+        return found;
+    }
 }
@@ -1,3 +1,5 @@
+CREATE SEQUENCE IF NOT EXISTS `loan_number_block_seq` START WITH 0 MINVALUE 0;
+
 CREATE TABLE IF NOT EXISTS `loans` (
   `loan_id` int NOT NULL AUTO_INCREMENT,
   `mobile_number` varchar(15) NOT NULL,
@@ -6,9 +8,52 @@ CREATE TABLE IF NOT EXISTS `loans` (
   `total_loan` int NOT NULL,
   `amount_paid` int NOT NULL,
   `outstanding_amount` int NOT NULL,
-  `created_at` date NOT NULL,
+  `interest_rate_bps` int NOT NULL DEFAULT 850,
+  `term_months` int NOT NULL DEFAULT 360,
+  `installments_paid` int NOT NULL DEFAULT 0,
+  `interest_paid` int NOT NULL DEFAULT 0,
+  `accrued_interest` decimal(19,4) NOT NULL DEFAULT 0,
+  `accrued_through` date DEFAULT NULL,
+  `created_at` timestamp NOT NULL,
   `created_by` varchar(20) NOT NULL,
-  `updated_at` date DEFAULT NULL,
+  `updated_at` timestamp DEFAULT NULL,
   `updated_by` varchar(20) DEFAULT NULL,
-  PRIMARY KEY (`loan_id`)
-);
\ No newline at end of file
+  `version` bigint NOT NULL DEFAULT 0,
+  `deleted` boolean NOT NULL DEFAULT false,
+  `live_mobile_number` varchar(15) GENERATED ALWAYS AS (CASE WHEN `deleted` THEN NULL ELSE `mobile_number` END),
+  PRIMARY KEY (`loan_id`),
+  CONSTRAINT `uk_loans_mobile_number` UNIQUE (`live_mobile_number`),
+  CONSTRAINT `uk_loans_loan_number` UNIQUE (`loan_number`)
+);
+
+CREATE INDEX IF NOT EXISTS `idx_loans_deleted` ON `loans` (`deleted`);
+
+-- lookups filter on mobile_number and deleted = false; the unique constraint is on live_mobile_number
+CREATE INDEX IF NOT EXISTS `idx_loans_mobile_number` ON `loans` (`mobile_number`, `deleted`);
+
+-- the mobile number filter reads the rows written since its previous refresh
+CREATE INDEX IF NOT EXISTS `idx_loans_created_at` ON `loans` (`created_at`);
+CREATE INDEX IF NOT EXISTS `idx_loans_updated_at` ON `loans` (`updated_at`);
+
+-- one row per chunk of loan ids InterestAccrualJob has committed for an accrual date, so a rerun can skip it
+CREATE TABLE IF NOT EXISTS `interest_accrual_chunk` (
+  `accrual_date` date NOT NULL,
+  `first_loan_id` bigint NOT NULL,
+  `rows_accrued` int NOT NULL,
+  `committed_at` timestamp NOT NULL,
+  PRIMARY KEY (`accrual_date`, `first_loan_id`)
+);
+
+CREATE TABLE IF NOT EXISTS `applied_account_event` (
+  `event_id` bigint NOT NULL,
+  `applied_at` timestamp NOT NULL,
+  PRIMARY KEY (`event_id`)
+);
+
+CREATE INDEX IF NOT EXISTS `idx_applied_account_event_applied_at` ON `applied_account_event` (`applied_at`);
+
+-- written on the primary and read back from the read replica by ReplicaLagMonitor to measure replication lag
+CREATE TABLE IF NOT EXISTS `replica_heartbeat` (
+  `id` int PRIMARY KEY,
+  `beat_at` timestamp NOT NULL
+);
@@ -1,13 +1,25 @@
 package com.eazybytes.loans;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 class LoansApplicationTests {
 
+	@Autowired
+	private ApplicationContext applicationContext;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void applicationTaskExecutor_shouldBeCreated() {
+		assertThat(applicationContext.containsBean("applicationTaskExecutor")).isTrue();
+	}
+
 }
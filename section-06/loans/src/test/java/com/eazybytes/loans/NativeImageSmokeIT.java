@@ -0,0 +1,191 @@
+package com.eazybytes.loans;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the native executable built by the {@code native} profile, and the jar for comparison, through every
+ * CRUD endpoint, then prints startup time (process start to first successful request) and resident memory.
+ * Executed by failsafe in {@code mvn -Pnative verify}; skipped when there is no executable.
+ */
+class NativeImageSmokeIT {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void nativeExecutable_shouldServeCrudEndpointsLikeTheJar() throws Exception {
+        String executable = System.getProperty("native.executable", "");
+        assumeTrue(Files.isExecutable(Path.of(executable)), "no native executable at '" + executable + "'");
+
+        List<String> report = new ArrayList<>();
+        try (RunningService service = start(List.of(executable))) {
+            exerciseCrudEndpoints(service);
+            report.add(service.describe("native"));
+        }
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        try (RunningService service = start(List.of(java, "-jar", System.getProperty("jvm.jar")))) {
+            exerciseCrudEndpoints(service);
+            report.add(service.describe("jvm"));
+        }
+        report.forEach(System.out::println);
+    }
+
+    private void exerciseCrudEndpoints(RunningService service) throws Exception {
+        String mobileNumber = "9500000001";
+        String newMobileNumber = "9500000002";
+
+        assertThat(service.post("/api/create?mobileNumber=" + mobileNumber, null).statusCode()).isEqualTo(201);
+        assertThat(service.post("/api/create?mobileNumber=" + mobileNumber, null).statusCode()).isEqualTo(400);
+
+        HttpResponse<String> fetched = service.get("/api/fetch?mobileNumber=" + mobileNumber);
+        assertThat(fetched.statusCode()).isEqualTo(200);
+        ObjectNode loan = (ObjectNode) objectMapper.readTree(fetched.body());
+        assertThat(loan.get("loanNumber").asText()).hasSize(12);
+
+        HttpResponse<String> batch = service.post("/api/fetch/batch",
+                "{\"mobileNumbers\":[\"" + mobileNumber + "\",\"9500000009\"]}");
+        assertThat(batch.statusCode()).isEqualTo(200);
+        JsonNode batchResult = objectMapper.readTree(batch.body());
+        assertThat(batchResult.path("results").has(mobileNumber)).isTrue();
+        assertThat(batchResult.path("missing").get(0).asText()).isEqualTo("9500000009");
+
+        assertThat(service.put("/api/update", loan.deepCopy().put("loanNumber", "123").toString()).statusCode())
+                .isEqualTo(400);
+        loan.put("amountPaid", 1000).put("outstandingAmount", loan.get("totalLoan").asInt() - 1000);
+        assertThat(service.put("/api/update", loan.toString()).statusCode()).isEqualTo(200);
+        assertThat(objectMapper.readTree(service.get("/api/fetch?mobileNumber=" + mobileNumber).body())
+                .get("amountPaid").asInt()).isEqualTo(1000);
+
+        HttpResponse<String> export = service.get("/api/export");
+        assertThat(export.statusCode()).isEqualTo(200);
+        assertThat(export.body()).contains(mobileNumber);
+
+        assertThat(service.post("/api/events", "[{\"eventId\":1,\"eventType\":\"ACCOUNT_UPDATED\",\"mobileNumber\":\""
+                + newMobileNumber + "\",\"previousMobileNumber\":\"" + mobileNumber + "\"}]").statusCode()).isEqualTo(200);
+        assertThat(service.get("/api/fetch?mobileNumber=" + newMobileNumber).statusCode()).isEqualTo(200);
+
+        assertThat(service.delete("/api/delete?mobileNumber=" + newMobileNumber).statusCode()).isEqualTo(200);
+        assertThat(service.get("/api/fetch?mobileNumber=" + newMobileNumber).statusCode()).isEqualTo(404);
+
+        assertThat(service.get("/v3/api-docs").statusCode()).isEqualTo(200);
+    }
+
+    private RunningService start(List<String> command) throws Exception {
+        int port = freePort();
+        List<String> arguments = new ArrayList<>(command);
+        arguments.add("--server.port=" + port);
+        RunningService service = new RunningService(port);
+
+        long start = System.nanoTime();
+        service.process = new ProcessBuilder(arguments)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        while (System.nanoTime() - start < STARTUP_TIMEOUT.toNanos()) {
+            assertThat(service.process.isAlive()).as("service running: %s", arguments).isTrue();
+            try {
+                if (service.get("/api/contact-info").statusCode() == 200) {
+                    service.startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    return service;
+                }
+            } catch (IOException e) {
+                // not listening yet
+            }
+            Thread.sleep(5);
+        }
+        service.close();
+        throw new AssertionError("Service did not answer within " + STARTUP_TIMEOUT + ": " + arguments);
+    }
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private class RunningService implements AutoCloseable {
+
+        private final int port;
+        private Process process;
+        private long startupMillis;
+
+        RunningService(int port) {
+            this.port = port;
+        }
+
+        HttpResponse<String> get(String path) throws IOException, InterruptedException {
+            return send(request(path).GET());
+        }
+
+        HttpResponse<String> post(String path, String json) throws IOException, InterruptedException {
+            return send(request(path).POST(json == null
+                    ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(json)));
+        }
+
+        HttpResponse<String> put(String path, String json) throws IOException, InterruptedException {
+            return send(request(path).PUT(HttpRequest.BodyPublishers.ofString(json)));
+        }
+
+        HttpResponse<String> delete(String path) throws IOException, InterruptedException {
+            return send(request(path).DELETE());
+        }
+
+        private HttpRequest.Builder request(String path) {
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                    .header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(10));
+        }
+
+        private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        }
+
+        /**
+         * @return startup time and current resident set size, read from /proc on Linux
+         */
+        String describe(String name) throws IOException {
+            Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+            String rss = Files.exists(status)
+                    ? Files.readAllLines(status).stream()
+                        .filter(line -> line.startsWith("VmRSS:"))
+                        .map(line -> Long.parseLong(line.replaceAll("\\D", "")) / 1024 + " MB")
+                        .findFirst().orElse("n/a")
+                    : "n/a";
+            return String.format("%-6s startup %6d ms   RSS after CRUD run %s", name, startupMillis, rss);
+        }
+
+        @Override
+        public void close() throws InterruptedException {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.eazybytes.loans.accrual;
+
+import com.eazybytes.loans.service.ILoansService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "loans.accrual.cron=-",
+        "loans.accrual.chunk-size=3",
+        "loans.accrual.batch-size=2",
+        "loans.accrual.threads=3"
+})
+public class InterestAccrualJobTest {
+
+    // a day of interest on a new loan: 100000 at 8.5%, over 365
+    private static final BigDecimal ONE_DAY = new BigDecimal("23.2877");
+    private static final BigDecimal TEN_DAYS = new BigDecimal("232.8767");
+
+    @Autowired
+    private InterestAccrualJob interestAccrualJob;
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void accrueThrough_shouldAccrueOpenLoansOncePerDay() {
+        for (int i = 1; i <= 10; i++) {
+            iLoansService.createLoan(mobileNumber(8200000000L, i));
+        }
+        iLoansService.deleteLoan(mobileNumber(8200000000L, 10));
+        LocalDate accrualDate = LocalDate.now().plusDays(10);
+
+        AccrualRun run = interestAccrualJob.accrueThrough(accrualDate);
+
+        assertThat(run.complete()).isTrue();
+        assertThat(run.rows()).isGreaterThanOrEqualTo(9);
+        assertThat(run.rowsPerSecond()).isPositive();
+        for (int i = 1; i <= 9; i++) {
+            assertThat(accruedInterest(mobileNumber(8200000000L, i))).isEqualByComparingTo(TEN_DAYS);
+        }
+        assertThat(jdbcTemplate.queryForObject("select accrued_interest from loans where mobile_number = ? "
+                + "and deleted = true", BigDecimal.class, mobileNumber(8200000000L, 10))).isZero();
+
+        AccrualRun rerun = interestAccrualJob.accrueThrough(accrualDate);
+
+        assertThat(rerun.rows()).isZero();
+        assertThat(rerun.chunks()).isZero();
+        assertThat(rerun.skippedChunks()).isEqualTo(run.chunks() + run.skippedChunks());
+        assertThat(accruedInterest(mobileNumber(8200000000L, 1))).isEqualByComparingTo(TEN_DAYS);
+
+        interestAccrualJob.accrueThrough(accrualDate.plusDays(1));
+
+        assertThat(accruedInterest(mobileNumber(8200000000L, 1))).isEqualByComparingTo(TEN_DAYS.add(ONE_DAY));
+    }
+
+    @Test
+    void accrueThrough_shouldResumeWithChunksThatDidNotCommit() {
+        for (int i = 1; i <= 12; i++) {
+            iLoansService.createLoan(mobileNumber(8200000100L, i));
+        }
+        LocalDate accrualDate = LocalDate.now().plusDays(10).plusYears(1);
+        AccrualRun run = interestAccrualJob.accrueThrough(accrualDate);
+        // what a chunk that failed before its commit leaves behind
+        long firstLoanId = loanId(mobileNumber(8200000100L, 1)) / 3 * 3;
+        jdbcTemplate.update("delete from interest_accrual_chunk where accrual_date = ? and first_loan_id = ?",
+                accrualDate, firstLoanId);
+        int rolledBack = jdbcTemplate.update("update loans set accrued_interest = 0, accrued_through = null "
+                + "where loan_id >= ? and loan_id < ? and deleted = false", firstLoanId, firstLoanId + 3);
+
+        AccrualRun resumed = interestAccrualJob.accrueThrough(accrualDate);
+
+        assertThat(resumed.chunks()).isEqualTo(1);
+        assertThat(resumed.skippedChunks()).isEqualTo(run.chunks() + run.skippedChunks() - 1);
+        assertThat(resumed.rows()).isEqualTo(rolledBack);
+        BigDecimal expected = jdbcTemplate.queryForObject("select accrued_interest from loans where mobile_number = ? "
+                + "and deleted = false", BigDecimal.class, mobileNumber(8200000100L, 12));
+        for (int i = 1; i <= 12; i++) {
+            assertThat(accruedInterest(mobileNumber(8200000100L, i))).isEqualByComparingTo(expected);
+        }
+    }
+
+    private BigDecimal accruedInterest(String mobileNumber) {
+        return jdbcTemplate.queryForObject("select accrued_interest from loans where mobile_number = ? "
+                + "and deleted = false", BigDecimal.class, mobileNumber);
+    }
+
+    private long loanId(String mobileNumber) {
+        return jdbcTemplate.queryForObject("select loan_id from loans where mobile_number = ? and deleted = false",
+                Long.class, mobileNumber);
+    }
+
+    private static String mobileNumber(long base, int i) {
+        return Long.toString(base + i);
+    }
+}
@@ -0,0 +1,92 @@
+package com.eazybytes.loans.service.impl;
+
+import com.eazybytes.loans.dto.AccountEventDto;
+import com.eazybytes.loans.exception.ResourceNotFoundException;
+import com.eazybytes.loans.repository.AppliedAccountEventRepository;
+import com.eazybytes.loans.service.IAccountEventsService;
+import com.eazybytes.loans.service.ILoansService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class AccountEventsServiceImplTest {
+
+    @Autowired
+    private IAccountEventsService iAccountEventsService;
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private AppliedAccountEventRepository appliedAccountEventRepository;
+
+    @Test
+    void applyAccountEvents_shouldSkipRedeliveredEvents() {
+        iAccountEventsService.applyAccountEvents(List.of(created(830_001L, "8300000001")));
+        iLoansService.deleteLoan("8300000001");
+
+        iAccountEventsService.applyAccountEvents(List.of(created(830_001L, "8300000001")));
+
+        assertThatThrownBy(() -> iLoansService.fetchLoan("8300000001"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void applyAccountEvents_shouldNotProvisionTheOldMobileNumber_whenCreateIsReplayedAfterRename() {
+        AccountEventDto created = created(830_002L, "8300000002");
+        AccountEventDto renamed = event(830_003L, AccountEventDto.ACCOUNT_UPDATED, "8300000003", "8300000002");
+        iAccountEventsService.applyAccountEvents(List.of(created, renamed));
+
+        iAccountEventsService.applyAccountEvents(List.of(created, renamed));
+
+        assertThat(iLoansService.fetchLoan("8300000003").getMobileNumber()).isEqualTo("8300000003");
+        assertThatThrownBy(() -> iLoansService.fetchLoan("8300000002"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void applyAccountEvents_shouldKeepTheExistingLoan_whenCreatedForANumberThatHasOne() {
+        iLoansService.createLoan("8300000004");
+        String loanNumber = iLoansService.fetchLoan("8300000004").getLoanNumber();
+
+        iAccountEventsService.applyAccountEvents(List.of(created(830_004L, "8300000004")));
+
+        assertThat(iLoansService.fetchLoan("8300000004").getLoanNumber()).isEqualTo(loanNumber);
+        assertThat(appliedAccountEventRepository.existsById(830_004L)).isTrue();
+    }
+
+    @Test
+    void applyAccountEvents_shouldAcceptTheDeleteOfAMissingLoan() {
+        iAccountEventsService.applyAccountEvents(List.of(
+                event(830_005L, AccountEventDto.ACCOUNT_DELETED, "8300000005", null)));
+
+        assertThat(appliedAccountEventRepository.existsById(830_005L)).isTrue();
+    }
+
+    @Test
+    void applyAccountEvents_shouldIgnoreUnknownEventTypes() {
+        iAccountEventsService.applyAccountEvents(List.of(
+                event(830_006L, "ACCOUNT_FROZEN", "8300000006", null)));
+
+        assertThat(appliedAccountEventRepository.existsById(830_006L)).isTrue();
+        assertThatThrownBy(() -> iLoansService.fetchLoan("8300000006"))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    private static AccountEventDto created(long eventId, String mobileNumber) {
+        return event(eventId, AccountEventDto.ACCOUNT_CREATED, mobileNumber, null);
+    }
+
+    private static AccountEventDto event(long eventId, String eventType, String mobileNumber,
+                                         String previousMobileNumber) {
+        return new AccountEventDto(eventId, eventType, 1L, mobileNumber, previousMobileNumber, 1_000_000_001L,
+                LocalDateTime.now());
+    }
+}
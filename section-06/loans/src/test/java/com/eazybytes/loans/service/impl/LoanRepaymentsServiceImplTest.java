@@ -0,0 +1,138 @@
+package com.eazybytes.loans.service.impl;
+
+import com.eazybytes.loans.amortization.AmortizationEngine;
+import com.eazybytes.loans.amortization.AmortizationSchedule;
+import com.eazybytes.loans.constants.LoansConstants;
+import com.eazybytes.loans.dto.AmortizationScheduleDto;
+import com.eazybytes.loans.dto.InstallmentDto;
+import com.eazybytes.loans.dto.LoansDto;
+import com.eazybytes.loans.dto.RepaymentDto;
+import com.eazybytes.loans.exception.InvalidRepaymentException;
+import com.eazybytes.loans.service.ILoanRepaymentsService;
+import com.eazybytes.loans.service.ILoansService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+public class LoanRepaymentsServiceImplTest {
+
+    @Autowired
+    private ILoanRepaymentsService iLoanRepaymentsService;
+
+    @Autowired
+    private ILoansService iLoansService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void fetchSchedule_shouldRepayNewLoanOverItsTerm() {
+        String loanNumber = newLoan("8100000001");
+
+        AmortizationScheduleDto schedule = iLoanRepaymentsService.fetchSchedule(loanNumber);
+
+        List<InstallmentDto> installments = schedule.getInstallments();
+        assertThat(installments).hasSize(LoansConstants.NEW_LOAN_TERM_MONTHS);
+        assertThat(schedule.getInstallment()).isEqualTo(769);
+        assertThat(installments.getFirst().getInterest()).isEqualTo(708);
+        assertThat(installments.getFirst().getPrincipal()).isEqualTo(61);
+        assertThat(installments.stream().mapToInt(InstallmentDto::getPrincipal).sum())
+                .isEqualTo(LoansConstants.NEW_LOAN_LIMIT);
+        assertThat(installments.getLast().getBalance()).isZero();
+        assertThat(installments.getLast().getPayment()).isLessThanOrEqualTo(schedule.getInstallment());
+        assertThat(installments.get(12).getDueDate()).isEqualTo(installments.getFirst().getDueDate().plusYears(1));
+    }
+
+    @Test
+    void repay_shouldMatchFullRecomputation_afterScheduledAndExtraPayments() {
+        String loanNumber = newLoan("8100000002");
+        int[] amounts = {769, 769, 5_000, 769, 708, 769, 20_000, 769};
+
+        for (int amount : amounts) {
+            RepaymentDto repayment = iLoanRepaymentsService.repay(loanNumber, amount);
+            assertThat(repayment.getPrincipal() + repayment.getInterest()).isEqualTo(amount);
+
+            AmortizationScheduleDto incremental = iLoanRepaymentsService.fetchSchedule(loanNumber);
+            AmortizationSchedule full = AmortizationEngine.schedule(repayment.getOutstandingAmount(),
+                    LoansConstants.NEW_LOAN_INTEREST_RATE_BPS, incremental.getInstallment(),
+                    repayment.getInstallmentNumber() + 1);
+            assertThat(incremental.getInstallments()).hasSize(full.size());
+            for (int i = 0; i < full.size(); i++) {
+                InstallmentDto installment = incremental.getInstallments().get(i);
+                assertThat(installment.getNumber()).isEqualTo(full.number(i));
+                assertThat(installment.getPrincipal()).isEqualTo(full.principal(i));
+                assertThat(installment.getInterest()).isEqualTo(full.interest(i));
+                assertThat(installment.getBalance()).isEqualTo(full.balance(i));
+            }
+        }
+
+        LoansDto loan = iLoansService.fetchLoan("8100000002");
+        assertThat(loan.getAmountPaid() + loan.getOutstandingAmount()).isEqualTo(loan.getTotalLoan());
+        // the extra payments shorten the loan rather than lower the installment
+        assertThat(iLoanRepaymentsService.fetchSchedule(loanNumber).getInstallments().size() + amounts.length)
+                .isLessThan(LoansConstants.NEW_LOAN_TERM_MONTHS);
+    }
+
+    @Test
+    void repay_shouldRejectAmountsOutsideInterestDueAndPayoff() {
+        String loanNumber = newLoan("8100000003");
+        int payoff = LoansConstants.NEW_LOAN_LIMIT + 708;
+
+        assertThatThrownBy(() -> iLoanRepaymentsService.repay(loanNumber, 707))
+                .isInstanceOf(InvalidRepaymentException.class);
+        assertThatThrownBy(() -> iLoanRepaymentsService.repay(loanNumber, payoff + 1))
+                .isInstanceOf(InvalidRepaymentException.class);
+
+        RepaymentDto repayment = iLoanRepaymentsService.repay(loanNumber, payoff);
+
+        assertThat(repayment.getOutstandingAmount()).isZero();
+        assertThat(repayment.getInstallmentsLeft()).isZero();
+        assertThat(iLoanRepaymentsService.fetchSchedule(loanNumber).getInstallments()).isEmpty();
+        assertThatThrownBy(() -> iLoanRepaymentsService.repay(loanNumber, 1))
+                .isInstanceOf(InvalidRepaymentException.class);
+    }
+
+    @Test
+    void repay_shouldSettleTheAccruedInterest() {
+        String loanNumber = newLoan("8100000004");
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        jdbcTemplate.update("update loans set accrued_interest = 232.8767, accrued_through = ? where loan_number = ?",
+                yesterday, loanNumber);
+
+        iLoanRepaymentsService.repay(loanNumber, 769);
+
+        assertThat(jdbcTemplate.queryForObject("select accrued_interest from loans where loan_number = ?",
+                BigDecimal.class, loanNumber)).isZero();
+        assertThat(jdbcTemplate.queryForObject("select accrued_through from loans where loan_number = ?",
+                LocalDate.class, loanNumber)).isEqualTo(LocalDate.now());
+    }
+
+    @Test
+    void fetchSchedule_shouldRecomputeTheInstallment_whenItNoLongerCoversTheInterest() {
+        String loanNumber = newLoan("8100000005");
+        LoansDto loan = iLoansService.fetchLoan("8100000005");
+        loan.setOutstandingAmount(20 * LoansConstants.NEW_LOAN_LIMIT);
+        iLoansService.updateLoan(loan);
+
+        AmortizationScheduleDto schedule = iLoanRepaymentsService.fetchSchedule(loanNumber);
+
+        assertThat(schedule.getInstallments()).hasSize(LoansConstants.NEW_LOAN_TERM_MONTHS);
+        assertThat(schedule.getInstallment()).isGreaterThan(schedule.getInstallments().getFirst().getInterest());
+        RepaymentDto repayment = iLoanRepaymentsService.repay(loanNumber, schedule.getInstallment());
+        assertThat(repayment.getOutstandingAmount()).isLessThan(20 * LoansConstants.NEW_LOAN_LIMIT);
+    }
+
+    private String newLoan(String mobileNumber) {
+        iLoansService.createLoan(mobileNumber);
+        return iLoansService.fetchLoan(mobileNumber).getLoanNumber();
+    }
+}